@@ -0,0 +1,98 @@
+package com.github.dimitryivaniuta.booking.auth.security;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+/**
+ * Decode throughput of the plain Nimbus RS256 decoder vs {@link CachingJwtDecoder}.
+ *
+ * <p>Tokens are shaped like the ones issued by {@code JwtService}. A pool of distinct tokens is cycled
+ * to mimic many concurrent users each reusing their own token.</p>
+ *
+ * <pre>./gradlew jmh -PjmhIncludes=JwtDecoderBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class JwtDecoderBenchmark {
+
+  private static final int TOKENS = 1024;
+
+  private JwtDecoder nimbus;
+  private JwtDecoder caching;
+  private String[] tokens;
+
+  @Setup
+  public void setup() throws Exception {
+    KeyPairGenerator gen = KeyPairGenerator.getInstance("RSA");
+    gen.initialize(2048);
+    KeyPair kp = gen.generateKeyPair();
+    RSAPublicKey publicKey = (RSAPublicKey) kp.getPublic();
+    RSAPrivateKey privateKey = (RSAPrivateKey) kp.getPrivate();
+
+    var encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(
+        new RSAKey.Builder(publicKey).privateKey(privateKey).build())));
+    nimbus = NimbusJwtDecoder.withPublicKey(publicKey).build();
+    caching = new CachingJwtDecoder(NimbusJwtDecoder.withPublicKey(publicKey).build(), 100_000);
+
+    Instant now = Instant.now();
+    tokens = new String[TOKENS];
+    for (int i = 0; i < TOKENS; i++) {
+      JwtClaimsSet claims = JwtClaimsSet.builder()
+          .issuer("booking-apartments")
+          .issuedAt(now)
+          .expiresAt(now.plusSeconds(3600))
+          .subject(UUID.randomUUID().toString())
+          .id(UUID.randomUUID().toString())
+          .claim("email", "user" + i + "@local.test")
+          .claim("roles", List.of("USER"))
+          .build();
+      tokens[i] = encoder.encode(JwtEncoderParameters.from(JwsHeader.with(() -> "RS256").build(), claims)).getTokenValue();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Cursor {
+    int next;
+
+    int advance() {
+      next = (next + 1) & (TOKENS - 1);
+      return next;
+    }
+  }
+
+  @Benchmark
+  public Jwt nimbusDecode(Cursor cursor) {
+    return nimbus.decode(tokens[cursor.advance()]);
+  }
+
+  @Benchmark
+  public Jwt cachingDecode(Cursor cursor) {
+    return caching.decode(tokens[cursor.advance()]);
+  }
+}
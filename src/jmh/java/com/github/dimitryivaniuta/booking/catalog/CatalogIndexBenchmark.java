@@ -0,0 +1,65 @@
+package com.github.dimitryivaniuta.booking.catalog;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * City/capacity candidate selection over the apartment catalog: a case-folding linear scan (what
+ * {@code lower(city) = lower(:city) and capacity >= :min} does per row) against the {@link CatalogSnapshot} index.
+ *
+ * <pre>./gradlew jmh -PjmhIncludes=CatalogIndexBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CatalogIndexBenchmark {
+
+  private static final String[] CITIES = {"Gdansk", "Warsaw", "Krakow", "Wroclaw", "Poznan", "Lodz", "Sopot", "Gdynia"};
+
+  @Param({"10000", "100000"})
+  public int apartments;
+
+  private List<ApartmentInfo> all;
+  private CatalogSnapshot snapshot;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Random random = new Random(42);
+    all = new ArrayList<>(apartments);
+    Instant now = Instant.now();
+    for (int i = 0; i < apartments; i++) {
+      all.add(new ApartmentInfo(UUID.randomUUID(), "Apartment " + i, CITIES[random.nextInt(CITIES.length)],
+          1 + random.nextInt(8), now, null, null, RateTable.UNPRICED));
+    }
+    snapshot = new CatalogSnapshot(all);
+  }
+
+  @Benchmark
+  public int linearScan() {
+    int n = 0;
+    for (ApartmentInfo a : all) {
+      if (a.city().toLowerCase().equals("gdansk") && a.capacity() >= 4) {
+        n++;
+      }
+    }
+    return n;
+  }
+
+  @Benchmark
+  public int indexLookup() {
+    return snapshot.candidates("GDANSK", 4).size();
+  }
+}
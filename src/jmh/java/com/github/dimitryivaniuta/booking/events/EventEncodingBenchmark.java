@@ -0,0 +1,82 @@
+package com.github.dimitryivaniuta.booking.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Encode/decode throughput of a {@code BookingHeld} event: the previous {@code Map.of(...)} to JSON path,
+ * the typed record to JSON, and {@link BookingEventCodec}. Body sizes are printed at setup.
+ *
+ * <pre>./gradlew jmh -PjmhIncludes=EventEncodingBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EventEncodingBenchmark {
+
+  private ObjectMapper mapper;
+  private BookingHeld event;
+  private Map<String, Object> legacyPayload;
+  private byte[] json;
+  private byte[] binary;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    mapper = new ObjectMapper().registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    event = new BookingHeld(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+        LocalDate.of(2026, 2, 20), LocalDate.of(2026, 2, 22), BookingStatus.HOLD, Instant.now());
+    legacyPayload = Map.of(
+        "bookingId", event.bookingId(),
+        "apartmentId", event.apartmentId(),
+        "userId", event.userId().toString(),
+        "startDate", event.startDate().toString(),
+        "endDate", event.endDate().toString(),
+        "status", event.status().name(),
+        "expiresAt", event.expiresAt().toString());
+    json = mapper.writeValueAsBytes(event);
+    binary = BookingEventCodec.encode(event);
+    System.out.printf("%nBookingHeld body: json=%d bytes, binary=%d bytes%n", json.length, binary.length);
+  }
+
+  @Benchmark
+  public byte[] encodeLegacyMapJson() throws Exception {
+    return mapper.writeValueAsString(legacyPayload).getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public byte[] encodeRecordJson() throws Exception {
+    return mapper.writeValueAsBytes(event);
+  }
+
+  @Benchmark
+  public byte[] encodeBinary() {
+    return BookingEventCodec.encode(event);
+  }
+
+  @Benchmark
+  public Object decodeJson() throws Exception {
+    return mapper.readValue(json, BookingHeld.class);
+  }
+
+  @Benchmark
+  public Object decodeBinary() {
+    return BookingEventCodec.decode("BookingHeld", binary);
+  }
+}
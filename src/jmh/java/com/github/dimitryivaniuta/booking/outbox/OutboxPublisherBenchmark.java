@@ -0,0 +1,124 @@
+package com.github.dimitryivaniuta.booking.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dimitryivaniuta.booking.events.EventEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+/**
+ * Events/second of the pipelined {@link OutboxPublisher} vs the previous one-record-at-a-time loop
+ * ({@code send(...).get()} followed by a per-row UPDATE).
+ *
+ * <p>Kafka and Postgres are simulated with fixed latencies: every send is acknowledged {@code brokerMicros}
+ * after it is issued (independently, as a pipelining producer would), every UPDATE costs {@code dbMicros}.</p>
+ *
+ * <pre>./gradlew jmh -PjmhIncludes=OutboxPublisherBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OutboxPublisherBenchmark {
+
+  private static final int BATCH = 100;
+
+  @Param({"2000"})
+  public long brokerMicros;
+
+  @Param({"1000"})
+  public long dbMicros;
+
+  private ScheduledExecutorService broker;
+  private OutboxRepository repository;
+  private KafkaTemplate<String, byte[]> template;
+  private OutboxPublisher pipelined;
+  private List<OutboxMessage> batch;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    broker = Executors.newScheduledThreadPool(2);
+    repository = simulatedRepository();
+    template = new KafkaTemplate<String, byte[]>(new DefaultKafkaProducerFactory<String, byte[]>(Map.of())) {
+      @Override
+      public CompletableFuture<SendResult<String, byte[]>> send(ProducerRecord<String, byte[]> record) {
+        CompletableFuture<SendResult<String, byte[]>> ack = new CompletableFuture<>();
+        broker.schedule(() -> ack.complete(null), brokerMicros, TimeUnit.MICROSECONDS);
+        return ack;
+      }
+    };
+    pipelined = new OutboxPublisher(repository, new OutboxClaimer(repository, 1, 60_000, "bench"), template,
+        new EventEncoder(new ObjectMapper(), Set.of()), new SimpleMeterRegistry(), BATCH, "booking-events", 30_000, 1);
+
+    batch = new ArrayList<>(BATCH);
+    for (int i = 0; i < BATCH; i++) {
+      OutboxMessage m = new OutboxMessage("booking-events", "Booking", UUID.randomUUID(), "BookingHeld",
+          "{\"bookingId\":\"" + UUID.randomUUID() + "\",\"status\":\"HOLD\"}");
+      m.setId((long) i + 1);
+      batch.add(m);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    broker.shutdownNow();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public int pipelinedBatch() {
+    return pipelined.publishBatch(batch);
+  }
+
+  /** The pre-pipelining loop: one blocking send and one UPDATE transaction per record. */
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public int sequentialBatch() throws Exception {
+    int marked = 0;
+    for (OutboxMessage msg : batch) {
+      template.send(new ProducerRecord<>(msg.getTopic(), msg.getAggregateId().toString(),
+          msg.getPayload().getBytes(StandardCharsets.UTF_8))).get();
+      marked += repository.markPublished(List.of(msg.getId()), Instant.now());
+    }
+    return marked;
+  }
+
+  private OutboxRepository simulatedRepository() {
+    return (OutboxRepository) Proxy.newProxyInstance(
+        OutboxRepository.class.getClassLoader(),
+        new Class<?>[] {OutboxRepository.class},
+        (proxy, method, args) -> {
+          if (method.getName().equals("markPublished")) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(dbMicros));
+            return ((Collection<?>) args[0]).size();
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+  }
+}
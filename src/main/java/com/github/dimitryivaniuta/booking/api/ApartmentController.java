@@ -1,21 +1,30 @@
 package com.github.dimitryivaniuta.booking.api;
 
 import com.github.dimitryivaniuta.booking.api.dto.ApartmentCreateRequest;
+import com.github.dimitryivaniuta.booking.api.dto.ApartmentImportResponse;
+import com.github.dimitryivaniuta.booking.api.dto.ApartmentRatesRequest;
+import com.github.dimitryivaniuta.booking.api.dto.ApartmentRatesResponse;
 import com.github.dimitryivaniuta.booking.api.dto.ApartmentResponse;
 import com.github.dimitryivaniuta.booking.api.dto.AvailabilityResponse;
 import com.github.dimitryivaniuta.booking.domain.Apartment;
+import com.github.dimitryivaniuta.booking.service.ApartmentImportService;
 import com.github.dimitryivaniuta.booking.service.ApartmentService;
 import com.github.dimitryivaniuta.booking.service.BookingService;
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -28,7 +37,11 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class ApartmentController {
 
+  /** CSV upload media type. */
+  public static final String TEXT_CSV = "text/csv";
+
   private final ApartmentService apartmentService;
+  private final ApartmentImportService apartmentImportService;
   private final BookingService bookingService;
 
   /**
@@ -44,6 +57,27 @@ public class ApartmentController {
     return ApiMapper.toResponse(a);
   }
 
+  /**
+   * Bulk-imports apartments from a CSV ({@value #TEXT_CSV}, with a header line) or NDJSON upload.
+   *
+   * <p>The body is streamed; invalid rows are reported and skipped, valid rows are inserted in JDBC batches.</p>
+   *
+   * @param contentType upload content type
+   * @param body upload
+   * @return counts and per-row errors
+   */
+  @PostMapping(value = "/import", consumes = {TEXT_CSV, MediaType.APPLICATION_NDJSON_VALUE})
+  @PreAuthorize("hasRole('ADMIN')")
+  public ApartmentImportResponse importApartments(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+      InputStream body
+  ) {
+    ApartmentImportService.Format format = contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+        ? ApartmentImportService.Format.NDJSON
+        : ApartmentImportService.Format.CSV;
+    return apartmentImportService.importApartments(body, format);
+  }
+
   /**
    * Gets an apartment.
    *
@@ -55,6 +89,19 @@ public class ApartmentController {
     return ApiMapper.toResponse(apartmentService.get(id));
   }
 
+  /**
+   * Replaces the base nightly rate and seasonal overrides of an apartment.
+   *
+   * @param id apartment id
+   * @param req rates
+   * @return stored rates
+   */
+  @PutMapping("/{id}/rates")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ApartmentRatesResponse setRates(@PathVariable UUID id, @Valid @RequestBody ApartmentRatesRequest req) {
+    return apartmentService.setRates(id, req);
+  }
+
   /**
    * Checks availability for the given date range.
    *
@@ -12,6 +12,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 /**
@@ -21,26 +22,31 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 public class ApiExceptionHandler {
 
   @ExceptionHandler(NotFoundException.class)
+  @ResponseStatus(HttpStatus.NOT_FOUND)
   public ErrorResponse notFound(NotFoundException ex) {
     return error(HttpStatus.NOT_FOUND, ex.getMessage());
   }
 
   @ExceptionHandler(ConflictException.class)
+  @ResponseStatus(HttpStatus.CONFLICT)
   public ErrorResponse conflict(ConflictException ex) {
     return error(HttpStatus.CONFLICT, ex.getMessage());
   }
 
   @ExceptionHandler(BadRequestException.class)
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
   public ErrorResponse badRequest(BadRequestException ex) {
     return error(HttpStatus.BAD_REQUEST, ex.getMessage());
   }
 
   @ExceptionHandler(ForbiddenException.class)
+  @ResponseStatus(HttpStatus.FORBIDDEN)
   public ErrorResponse forbidden(ForbiddenException ex) {
     return error(HttpStatus.FORBIDDEN, ex.getMessage());
   }
 
   @ExceptionHandler(MethodArgumentNotValidException.class)
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
   public ErrorResponse validation(MethodArgumentNotValidException ex) {
     String msg = ex.getBindingResult().getAllErrors().stream()
         .findFirst()
@@ -50,6 +56,7 @@ public class ApiExceptionHandler {
   }
 
   @ExceptionHandler(Exception.class)
+  @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
   public ErrorResponse generic(Exception ex) {
     return error(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error.");
   }
@@ -2,8 +2,11 @@ package com.github.dimitryivaniuta.booking.api;
 
 import com.github.dimitryivaniuta.booking.api.dto.ApartmentResponse;
 import com.github.dimitryivaniuta.booking.api.dto.BookingResponse;
+import com.github.dimitryivaniuta.booking.catalog.ApartmentInfo;
 import com.github.dimitryivaniuta.booking.domain.Apartment;
 import com.github.dimitryivaniuta.booking.domain.Booking;
+import com.github.dimitryivaniuta.booking.repo.BookingSummary;
+import java.time.LocalDate;
 
 /**
  * Simple mapping utilities.
@@ -16,7 +19,24 @@ public final class ApiMapper {
    * Maps {@link Apartment} to API response.
    */
   public static ApartmentResponse toResponse(Apartment a) {
-    return new ApartmentResponse(a.getId(), a.getName(), a.getCity(), a.getCapacity(), a.getCreatedAt());
+    return new ApartmentResponse(a.getId(), a.getName(), a.getCity(), a.getCapacity(), a.getCreatedAt(),
+        a.getLatitude(), a.getLongitude(), a.getNightlyRate(), null);
+  }
+
+  /**
+   * Maps a catalog {@link ApartmentInfo} to API response.
+   */
+  public static ApartmentResponse toResponse(ApartmentInfo a) {
+    return new ApartmentResponse(a.id(), a.name(), a.city(), a.capacity(), a.createdAt(),
+        a.latitude(), a.longitude(), a.rates().baseRate(), null);
+  }
+
+  /**
+   * Maps a catalog {@link ApartmentInfo} to API response, priced for the stay {@code [from, to)}.
+   */
+  public static ApartmentResponse toResponse(ApartmentInfo a, LocalDate from, LocalDate to) {
+    return new ApartmentResponse(a.id(), a.name(), a.city(), a.capacity(), a.createdAt(),
+        a.latitude(), a.longitude(), a.rates().baseRate(), a.rates().total(from, to));
   }
 
   /**
@@ -35,4 +55,21 @@ public final class ApiMapper {
         b.getUpdatedAt()
     );
   }
+
+  /**
+   * Maps a {@link BookingSummary} listing row to API response.
+   */
+  public static BookingResponse toResponse(BookingSummary b) {
+    return new BookingResponse(
+        b.id(),
+        b.apartmentId(),
+        b.userId().toString(),
+        b.startDate(),
+        b.endDate(),
+        b.status().name(),
+        b.expiresAt(),
+        b.createdAt(),
+        b.updatedAt()
+    );
+  }
 }
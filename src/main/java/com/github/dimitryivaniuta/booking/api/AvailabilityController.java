@@ -2,12 +2,16 @@ package com.github.dimitryivaniuta.booking.api;
 
 import com.github.dimitryivaniuta.booking.api.dto.ApartmentResponse;
 import com.github.dimitryivaniuta.booking.api.dto.PagedResponse;
+import com.github.dimitryivaniuta.booking.catalog.GeoArea;
 import com.github.dimitryivaniuta.booking.service.AvailabilityService;
+import com.github.dimitryivaniuta.booking.service.BadRequestException;
 import jakarta.validation.constraints.Min;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -21,35 +25,111 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class AvailabilityController {
 
+  /** Upper bound (ms) on how far behind committed bookings the answer may be; 0 when read from the database. */
+  public static final String STALENESS_HEADER = "X-Availability-Staleness-Ms";
+
+  private static final double MAX_RADIUS_KM = 200;
+
   private final AvailabilityService availabilityService;
 
   /**
    * Searches available apartments by city/capacity for the given date range.
    *
+   * <p>Each result carries the total price of the stay. {@code minPrice}/{@code maxPrice} filter on that total and
+   * {@code sort=price} orders by it (cheapest first, unpriced apartments last) before paging.</p>
+   *
    * @param city city (case-insensitive)
    * @param capacity minimum capacity
    * @param from check-in (inclusive)
    * @param to check-out (exclusive)
+   * @param minPrice minimum total stay price
+   * @param maxPrice maximum total stay price
+   * @param sort {@code price}, or absent for the default order
    * @param page page index (0-based)
    * @param size page size
-   * @return paged list of available apartments
+   * @return paged list of available apartments, with the {@value #STALENESS_HEADER} header
    */
   @GetMapping("/search")
-  public PagedResponse<ApartmentResponse> search(
+  public ResponseEntity<PagedResponse<ApartmentResponse>> search(
       @RequestParam(value = "city", required = false) String city,
       @RequestParam(value = "capacity", required = false) Integer capacity,
       @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
       @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+      @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+      @RequestParam(value = "sort", required = false) String sort,
+      @RequestParam(value = "page", defaultValue = "0") @Min(0) int page,
+      @RequestParam(value = "size", defaultValue = "20") @Min(1) int size
+  ) {
+    if (sort != null && !sort.isBlank() && !"price".equalsIgnoreCase(sort.trim())) {
+      throw new BadRequestException("Unsupported sort: " + sort + " (supported: price).");
+    }
+    boolean sortByPrice = sort != null && !sort.isBlank();
+    long staleness = availabilityService.stalenessMillis();
+    return paged(availabilityService.search(city, capacity, from, to, minPrice, maxPrice, sortByPrice, page, size),
+        staleness);
+  }
+
+  /**
+   * Searches available apartments inside a map area for the given date range.
+   *
+   * <p>Pass either a bounding box ({@code minLat, minLon, maxLat, maxLon}) or a point plus radius
+   * ({@code lat, lon, radiusKm}); radius results are ordered nearest first. Apartments without a location are
+   * never returned.</p>
+   *
+   * @param minLat southern edge (degrees)
+   * @param minLon western edge (degrees)
+   * @param maxLat northern edge (degrees)
+   * @param maxLon eastern edge (degrees)
+   * @param lat center latitude (degrees)
+   * @param lon center longitude (degrees)
+   * @param radiusKm radius in kilometers
+   * @param capacity minimum capacity
+   * @param from check-in (inclusive)
+   * @param to check-out (exclusive)
+   * @param page page index (0-based)
+   * @param size page size
+   * @return paged list of available apartments, with the {@value #STALENESS_HEADER} header
+   */
+  @GetMapping("/search/geo")
+  public ResponseEntity<PagedResponse<ApartmentResponse>> searchGeo(
+      @RequestParam(value = "minLat", required = false) Double minLat,
+      @RequestParam(value = "minLon", required = false) Double minLon,
+      @RequestParam(value = "maxLat", required = false) Double maxLat,
+      @RequestParam(value = "maxLon", required = false) Double maxLon,
+      @RequestParam(value = "lat", required = false) Double lat,
+      @RequestParam(value = "lon", required = false) Double lon,
+      @RequestParam(value = "radiusKm", required = false) Double radiusKm,
+      @RequestParam(value = "capacity", required = false) Integer capacity,
+      @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
       @RequestParam(value = "page", defaultValue = "0") @Min(0) int page,
       @RequestParam(value = "size", defaultValue = "20") @Min(1) int size
   ) {
-    Page<ApartmentResponse> result = availabilityService.search(city, capacity, from, to, page, size);
-    return new PagedResponse<>(
-        result.getContent(),
-        result.getNumber(),
-        result.getSize(),
-        result.getTotalElements(),
-        result.getTotalPages()
-    );
+    GeoArea area;
+    if (lat != null && lon != null && radiusKm != null) {
+      if (radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) {
+        throw new BadRequestException("radiusKm must be in (0, " + MAX_RADIUS_KM + "].");
+      }
+      area = GeoArea.circle(lat, lon, radiusKm * 1000);
+    } else if (minLat != null && minLon != null && maxLat != null && maxLon != null) {
+      area = GeoArea.box(minLat, minLon, maxLat, maxLon);
+    } else {
+      throw new BadRequestException("Pass either minLat, minLon, maxLat, maxLon or lat, lon, radiusKm.");
+    }
+    long staleness = availabilityService.stalenessMillis();
+    return paged(availabilityService.searchGeo(area, capacity, from, to, page, size), staleness);
+  }
+
+  private static ResponseEntity<PagedResponse<ApartmentResponse>> paged(Page<ApartmentResponse> result, long staleness) {
+    return ResponseEntity.ok()
+        .header(STALENESS_HEADER, String.valueOf(staleness))
+        .body(new PagedResponse<>(
+            result.getContent(),
+            result.getNumber(),
+            result.getSize(),
+            result.getTotalElements(),
+            result.getTotalPages()
+        ));
   }
 }
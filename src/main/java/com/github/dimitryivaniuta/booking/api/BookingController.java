@@ -1,23 +1,36 @@
 package com.github.dimitryivaniuta.booking.api;
 
 import com.github.dimitryivaniuta.booking.api.dto.BookingHoldRequest;
+import com.github.dimitryivaniuta.booking.api.dto.BookingListResponse;
 import com.github.dimitryivaniuta.booking.api.dto.BookingResponse;
 import com.github.dimitryivaniuta.booking.api.dto.ConfirmBookingRequest;
 import com.github.dimitryivaniuta.booking.domain.Booking;
+import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import com.github.dimitryivaniuta.booking.service.BadRequestException;
+import com.github.dimitryivaniuta.booking.service.BookingPage;
+import com.github.dimitryivaniuta.booking.service.BookingExportService;
 import com.github.dimitryivaniuta.booking.service.BookingService;
-import com.github.dimitryivaniuta.booking.security.SecurityUtils;
 import com.github.dimitryivaniuta.booking.security.AuthenticatedUser;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -29,6 +42,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class BookingController {
 
   private final BookingService bookingService;
+  private final BookingExportService bookingExportService;
 
   /**
    * Creates a booking hold.
@@ -39,11 +53,10 @@ public class BookingController {
    */
   @PostMapping("/hold")
   public BookingResponse hold(
-      @AuthenticationPrincipal Jwt jwt,
+      AuthenticatedUser user,
       @Valid @RequestBody BookingHoldRequest req,
       @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
   ) {
-    AuthenticatedUser user = SecurityUtils.fromJwt(jwt);
     Booking b = bookingService.createHold(user, req, idempotencyKey);
     return ApiMapper.toResponse(b);
   }
@@ -57,11 +70,10 @@ public class BookingController {
    */
   @PostMapping("/{id}/confirm")
   public BookingResponse confirm(
-      @AuthenticationPrincipal Jwt jwt,
+      AuthenticatedUser user,
       @PathVariable UUID id,
       @Valid @RequestBody ConfirmBookingRequest req
   ) {
-    AuthenticatedUser user = SecurityUtils.fromJwt(jwt);
     return ApiMapper.toResponse(bookingService.confirm(user, id, req.paymentRef()));
   }
 
@@ -72,8 +84,7 @@ public class BookingController {
    * @return booking
    */
   @PostMapping("/{id}/cancel")
-  public BookingResponse cancel(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
-    AuthenticatedUser user = SecurityUtils.fromJwt(jwt);
+  public BookingResponse cancel(AuthenticatedUser user, @PathVariable UUID id) {
     return ApiMapper.toResponse(bookingService.cancel(user, id));
   }
 
@@ -84,8 +95,65 @@ public class BookingController {
    * @return booking
    */
   @GetMapping("/{id}")
-  public BookingResponse get(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
-    AuthenticatedUser user = SecurityUtils.fromJwt(jwt);
+  public BookingResponse get(AuthenticatedUser user, @PathVariable UUID id) {
     return ApiMapper.toResponse(bookingService.get(user, id));
   }
+
+  /**
+   * Lists the caller's bookings, newest first.
+   *
+   * @param status only this status (optional)
+   * @param cursor {@code nextCursor} from the previous page (optional)
+   * @param size page size
+   * @return page of bookings with the cursor of the next one
+   */
+  @GetMapping
+  public BookingListResponse list(
+      AuthenticatedUser user,
+      @RequestParam(value = "status", required = false) String status,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(100) int size
+  ) {
+    BookingPage page = bookingService.listOwn(user, parseStatus(status), cursor, size);
+    return new BookingListResponse(page.items().stream().map(ApiMapper::toResponse).toList(), page.nextCursor());
+  }
+
+  /**
+   * Streams bookings as NDJSON for reconciliation (admin only).
+   *
+   * <p>Bookings are written oldest first, one JSON object per line, directly from a database cursor.</p>
+   *
+   * @param from only stays ending after this date (optional)
+   * @param to only stays starting before this date (optional)
+   * @param status only this status (optional)
+   * @param apartmentId only this apartment (optional)
+   * @param response servlet response written to
+   * @throws IOException if the client goes away
+   */
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @PreAuthorize("hasRole('ADMIN')")
+  public void export(
+      @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(value = "status", required = false) String status,
+      @RequestParam(value = "apartmentId", required = false) UUID apartmentId,
+      HttpServletResponse response
+  ) throws IOException {
+    BookingStatus s = parseStatus(status);
+    bookingExportService.validate(from, to);
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    bookingExportService.export(from, to, s, apartmentId, response.getOutputStream());
+  }
+
+  private static BookingStatus parseStatus(String status) {
+    if (status == null || status.isBlank()) {
+      return null;
+    }
+    try {
+      return BookingStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Unknown status: " + status);
+    }
+  }
 }
@@ -1,9 +1,13 @@
 package com.github.dimitryivaniuta.booking.api.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
 
 /**
  * Request DTO to create an apartment.
@@ -11,9 +15,20 @@ import jakarta.validation.constraints.Size;
  * @param name apartment name
  * @param city city
  * @param capacity max guests
+ * @param latitude latitude in degrees, optional (given together with longitude)
+ * @param longitude longitude in degrees, optional (given together with latitude)
+ * @param nightlyRate base nightly rate, optional
  */
 public record ApartmentCreateRequest(
     @NotBlank @Size(max = 200) String name,
     @NotBlank @Size(max = 120) String city,
-    @Min(1) @Max(50) int capacity
-) {}
+    @Min(1) @Max(50) int capacity,
+    @DecimalMin("-90") @DecimalMax("90") Double latitude,
+    @DecimalMin("-180") @DecimalMax("180") Double longitude,
+    @DecimalMin("0") @Digits(integer = 10, fraction = 2) BigDecimal nightlyRate
+) {
+
+  public ApartmentCreateRequest(String name, String city, int capacity) {
+    this(name, city, capacity, null, null, null);
+  }
+}
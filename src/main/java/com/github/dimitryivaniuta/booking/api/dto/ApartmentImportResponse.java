@@ -0,0 +1,18 @@
+package com.github.dimitryivaniuta.booking.api.dto;
+
+import java.util.List;
+
+/**
+ * Result of a bulk apartment import.
+ *
+ * @param imported rows inserted
+ * @param failed rows rejected
+ * @param errors per-row errors, in file order (at most the configured maximum)
+ * @param errorsTruncated true if more rows failed than {@code errors} lists
+ */
+public record ApartmentImportResponse(
+    long imported,
+    long failed,
+    List<ImportRowError> errors,
+    boolean errorsTruncated
+) {}
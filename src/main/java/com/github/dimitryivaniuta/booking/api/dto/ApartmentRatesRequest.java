@@ -0,0 +1,20 @@
+package com.github.dimitryivaniuta.booking.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Request DTO replacing an apartment's rates.
+ *
+ * @param nightlyRate base nightly rate
+ * @param seasons seasonal overrides (non-overlapping); optional
+ */
+public record ApartmentRatesRequest(
+    @NotNull @DecimalMin("0") @Digits(integer = 10, fraction = 2) BigDecimal nightlyRate,
+    @Size(max = 500) List<@Valid @NotNull SeasonalRate> seasons
+) {}
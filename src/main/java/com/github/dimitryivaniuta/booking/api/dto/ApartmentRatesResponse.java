@@ -0,0 +1,18 @@
+package com.github.dimitryivaniuta.booking.api.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Apartment rates response DTO.
+ *
+ * @param apartmentId apartment id
+ * @param nightlyRate base nightly rate
+ * @param seasons seasonal overrides ordered by start date
+ */
+public record ApartmentRatesResponse(
+    UUID apartmentId,
+    BigDecimal nightlyRate,
+    List<SeasonalRate> seasons
+) {}
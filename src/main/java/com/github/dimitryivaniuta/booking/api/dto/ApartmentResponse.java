@@ -1,5 +1,6 @@
 package com.github.dimitryivaniuta.booking.api.dto;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -11,11 +12,19 @@ import java.util.UUID;
  * @param city city
  * @param capacity capacity
  * @param createdAt created at
+ * @param latitude latitude in degrees; null if unknown
+ * @param longitude longitude in degrees; null if unknown
+ * @param nightlyRate base nightly rate; null if not priced
+ * @param totalPrice total price of the searched stay (seasonal rates applied); null outside searches or if not priced
  */
 public record ApartmentResponse(
     UUID id,
     String name,
     String city,
     int capacity,
-    Instant createdAt
+    Instant createdAt,
+    Double latitude,
+    Double longitude,
+    BigDecimal nightlyRate,
+    BigDecimal totalPrice
 ) {}
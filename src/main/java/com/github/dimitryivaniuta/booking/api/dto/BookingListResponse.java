@@ -0,0 +1,14 @@
+package com.github.dimitryivaniuta.booking.api.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated booking listing.
+ *
+ * @param items bookings, newest first
+ * @param nextCursor cursor for the next page; null on the last page
+ */
+public record BookingListResponse(
+    List<BookingResponse> items,
+    String nextCursor
+) {}
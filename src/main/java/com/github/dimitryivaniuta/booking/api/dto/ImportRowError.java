@@ -0,0 +1,12 @@
+package com.github.dimitryivaniuta.booking.api.dto;
+
+/**
+ * A rejected row of a bulk import.
+ *
+ * @param line 1-based line number in the uploaded file
+ * @param message reason
+ */
+public record ImportRowError(
+    long line,
+    String message
+) {}
@@ -0,0 +1,20 @@
+package com.github.dimitryivaniuta.booking.api.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Seasonal nightly rate overriding the base rate for {@code [startDate, endDate)}.
+ *
+ * @param startDate first night (inclusive)
+ * @param endDate end (exclusive)
+ * @param nightlyRate rate per night
+ */
+public record SeasonalRate(
+    @NotNull LocalDate startDate,
+    @NotNull LocalDate endDate,
+    @NotNull @DecimalMin("0") @Digits(integer = 10, fraction = 2) BigDecimal nightlyRate
+) {}
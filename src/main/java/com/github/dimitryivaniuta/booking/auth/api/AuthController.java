@@ -7,14 +7,13 @@ import com.github.dimitryivaniuta.booking.auth.api.dto.RegisterRequest;
 import com.github.dimitryivaniuta.booking.auth.api.dto.SessionResponse;
 import com.github.dimitryivaniuta.booking.auth.api.dto.TokenResponse;
 import com.github.dimitryivaniuta.booking.auth.service.AuthService;
-import com.github.dimitryivaniuta.booking.security.SecurityUtils;
 import com.github.dimitryivaniuta.booking.security.AuthenticatedUser;
+import com.github.dimitryivaniuta.booking.security.UserAuthenticationToken;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -61,21 +60,20 @@ public class AuthController {
 
   @PostMapping("/logout")
   @ResponseStatus(HttpStatus.NO_CONTENT)
-  public void logout(@AuthenticationPrincipal Jwt jwt, @RequestBody(required = false) LogoutRequest req) {
+  public void logout(UserAuthenticationToken auth, @RequestBody(required = false) LogoutRequest req) {
+    Jwt jwt = auth.getToken();
     String refreshToken = req == null ? null : req.refreshToken();
     authService.logout(jwt.getId(), jwt.getExpiresAt(), refreshToken);
   }
 
   @PostMapping("/logout-all")
   @ResponseStatus(HttpStatus.NO_CONTENT)
-  public void logoutAll(@AuthenticationPrincipal Jwt jwt) {
-    AuthenticatedUser u = SecurityUtils.fromJwt(jwt);
+  public void logoutAll(AuthenticatedUser u) {
     authService.logoutAll(u.userId());
   }
 
   @GetMapping("/sessions")
-  public List<SessionResponse> sessions(@AuthenticationPrincipal Jwt jwt) {
-    AuthenticatedUser u = SecurityUtils.fromJwt(jwt);
+  public List<SessionResponse> sessions(AuthenticatedUser u) {
     return authService.sessions(u.userId()).stream()
         .map(f -> new SessionResponse(f.getId(), f.getDeviceId(), f.getCreatedAt(), f.getLastUsedAt(), f.getRevokedAt()))
         .toList();
@@ -83,8 +81,7 @@ public class AuthController {
 
   @PostMapping("/sessions/{id}/revoke")
   @ResponseStatus(HttpStatus.NO_CONTENT)
-  public void revokeSession(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
-    AuthenticatedUser u = SecurityUtils.fromJwt(jwt);
+  public void revokeSession(AuthenticatedUser u, @PathVariable UUID id) {
     authService.revokeSession(u.userId(), id);
   }
 }
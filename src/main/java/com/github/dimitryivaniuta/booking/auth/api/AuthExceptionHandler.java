@@ -7,43 +7,61 @@ import com.github.dimitryivaniuta.booking.auth.service.AuthForbiddenException;
 import com.github.dimitryivaniuta.booking.auth.service.AuthLockedException;
 import com.github.dimitryivaniuta.booking.auth.service.AuthNotFoundException;
 import com.github.dimitryivaniuta.booking.auth.service.AuthUnauthorizedException;
+import com.github.dimitryivaniuta.booking.auth.service.AuthUnavailableException;
 import java.time.Instant;
 import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 /**
  * Maps auth domain exceptions to API error responses.
+ *
+ * <p>Ordered ahead of {@code ApiExceptionHandler}, whose catch-all would otherwise turn these into 500s.</p>
  */
+@Order(Ordered.HIGHEST_PRECEDENCE)
 @RestControllerAdvice
 public class AuthExceptionHandler {
 
   @ExceptionHandler(AuthBadRequestException.class)
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
   public ErrorResponse badRequest(AuthBadRequestException ex) {
     return error(HttpStatus.BAD_REQUEST, ex.getMessage());
   }
 
   @ExceptionHandler(AuthUnauthorizedException.class)
+  @ResponseStatus(HttpStatus.UNAUTHORIZED)
   public ErrorResponse unauthorized(AuthUnauthorizedException ex) {
     return error(HttpStatus.UNAUTHORIZED, ex.getMessage());
   }
 
   @ExceptionHandler(AuthForbiddenException.class)
+  @ResponseStatus(HttpStatus.FORBIDDEN)
   public ErrorResponse forbidden(AuthForbiddenException ex) {
     return error(HttpStatus.FORBIDDEN, ex.getMessage());
   }
 
   @ExceptionHandler(AuthLockedException.class)
+  @ResponseStatus(HttpStatus.LOCKED)
   public ErrorResponse locked(AuthLockedException ex) {
     return error(HttpStatus.LOCKED, ex.getMessage());
   }
 
   @ExceptionHandler(AuthNotFoundException.class)
+  @ResponseStatus(HttpStatus.NOT_FOUND)
   public ErrorResponse notFound(AuthNotFoundException ex) {
     return error(HttpStatus.NOT_FOUND, ex.getMessage());
   }
 
+  @ExceptionHandler(AuthUnavailableException.class)
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  public ErrorResponse unavailable(AuthUnavailableException ex) {
+    return error(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+  }
+
   private ErrorResponse error(HttpStatus status, String msg) {
     String corrId = MDC.get(CorrelationIdFilter.MDC_KEY);
     return new ErrorResponse(Instant.now(), status.value(), status.getReasonPhrase(), msg, corrId);
@@ -0,0 +1,29 @@
+package com.github.dimitryivaniuta.booking.auth.config;
+
+import com.github.dimitryivaniuta.booking.auth.service.RevocationCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Subscribes the local {@link RevocationCache} to revocation notifications.
+ *
+ * <p>The container re-subscribes after a connection loss; the cache treats every subscription
+ * as a signal to resync from Redis.</p>
+ */
+@Configuration
+public class RevocationCacheConfig {
+
+  @Bean
+  public RedisMessageListenerContainer revocationListenerContainer(
+      RedisConnectionFactory connectionFactory,
+      RevocationCache revocationCache
+  ) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(revocationCache, new ChannelTopic(RevocationCache.CHANNEL));
+    return container;
+  }
+}
@@ -1,14 +1,17 @@
 package com.github.dimitryivaniuta.booking.auth.config;
 
+import com.github.dimitryivaniuta.booking.auth.security.CachingJwtDecoder;
 import com.github.dimitryivaniuta.booking.auth.security.RevokedTokenFilter;
+import com.github.dimitryivaniuta.booking.security.UserAuthenticationConverter;
 import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.HashMap;
+import java.util.Map;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,14 +25,15 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.converter.RsaKeyConverters;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 
@@ -53,10 +57,29 @@ public class SecurityConfig {
 
     private final RevokedTokenFilter revokedTokenFilter;
 
+    /**
+     * Password encoder that hashes with {@code auth.password.algorithm} and verifies any supported format.
+     *
+     * <p>Pre-existing (seeded) hashes are unprefixed BCrypt. Hashes written with another algorithm or a lower
+     * BCrypt cost report {@code upgradeEncoding == true} and are transparently re-hashed on the next login.</p>
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        // 12 is a solid default in 2026; increase if your infra allows it.
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(
+            @Value("${auth.password.algorithm:bcrypt}") String algorithm,
+            // 12 is a solid default in 2026; increase if your infra allows it.
+            @Value("${auth.password.bcrypt-cost:12}") int bcryptCost
+    ) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptCost);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unsupported auth.password.algorithm: " + algorithm);
+        }
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
     }
 
     /**
@@ -79,12 +102,22 @@ public class SecurityConfig {
 
     /**
      * JWT decoder for verifying RS256 access tokens.
+     * Verified tokens are cached until {@code exp} so the RSA check runs once per token, not once per request.
      */
     @Bean
-    public JwtDecoder jwtDecoder(@Value("classpath:keys/jwt-public.pem") Resource publicPem) throws Exception {
+    public JwtDecoder jwtDecoder(
+            @Value("classpath:keys/jwt-public.pem") Resource publicPem,
+            @Value("${auth.jwt-cache.enabled:true}") boolean cacheEnabled,
+            @Value("${auth.jwt-cache.max-size:100000}") long cacheMaxSize,
+            MeterRegistry meterRegistry
+    ) throws Exception {
         RSAPublicKey publicKey =
                 (RSAPublicKey) RsaKeyConverters.x509().convert(publicPem.getInputStream());
-        return NimbusJwtDecoder.withPublicKey(publicKey).build();
+        JwtDecoder nimbus = NimbusJwtDecoder.withPublicKey(publicKey).build();
+        if (!cacheEnabled) {
+            return nimbus;
+        }
+        return new CachingJwtDecoder(nimbus, cacheMaxSize).bindTo(meterRegistry);
     }
 
     @Bean
@@ -117,7 +150,7 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
                 .oauth2ResourceServer(oauth -> oauth
-                        .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthConverter()))
+                        .jwt(jwt -> jwt.jwtAuthenticationConverter(new UserAuthenticationConverter()))
                 );
 
         // Enforce access-token revocation AFTER Bearer token is authenticated into SecurityContext
@@ -125,20 +158,4 @@ public class SecurityConfig {
 
         return http.build();
     }
-
-    private JwtAuthenticationConverter jwtAuthConverter() {
-        JwtAuthenticationConverter c = new JwtAuthenticationConverter();
-        c.setJwtGrantedAuthoritiesConverter(jwt -> {
-            Object raw = jwt.getClaims().get("roles");
-            if (raw instanceof List<?> list) {
-                return list.stream()
-                        .filter(v -> v != null)
-                        .map(v -> "ROLE_" + v.toString())
-                        .map(SimpleGrantedAuthority::new)
-                        .collect(Collectors.toList());
-            }
-            return List.of();
-        });
-        return c;
-    }
 }
@@ -1,9 +1,14 @@
 package com.github.dimitryivaniuta.booking.auth.repo;
 
 import com.github.dimitryivaniuta.booking.auth.domain.UserAccount;
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /** Repository for {@link UserAccount}. */
 public interface UserAccountRepository extends JpaRepository<UserAccount, UUID> {
@@ -11,4 +16,19 @@ public interface UserAccountRepository extends JpaRepository<UserAccount, UUID>
   Optional<UserAccount> findByEmailIgnoreCase(String email);
 
   boolean existsByEmailIgnoreCase(String email);
+
+  /**
+   * Replaces a password hash only if it is still the one that was verified (compare-and-set),
+   * so a background re-hash never overwrites a concurrent password change.
+   */
+  @Transactional
+  @Modifying
+  @Query(value = """
+      update users set password_hash = :newHash, updated_at = :now
+      where id = :id and password_hash = :oldHash
+      """, nativeQuery = true)
+  int upgradePasswordHash(@Param("id") UUID id,
+                          @Param("oldHash") String oldHash,
+                          @Param("newHash") String newHash,
+                          @Param("now") Instant now);
 }
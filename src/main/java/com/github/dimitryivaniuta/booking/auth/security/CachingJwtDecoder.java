@@ -0,0 +1,102 @@
+package com.github.dimitryivaniuta.booking.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.Instant;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * {@link JwtDecoder} decorator that remembers successfully validated tokens until they expire.
+ *
+ * <p>An access token is reused for its whole lifetime, so re-parsing it and re-verifying the RSA
+ * signature on every request is wasted CPU. Entries are keyed by a 64-bit hash of the raw token; a hit
+ * is only returned if the cached token string is identical, so a hash collision costs a re-verification,
+ * never a wrong principal. Rejected tokens are never cached.</p>
+ *
+ * <p>Revocation is unaffected: it is enforced per request by {@link RevokedTokenFilter}.</p>
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+  /** Cache name used for the exported Micrometer metrics ({@code cache.gets}, {@code cache.size}, ...). */
+  public static final String CACHE_NAME = "verifiedJwt";
+
+  private final JwtDecoder delegate;
+  private final Cache<Long, Jwt> cache;
+
+  /**
+   * @param delegate verifying decoder
+   * @param maxSize maximum number of cached tokens (evicted by Caffeine's size-based policy)
+   */
+  public CachingJwtDecoder(JwtDecoder delegate, long maxSize) {
+    this.delegate = delegate;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(Math.max(1, maxSize))
+        .expireAfter(new UntilTokenExpiry())
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Binds hit/miss/eviction/size metrics to the given registry.
+   *
+   * @param registry meter registry
+   * @return this decoder
+   */
+  public CachingJwtDecoder bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    return this;
+  }
+
+  @Override
+  public Jwt decode(String token) throws JwtException {
+    if (token == null) {
+      return delegate.decode(null);
+    }
+    long key = hash(token);
+    Jwt cached = cache.getIfPresent(key);
+    if (cached != null && cached.getTokenValue().equals(token)) {
+      return cached;
+    }
+    Jwt jwt = delegate.decode(token);
+    if (jwt.getExpiresAt() != null) {
+      cache.put(key, jwt);
+    }
+    return jwt;
+  }
+
+  /** 64-bit FNV-1a over the UTF-16 code units; tokens are ASCII so this is collision-resistant enough for a key. */
+  static long hash(String token) {
+    long h = 0xcbf29ce484222325L;
+    for (int i = 0; i < token.length(); i++) {
+      h ^= token.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    return h;
+  }
+
+  private static final class UntilTokenExpiry implements Expiry<Long, Jwt> {
+
+    @Override
+    public long expireAfterCreate(Long key, Jwt jwt, long currentTime) {
+      Instant exp = jwt.getExpiresAt();
+      long nanos = exp == null ? 0 : Duration.between(Instant.now(), exp).toNanos();
+      return Math.max(0, nanos);
+    }
+
+    @Override
+    public long expireAfterUpdate(Long key, Jwt jwt, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, jwt, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Long key, Jwt jwt, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package com.github.dimitryivaniuta.booking.auth.security;
 
 import com.github.dimitryivaniuta.booking.auth.service.TokenRevocationService;
+import com.github.dimitryivaniuta.booking.security.UserAuthenticationToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,7 +14,6 @@ import org.slf4j.MDC;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -40,8 +40,8 @@ public class RevokedTokenFilter extends OncePerRequestFilter {
 
     Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 
-    if (auth != null && auth.getPrincipal() instanceof Jwt jwt) {
-      if (revocationService.isRevoked(jwt)) {
+    if (auth instanceof UserAuthenticationToken token) {
+      if (revocationService.isRevoked(token.getToken(), token.getPrincipal().userId())) {
         if (response.isCommitted()) return;
 
         String corrId = MDC.get(MDC_CORR_ID_KEY);
@@ -9,10 +9,10 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Authentication service facade.
@@ -23,7 +23,8 @@ public class AuthService {
 
   private final UserAccountRepository userRepo;
   private final RoleRepository roleRepo;
-  private final PasswordEncoder passwordEncoder;
+  private final PasswordHashingService passwordHashing;
+  private final TransactionTemplate transactionTemplate;
   private final JwtService jwtService;
   private final RefreshTokenService refreshTokenService;
   private final EmailVerificationService verificationService;
@@ -38,8 +39,10 @@ public class AuthService {
    *
    * <p>In production you would normally allow public registration, but often you restrict it to admins.
    * This demo exposes the endpoint publicly.</p>
+   *
+   * <p>The password is hashed on the bounded hashing pool before the transaction starts,
+   * so no DB connection is held during the hash.</p>
    */
-  @Transactional
   public UUID register(String email, String password) {
     if (email == null || email.isBlank()) {
       throw new AuthBadRequestException("email is required");
@@ -54,25 +57,29 @@ public class AuthService {
       throw new AuthBadRequestException(String.join(" ", pwdErrors));
     }
 
-    String hash = passwordEncoder.encode(password);
+    String hash = passwordHashing.encode(password);
     UserAccount user = UserAccount.newUnverified(email, hash);
 
-    Role userRole = roleRepo.findByName("USER")
-        .orElseThrow(() -> new IllegalStateException("Missing role USER. Run Flyway seeds."));
-    user.getRoles().add(userRole);
+    return transactionTemplate.execute(status -> {
+      Role userRole = roleRepo.findByName("USER")
+          .orElseThrow(() -> new IllegalStateException("Missing role USER. Run Flyway seeds."));
+      user.getRoles().add(userRole);
 
-    userRepo.save(user);
+      userRepo.save(user);
 
-    // Issue verification token & outbox event
-    verificationService.issueFor(user);
+      // Issue verification token & outbox event
+      verificationService.issueFor(user);
 
-    return user.getId();
+      return user.getId();
+    });
   }
 
   /**
    * Logs in with email/password.
+   *
+   * <p>Not transactional on purpose: password verification runs on the hashing pool and must not pin a
+   * DB connection. Refresh-token issuance runs in its own transaction.</p>
    */
-  @Transactional
   public TokenPair login(String email, String password, String deviceId) {
     if (email == null || email.isBlank() || password == null) {
       throw new AuthBadRequestException("email and password are required");
@@ -80,9 +87,9 @@ public class AuthService {
 
     final String normalizedEmail = email.trim().toLowerCase();
 
-    if (loginAttemptService.isLocked(normalizedEmail)) {
-      Instant until = loginAttemptService.lockedUntil(normalizedEmail);
-      throw new AuthLockedException("Account locked. Retry after: " + (until == null ? "later" : until.toString()));
+    Instant lockedUntil = loginAttemptService.lockedUntil(normalizedEmail);
+    if (lockedUntil != null) {
+      throw locked(lockedUntil);
     }
 
     UserAccount user = userRepo.findByEmailIgnoreCase(normalizedEmail)
@@ -91,12 +98,24 @@ public class AuthService {
               return new AuthUnauthorizedException("Invalid credentials.");
             });
 
-    if (!passwordEncoder.matches(password, user.getPasswordHash())) {
+    String storedHash = user.getPasswordHash();
+    if (!passwordHashing.matches(password, storedHash)) {
       loginAttemptService.onFailure(normalizedEmail);
       throw new AuthUnauthorizedException("Invalid credentials.");
     }
 
-    loginAttemptService.onSuccess(normalizedEmail);
+    // The success call is authoritative for the lock (the pre-check may have been served locally).
+    lockedUntil = loginAttemptService.onSuccess(normalizedEmail);
+    if (lockedUntil != null) {
+      throw locked(lockedUntil);
+    }
+
+    if (passwordHashing.upgradeEncoding(storedHash)) {
+      // Algorithm or cost changed since this hash was written: re-hash off the request path.
+      UUID userId = user.getId();
+      passwordHashing.encodeInBackground(password,
+          newHash -> userRepo.upgradePasswordHash(userId, storedHash, newHash, Instant.now()));
+    }
 
     if (!user.isEnabled() || !user.isEmailVerified()) {
       throw new AuthForbiddenException("Email not verified. Please verify your email first.");
@@ -147,4 +166,8 @@ public class AuthService {
   public void revokeSession(UUID userId, UUID familyId) {
     refreshTokenService.revokeFamily(userId, familyId);
   }
+
+  private static AuthLockedException locked(Instant until) {
+    return new AuthLockedException("Account locked. Retry after: " + until);
+  }
 }
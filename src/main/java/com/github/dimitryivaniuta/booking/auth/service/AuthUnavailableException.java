@@ -0,0 +1,6 @@
+package com.github.dimitryivaniuta.booking.auth.service;
+
+/** Raised when auth work is shed because the password hashing pool is saturated. */
+public class AuthUnavailableException extends AuthException {
+  public AuthUnavailableException(String message) { super(message); }
+}
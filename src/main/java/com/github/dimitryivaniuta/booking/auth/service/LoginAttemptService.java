@@ -1,62 +1,135 @@
 package com.github.dimitryivaniuta.booking.auth.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import java.time.Duration;
 import java.time.Instant;
-import lombok.RequiredArgsConstructor;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 /**
  * Redis-backed brute-force protection.
  *
  * <p>Tracks failed login attempts per email and temporarily locks accounts after repeated failures.</p>
+ *
+ * <p>Each login outcome is a single atomic Lua call: {@link #onFailure} increments, arms the window and
+ * sets the lock in one round trip; {@link #onSuccess} clears the counter only if the account is not locked,
+ * and reports the lock otherwise. Because the success path enforces the lock itself, the
+ * {@link #lockedUntil} pre-check is only an optimization (it spares the password hash for locked accounts),
+ * so accounts recently seen unlocked on this node skip it via a short-lived local cache.</p>
  */
 @Service
-@RequiredArgsConstructor
 public class LoginAttemptService {
 
+  /** KEYS[1]=fail, KEYS[2]=lock; ARGV = window s, max failures, lock duration s, now epoch s. Returns lock-until or 0. */
+  private static final RedisScript<Long> ON_FAILURE = new DefaultRedisScript<>("""
+      local n = redis.call('INCR', KEYS[1])
+      if n == 1 then
+        redis.call('EXPIRE', KEYS[1], ARGV[1])
+      end
+      if n >= tonumber(ARGV[2]) then
+        local untilTs = tonumber(ARGV[4]) + tonumber(ARGV[3])
+        redis.call('SET', KEYS[2], untilTs, 'EX', ARGV[3])
+        return untilTs
+      end
+      return 0
+      """, Long.class);
+
+  /** KEYS[1]=fail, KEYS[2]=lock. Returns lock-until if locked (nothing cleared), else clears failures and returns 0. */
+  private static final RedisScript<Long> ON_SUCCESS = new DefaultRedisScript<>("""
+      local l = redis.call('GET', KEYS[2])
+      if l then
+        return tonumber(l) or 1
+      end
+      redis.call('DEL', KEYS[1])
+      return 0
+      """, Long.class);
+
   private final StringRedisTemplate redis;
   private final AuthProperties props;
+  private final Cache<String, Boolean> knownUnlocked;
 
-  public boolean isLocked(String email) {
-    return Boolean.TRUE.equals(redis.hasKey(lockKey(email)));
+  public LoginAttemptService(
+      StringRedisTemplate redis,
+      AuthProperties props,
+      @Value("${auth.lockout-unlocked-cache-seconds:10}") long unlockedCacheSeconds,
+      @Value("${auth.lockout-unlocked-cache-size:100000}") long unlockedCacheSize
+  ) {
+    this.redis = redis;
+    this.props = props;
+    this.knownUnlocked = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofSeconds(Math.max(0, unlockedCacheSeconds)))
+        .maximumSize(Math.max(1, unlockedCacheSize))
+        .build();
   }
 
+  /**
+   * Pre-check before verifying the password.
+   *
+   * @param email email
+   * @return lock expiry if the account is locked; null if it is (or was recently seen) unlocked
+   */
   public Instant lockedUntil(String email) {
-    String v = redis.opsForValue().get(lockKey(email));
-    if (v == null) return null;
+    String e = normalize(email);
+    if (knownUnlocked.getIfPresent(e) != null) {
+      return null;
+    }
+    String v = redis.opsForValue().get(lockKey(e));
+    if (v == null) {
+      knownUnlocked.put(e, Boolean.TRUE);
+      return null;
+    }
     try {
       return Instant.ofEpochSecond(Long.parseLong(v));
-    } catch (Exception e) {
-      return null;
+    } catch (Exception ex) {
+      return Instant.now().plusSeconds(props.lockoutDurationSeconds());
     }
   }
 
-  public void onSuccess(String email) {
-    redis.delete(failKey(email));
-    redis.delete(lockKey(email));
+  /**
+   * Records a successful password check.
+   *
+   * @param email email
+   * @return lock expiry if the account is locked (the login must be rejected); null otherwise
+   */
+  public Instant onSuccess(String email) {
+    String e = normalize(email);
+    Long locked = redis.execute(ON_SUCCESS, List.of(failKey(e), lockKey(e)));
+    if (locked != null && locked != 0L) {
+      knownUnlocked.invalidate(e);
+      return Instant.ofEpochSecond(locked);
+    }
+    knownUnlocked.put(e, Boolean.TRUE);
+    return null;
   }
 
-  public void onFailure(String email) {
-    String fk = failKey(email);
-    Long count = redis.opsForValue().increment(fk);
-    if (count != null && count == 1L) {
-      redis.expire(fk, Duration.ofSeconds(props.lockoutWindowSeconds()));
-    }
-    if (count != null && count >= props.lockoutMaxFailures()) {
-      // lock
-      long until = Instant.now().plusSeconds(props.lockoutDurationSeconds()).getEpochSecond();
-      String lk = lockKey(email);
-      redis.opsForValue().set(lk, String.valueOf(until), Duration.ofSeconds(props.lockoutDurationSeconds()));
-    }
+  /**
+   * Records a failed login attempt.
+   *
+   * @param email email
+   * @return lock expiry if this failure locked the account; null otherwise
+   */
+  public Instant onFailure(String email) {
+    String e = normalize(email);
+    knownUnlocked.invalidate(e);
+    Long until = redis.execute(ON_FAILURE, List.of(failKey(e), lockKey(e)),
+        String.valueOf(props.lockoutWindowSeconds()),
+        String.valueOf(props.lockoutMaxFailures()),
+        String.valueOf(props.lockoutDurationSeconds()),
+        String.valueOf(Instant.now().getEpochSecond()));
+    return until == null || until == 0L ? null : Instant.ofEpochSecond(until);
   }
 
-  private String failKey(String email) {
-    return "auth:fail:" + normalize(email);
+  private static String failKey(String normalizedEmail) {
+    return "auth:fail:" + normalizedEmail;
   }
 
-  private String lockKey(String email) {
-    return "auth:lock:" + normalize(email);
+  private static String lockKey(String normalizedEmail) {
+    return "auth:lock:" + normalizedEmail;
   }
 
   private static String normalize(String email) {
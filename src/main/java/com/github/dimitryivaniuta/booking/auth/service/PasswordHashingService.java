@@ -0,0 +1,147 @@
+package com.github.dimitryivaniuta.booking.auth.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs password hashing/verification on a dedicated, bounded thread pool.
+ *
+ * <p>BCrypt at cost 12 is ~250ms of CPU. Running it inline lets a login burst occupy every servlet thread.
+ * Here at most {@code hashing-threads} hashes run at once and at most {@code queue-capacity} wait; anything
+ * beyond that is rejected immediately with {@link AuthUnavailableException} (HTTP 503) instead of queueing
+ * behind the CPU.</p>
+ *
+ * <p>Metrics: {@code auth.password.hash} timer (tag {@code op=encode|matches}), {@code auth.password.queue.depth},
+ * {@code auth.password.active} and {@code auth.password.rejected}.</p>
+ */
+@Slf4j
+@Service
+public class PasswordHashingService {
+
+  private final PasswordEncoder encoder;
+  private final ThreadPoolExecutor executor;
+  private final long timeoutMs;
+  private final Timer encodeTimer;
+  private final Timer matchesTimer;
+  private final Counter rejected;
+
+  public PasswordHashingService(
+      PasswordEncoder encoder,
+      MeterRegistry registry,
+      @Value("${auth.password.hashing-threads:0}") int threads,
+      @Value("${auth.password.queue-capacity:64}") int queueCapacity,
+      @Value("${auth.password.timeout-ms:5000}") long timeoutMs
+  ) {
+    this.encoder = encoder;
+    this.timeoutMs = timeoutMs;
+    int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    this.executor = new ThreadPoolExecutor(
+        size, size, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+        namedThreads(),
+        new ThreadPoolExecutor.AbortPolicy()
+    );
+
+    this.encodeTimer = Timer.builder("auth.password.hash").tag("op", "encode").publishPercentileHistogram().register(registry);
+    this.matchesTimer = Timer.builder("auth.password.hash").tag("op", "matches").publishPercentileHistogram().register(registry);
+    this.rejected = Counter.builder("auth.password.rejected").register(registry);
+    Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size()).register(registry);
+    Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+  }
+
+  /** Hashes a raw password with the configured algorithm. */
+  public String encode(String raw) {
+    return call(() -> encoder.encode(raw), encodeTimer);
+  }
+
+  /** Verifies a raw password against a stored hash. */
+  public boolean matches(String raw, String hash) {
+    return call(() -> encoder.matches(raw, hash), matchesTimer);
+  }
+
+  /**
+   * @param hash stored hash
+   * @return true if the hash uses an outdated algorithm or cost
+   */
+  public boolean upgradeEncoding(String hash) {
+    return encoder.upgradeEncoding(hash);
+  }
+
+  /**
+   * Re-hashes a password in the background; skipped (and retried on a later login) if the pool is busy.
+   *
+   * @param raw raw password
+   * @param onHashed receives the new hash on the hashing thread
+   */
+  public void encodeInBackground(String raw, Consumer<String> onHashed) {
+    try {
+      executor.execute(() -> {
+        try {
+          onHashed.accept(encodeTimer.record(() -> encoder.encode(raw)));
+        } catch (Exception e) {
+          log.warn("Background password re-hash failed. cause={}", e.toString());
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      log.debug("Skipping password re-hash: hashing pool saturated.");
+    }
+  }
+
+  private <T> T call(Callable<T> task, Timer timer) {
+    Future<T> future;
+    try {
+      future = executor.submit(() -> timer.recordCallable(task));
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new AuthUnavailableException("Authentication service is busy. Please retry shortly.");
+    }
+    try {
+      return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      rejected.increment();
+      throw new AuthUnavailableException("Authentication service is busy. Please retry shortly.");
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new AuthUnavailableException("Interrupted while hashing password.");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new AuthException("Password hashing failed.", e.getCause());
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private static ThreadFactory namedThreads() {
+    AtomicInteger n = new AtomicInteger();
+    return r -> {
+      Thread t = new Thread(r, "password-hash-" + n.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    };
+  }
+}
@@ -0,0 +1,257 @@
+package com.github.dimitryivaniuta.booking.auth.service;
+
+import com.github.dimitryivaniuta.booking.support.BloomFilter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-node mirror of the Redis revocation state.
+ *
+ * <p>Holds a bloom filter of revoked JTIs and a map of per-user valid-after timestamps so that
+ * {@link TokenRevocationService#isRevoked} can answer the common "not revoked" case without any network call.
+ * A bloom-filter hit is still confirmed against Redis, so false positives cost one round trip, never a 401.</p>
+ *
+ * <p>Kept current by the {@value #CHANNEL} pub/sub channel. Every (re)subscription triggers a full resync
+ * from Redis, and a periodic resync bounds the damage of a lost message. If the cache is not subscribed or
+ * its last resync is older than {@code auth.revocation-cache.max-staleness-ms}, it reports itself unusable
+ * and callers fall back to direct Redis lookups.</p>
+ */
+@Slf4j
+@Component
+public class RevocationCache implements MessageListener, SubscriptionListener {
+
+  /** Pub/sub channel carrying revocation notifications. */
+  public static final String CHANNEL = "auth:revocations";
+
+  static final String JTI_KEY_PREFIX = "auth:revoked:jti:";
+  static final String VALID_AFTER_KEY_PREFIX = "auth:valid-after:";
+
+  private static final String JTI_MSG = "jti|";
+  private static final String USER_MSG = "user|";
+  private static final int MGET_CHUNK = 500;
+
+  private final StringRedisTemplate redis;
+  private final AuthProperties props;
+  private final boolean enabled;
+  private final long expectedRevocations;
+  private final double falsePositiveRate;
+  private final int maxUsers;
+  private final long maxStalenessMs;
+
+  private final Map<UUID, Long> validAfter = new ConcurrentHashMap<>();
+  private volatile BloomFilter revokedJtis;
+  private volatile BloomFilter rebuilding;
+  private volatile boolean overflow;
+  private volatile boolean subscribed;
+  private volatile long lastSyncMillis;
+
+  public RevocationCache(
+      StringRedisTemplate redis,
+      AuthProperties props,
+      @Value("${auth.revocation-cache.enabled:true}") boolean enabled,
+      @Value("${auth.revocation-cache.expected-revocations:100000}") long expectedRevocations,
+      @Value("${auth.revocation-cache.false-positive-rate:0.001}") double falsePositiveRate,
+      @Value("${auth.revocation-cache.max-users:100000}") int maxUsers,
+      @Value("${auth.revocation-cache.max-staleness-ms:90000}") long maxStalenessMs
+  ) {
+    this.redis = redis;
+    this.props = props;
+    this.enabled = enabled;
+    this.expectedRevocations = expectedRevocations;
+    this.falsePositiveRate = falsePositiveRate;
+    this.maxUsers = Math.max(1, maxUsers);
+    this.maxStalenessMs = maxStalenessMs;
+    this.revokedJtis = newFilter();
+  }
+
+  /**
+   * @return true if local answers can be trusted (subscribed and recently resynced)
+   */
+  public boolean isUsable() {
+    long synced = lastSyncMillis;
+    return enabled && subscribed && synced != 0 && System.currentTimeMillis() - synced <= maxStalenessMs;
+  }
+
+  /**
+   * @param jti token id
+   * @return false if the JTI is definitely not revoked; true if Redis must confirm
+   */
+  public boolean mightBeRevoked(String jti) {
+    return revokedJtis.mightContain(jti);
+  }
+
+  /**
+   * @param userId user id
+   * @return known valid-after epoch second, or null if none is known locally
+   */
+  public Long validAfter(UUID userId) {
+    return validAfter.get(userId);
+  }
+
+  /**
+   * @return true if the per-user map hit its bound and absent users must be checked in Redis
+   */
+  public boolean isOverflowed() {
+    return overflow;
+  }
+
+  /** Applies a JTI revocation locally. */
+  public void onJtiRevoked(String jti) {
+    revokedJtis.put(jti);
+    BloomFilter next = rebuilding;
+    if (next != null) {
+      next.put(jti);
+    }
+  }
+
+  /** Applies a user-wide invalidation locally. */
+  public void onUserInvalidated(UUID userId, long validAfterEpochSecond) {
+    if (validAfter.size() >= maxUsers && !validAfter.containsKey(userId)) {
+      overflow = true;
+      return;
+    }
+    validAfter.merge(userId, validAfterEpochSecond, Math::max);
+  }
+
+  /** Encodes a JTI revocation for {@link #CHANNEL}. */
+  static String jtiMessage(String jti) {
+    return JTI_MSG + jti;
+  }
+
+  /** Encodes a user invalidation for {@link #CHANNEL}. */
+  static String userMessage(UUID userId, long validAfterEpochSecond) {
+    return USER_MSG + userId + "|" + validAfterEpochSecond;
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String body = new String(message.getBody(), StandardCharsets.UTF_8);
+    try {
+      if (body.startsWith(JTI_MSG)) {
+        onJtiRevoked(body.substring(JTI_MSG.length()));
+      } else if (body.startsWith(USER_MSG)) {
+        String[] parts = body.split("\\|", 3);
+        onUserInvalidated(UUID.fromString(parts[1]), Long.parseLong(parts[2]));
+      }
+    } catch (Exception e) {
+      log.warn("Ignoring malformed revocation message '{}': {}", body, e.toString());
+    }
+  }
+
+  @Override
+  public void onChannelSubscribed(byte[] channel, long count) {
+    subscribed = true;
+    // Anything published while we were disconnected is lost; rebuild from the source of truth.
+    resync();
+  }
+
+  @Override
+  public void onChannelUnsubscribed(byte[] channel, long count) {
+    subscribed = false;
+  }
+
+  /**
+   * Periodic safety-net resync; bounds propagation delay if a pub/sub message is dropped.
+   */
+  @Scheduled(
+      initialDelayString = "${auth.revocation-cache.resync-interval-ms:30000}",
+      fixedDelayString = "${auth.revocation-cache.resync-interval-ms:30000}"
+  )
+  public void scheduledResync() {
+    if (enabled && subscribed) {
+      resync();
+    }
+  }
+
+  /**
+   * Rebuilds the local state from Redis.
+   *
+   * <p>Notifications arriving during the rebuild are applied to both the live and the new filter,
+   * so nothing published after the scan started can be lost by the swap.</p>
+   */
+  public synchronized void resync() {
+    if (!enabled) {
+      return;
+    }
+    BloomFilter fresh = newFilter();
+    rebuilding = fresh;
+    try {
+      scan(JTI_KEY_PREFIX, key -> fresh.put(key.substring(JTI_KEY_PREFIX.length())));
+
+      List<String> userKeys = new ArrayList<>();
+      scan(VALID_AFTER_KEY_PREFIX, userKeys::add);
+
+      long cutoff = Instant.now().minus(props.accessTtl()).getEpochSecond() - 60;
+      boolean overflowed = false;
+      for (int i = 0; i < userKeys.size(); i += MGET_CHUNK) {
+        List<String> chunk = userKeys.subList(i, Math.min(userKeys.size(), i + MGET_CHUNK));
+        List<String> values = redis.opsForValue().multiGet(chunk);
+        if (values == null) {
+          continue;
+        }
+        for (int j = 0; j < chunk.size(); j++) {
+          String v = values.get(j);
+          if (v == null) {
+            continue;
+          }
+          try {
+            long va = Long.parseLong(v);
+            if (va < cutoff) {
+              continue;
+            }
+            UUID userId = UUID.fromString(chunk.get(j).substring(VALID_AFTER_KEY_PREFIX.length()));
+            if (validAfter.size() >= maxUsers && !validAfter.containsKey(userId)) {
+              overflowed = true;
+              continue;
+            }
+            validAfter.merge(userId, va, Math::max);
+          } catch (Exception ignored) {}
+        }
+      }
+      // Anything older than one access-token lifetime can no longer reject a live token.
+      validAfter.values().removeIf(va -> va < cutoff);
+
+      revokedJtis = fresh;
+      overflow = overflowed;
+      lastSyncMillis = System.currentTimeMillis();
+      log.debug("Revocation cache resynced: users={} overflow={}", validAfter.size(), overflowed);
+    } catch (Exception e) {
+      log.warn("Revocation cache resync failed (falling back to Redis until next success). cause={}", e.toString());
+    } finally {
+      rebuilding = null;
+    }
+  }
+
+  private BloomFilter newFilter() {
+    return new BloomFilter(expectedRevocations, falsePositiveRate);
+  }
+
+  private void scan(String prefix, Consumer<String> sink) {
+    ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(1000).build();
+    redis.execute((RedisCallback<Void>) connection -> {
+      try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+        while (cursor.hasNext()) {
+          sink.accept(new String(cursor.next(), StandardCharsets.UTF_8));
+        }
+      }
+      return null;
+    });
+  }
+}
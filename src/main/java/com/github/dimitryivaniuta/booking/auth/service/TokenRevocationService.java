@@ -16,49 +16,91 @@ import org.springframework.stereotype.Service;
  *   <li>JTI blacklist for single-token revoke (logout)</li>
  *   <li>valid-after timestamp per user for global invalidation (logout-all)</li>
  * </ul>
+ *
+ * <p>Every change is also published on {@link RevocationCache#CHANNEL} so that each node's
+ * {@link RevocationCache} can answer {@link #isRevoked(Jwt)} locally.</p>
  */
 @Service
 @RequiredArgsConstructor
 public class TokenRevocationService {
 
   private final StringRedisTemplate redis;
+  private final RevocationCache cache;
+  private final AuthProperties props;
 
   public void revokeJti(String jti, Instant expiresAt) {
     if (jti == null || expiresAt == null) return;
     Duration ttl = Duration.between(Instant.now(), expiresAt);
     if (ttl.isNegative() || ttl.isZero()) return;
     redis.opsForValue().set(revokedJtiKey(jti), "1", ttl);
+    cache.onJtiRevoked(jti);
+    redis.convertAndSend(RevocationCache.CHANNEL, RevocationCache.jtiMessage(jti));
   }
 
   public void invalidateAllForUser(UUID userId) {
-    redis.opsForValue().set(validAfterKey(userId), String.valueOf(Instant.now().getEpochSecond()));
+    long validAfter = Instant.now().getEpochSecond();
+    // Older tokens are expired after one access TTL anyway; keep a minute of slack for clock skew.
+    Duration ttl = props.accessTtl().plusMinutes(1);
+    redis.opsForValue().set(validAfterKey(userId), String.valueOf(validAfter), ttl);
+    cache.onUserInvalidated(userId, validAfter);
+    redis.convertAndSend(RevocationCache.CHANNEL, RevocationCache.userMessage(userId, validAfter));
   }
 
   public boolean isRevoked(Jwt jwt) {
+    if (jwt == null) return true;
+    return isRevoked(jwt, UUID.fromString(jwt.getSubject()));
+  }
+
+  /**
+   * Same as {@link #isRevoked(Jwt)} for callers that already parsed the subject.
+   *
+   * @param jwt validated token
+   * @param userId token subject
+   * @return true if revoked
+   */
+  public boolean isRevoked(Jwt jwt, UUID userId) {
     if (jwt == null) return true;
     String jti = jwt.getId();
+
+    if (cache.isUsable()) {
+      // Bloom filter has no false negatives: a miss is authoritative, a hit is confirmed in Redis.
+      if (jti != null && cache.mightBeRevoked(jti) && Boolean.TRUE.equals(redis.hasKey(revokedJtiKey(jti)))) {
+        return true;
+      }
+      Long validAfter = cache.validAfter(userId);
+      if (validAfter == null && cache.isOverflowed()) {
+        validAfter = readValidAfter(userId);
+      }
+      return issuedBefore(jwt, validAfter);
+    }
+
     if (jti != null && Boolean.TRUE.equals(redis.hasKey(revokedJtiKey(jti)))) {
       return true;
     }
-    UUID userId = UUID.fromString(jwt.getSubject());
+    return issuedBefore(jwt, readValidAfter(userId));
+  }
+
+  private Long readValidAfter(UUID userId) {
     String va = redis.opsForValue().get(validAfterKey(userId));
-    if (va != null) {
-      try {
-        long validAfter = Long.parseLong(va);
-        Instant iat = jwt.getIssuedAt();
-        if (iat != null && iat.getEpochSecond() < validAfter) {
-          return true;
-        }
-      } catch (Exception ignored) {}
+    if (va == null) return null;
+    try {
+      return Long.parseLong(va);
+    } catch (Exception ignored) {
+      return null;
     }
-    return false;
+  }
+
+  private static boolean issuedBefore(Jwt jwt, Long validAfter) {
+    if (validAfter == null) return false;
+    Instant iat = jwt.getIssuedAt();
+    return iat != null && iat.getEpochSecond() < validAfter;
   }
 
   private static String revokedJtiKey(String jti) {
-    return "auth:revoked:jti:" + jti;
+    return RevocationCache.JTI_KEY_PREFIX + jti;
   }
 
   private static String validAfterKey(UUID userId) {
-    return "auth:valid-after:" + userId;
+    return RevocationCache.VALID_AFTER_KEY_PREFIX + userId;
   }
 }
@@ -0,0 +1,226 @@
+package com.github.dimitryivaniuta.booking.catalog;
+
+import com.github.dimitryivaniuta.booking.domain.ApartmentRate;
+import com.github.dimitryivaniuta.booking.repo.ApartmentRateRepository;
+import com.github.dimitryivaniuta.booking.repo.ApartmentRepository;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Per-node, in-memory apartment catalog serving existence checks and lookups without a DB round trip.
+ *
+ * <p>Readers see an immutable {@link CatalogSnapshot} (including a city/capacity index) swapped atomically;
+ * writers (single apartment upserts and full reloads) are serialized and copy on write, which suits a catalog
+ * that is read on every request and written rarely.
+ * The snapshot is loaded when the application is ready and reloaded every {@code booking.catalog.reload-ms}.</p>
+ *
+ * <p>Apartment writes publish {@link ApartmentChangedEvent}; after commit the writing node applies it and
+ * broadcasts the id on {@value #CHANNEL} so the other nodes reload that apartment. Apartments are never deleted,
+ * so a hit is always valid; a miss (not loaded yet, or a lost broadcast) falls back to the database and caches
+ * what it finds.</p>
+ */
+@Slf4j
+@Component
+public class ApartmentCatalog implements MessageListener, SubscriptionListener {
+
+  /** Pub/sub channel carrying ids of changed apartments. */
+  public static final String CHANNEL = "booking:apartments:changed";
+
+  /** Message on {@link #CHANNEL} asking every node for a full reload (after bulk writes). */
+  static final String RELOAD_ALL = "*";
+
+  private final ApartmentRepository apartmentRepository;
+  private final ApartmentRateRepository rateRepository;
+  private final StringRedisTemplate redis;
+  private final boolean enabled;
+
+  private volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+  private volatile boolean loaded;
+
+  public ApartmentCatalog(
+      ApartmentRepository apartmentRepository,
+      ApartmentRateRepository rateRepository,
+      StringRedisTemplate redis,
+      @Value("${booking.catalog.enabled:true}") boolean enabled
+  ) {
+    this.apartmentRepository = apartmentRepository;
+    this.rateRepository = rateRepository;
+    this.redis = redis;
+    this.enabled = enabled;
+  }
+
+  /**
+   * @param id apartment id
+   * @return true if the apartment exists
+   */
+  public boolean exists(UUID id) {
+    return find(id).isPresent();
+  }
+
+  /**
+   * @param id apartment id
+   * @return the apartment, if it exists
+   */
+  public Optional<ApartmentInfo> find(UUID id) {
+    ApartmentInfo hit = snapshot.get(id);
+    if (hit != null) {
+      return Optional.of(hit);
+    }
+    Optional<ApartmentInfo> found = load(id);
+    if (enabled && loaded) {
+      found.ifPresent(this::upsert);
+    }
+    return found;
+  }
+
+  /**
+   * Candidate apartments for a search, from the city/capacity index.
+   *
+   * @param city city (case-insensitive); null for any
+   * @param minCapacity minimum capacity; null for any
+   * @return matching apartments ordered by capacity, then id (unmodifiable); empty if {@link #isLoaded()} is false
+   */
+  public List<ApartmentInfo> candidates(String city, Integer minCapacity) {
+    return snapshot.candidates(city, minCapacity);
+  }
+
+  /**
+   * Candidate apartments for a geo search, from the location grid.
+   *
+   * @param area search area
+   * @param minCapacity minimum capacity; null for any
+   * @return located apartments inside the area, nearest first for a circle (else by capacity, then id)
+   */
+  public List<ApartmentInfo> within(GeoArea area, Integer minCapacity) {
+    return snapshot.within(area, minCapacity);
+  }
+
+  /** @return true once the first full load succeeded (before that, only {@link #find} is reliable) */
+  public boolean isLoaded() {
+    return enabled && loaded;
+  }
+
+  /** @return number of cached apartments */
+  public int size() {
+    return snapshot.size();
+  }
+
+  /**
+   * Applies a local apartment write after it commits and tells the other nodes.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onApartmentChanged(ApartmentChangedEvent event) {
+    if (!enabled) {
+      return;
+    }
+    upsert(event.apartment());
+    try {
+      redis.convertAndSend(CHANNEL, event.apartment().id().toString());
+    } catch (RuntimeException e) {
+      // Other nodes pick the apartment up on their next miss or reload.
+      log.warn("Failed to broadcast apartment change {}: {}", event.apartment().id(), e.toString());
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String body = new String(message.getBody(), StandardCharsets.UTF_8);
+    if (RELOAD_ALL.equals(body)) {
+      reload();
+      return;
+    }
+    try {
+      load(UUID.fromString(body)).ifPresent(this::upsert);
+    } catch (Exception e) {
+      log.warn("Ignoring apartment change message '{}': {}", body, e.toString());
+    }
+  }
+
+  @Override
+  public void onChannelSubscribed(byte[] channel, long count) {
+    // Changes broadcast while we were disconnected are lost; reload from the source of truth.
+    if (loaded) {
+      reload();
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onReady() {
+    reload();
+  }
+
+  /**
+   * Periodic safety-net reload.
+   */
+  @Scheduled(
+      initialDelayString = "${booking.catalog.reload-ms:300000}",
+      fixedDelayString = "${booking.catalog.reload-ms:300000}"
+  )
+  public void scheduledReload() {
+    reload();
+  }
+
+  /**
+   * Replaces the snapshot with the full apartment and rate tables.
+   */
+  public synchronized void reload() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      Map<UUID, List<ApartmentRate>> rates = rateRepository.findAll().stream()
+          .collect(Collectors.groupingBy(ApartmentRate::getApartmentId));
+      List<ApartmentInfo> all = new ArrayList<>();
+      apartmentRepository.findAll().forEach(a -> all.add(ApartmentInfo.of(a, rates.getOrDefault(a.getId(), List.of()))));
+      snapshot = new CatalogSnapshot(all);
+      loaded = true;
+      log.debug("Apartment catalog reloaded: {} apartments", all.size());
+    } catch (Exception e) {
+      log.warn("Apartment catalog reload failed: {}", e.toString());
+    }
+  }
+
+  /**
+   * Reloads this node's snapshot and asks the other nodes to do the same; for bulk writes, where one reload beats
+   * a broadcast per apartment.
+   */
+  public void reloadEverywhere() {
+    if (!enabled) {
+      return;
+    }
+    reload();
+    try {
+      redis.convertAndSend(CHANNEL, RELOAD_ALL);
+    } catch (RuntimeException e) {
+      // The other nodes catch up on their next miss or scheduled reload.
+      log.warn("Failed to broadcast apartment catalog reload: {}", e.toString());
+    }
+  }
+
+  private Optional<ApartmentInfo> load(UUID id) {
+    return apartmentRepository.findById(id).map(a -> ApartmentInfo.of(a, rateRepository.findAllByApartmentId(id)));
+  }
+
+  private synchronized void upsert(ApartmentInfo info) {
+    if (!info.equals(snapshot.get(info.id()))) {
+      snapshot = snapshot.with(info);
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package com.github.dimitryivaniuta.booking.catalog;
+
+/**
+ * Application event published when an apartment is created or updated; applied after the transaction commits.
+ *
+ * @param apartment new state of the apartment
+ */
+public record ApartmentChangedEvent(ApartmentInfo apartment) {
+}
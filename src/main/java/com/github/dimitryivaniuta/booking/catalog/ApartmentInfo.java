@@ -0,0 +1,46 @@
+package com.github.dimitryivaniuta.booking.catalog;
+
+import com.github.dimitryivaniuta.booking.domain.Apartment;
+import com.github.dimitryivaniuta.booking.domain.ApartmentRate;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Immutable catalog view of an apartment.
+ *
+ * @param id id
+ * @param name name
+ * @param city city
+ * @param capacity capacity
+ * @param createdAt created at
+ * @param latitude latitude in degrees; null if unknown
+ * @param longitude longitude in degrees; null if unknown
+ * @param rates nightly rates
+ */
+public record ApartmentInfo(
+    UUID id,
+    String name,
+    String city,
+    int capacity,
+    Instant createdAt,
+    Double latitude,
+    Double longitude,
+    RateTable rates
+) {
+
+  /**
+   * @param a apartment entity
+   * @param seasonalRates the apartment's seasonal rates
+   * @return catalog view
+   */
+  public static ApartmentInfo of(Apartment a, Collection<ApartmentRate> seasonalRates) {
+    return new ApartmentInfo(a.getId(), a.getName(), a.getCity(), a.getCapacity(), a.getCreatedAt(),
+        a.getLatitude(), a.getLongitude(), RateTable.of(a.getNightlyRate(), seasonalRates));
+  }
+
+  /** @return true if the apartment has a location */
+  public boolean located() {
+    return latitude != null && longitude != null;
+  }
+}
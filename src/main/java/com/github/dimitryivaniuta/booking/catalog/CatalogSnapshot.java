@@ -0,0 +1,285 @@
+package com.github.dimitryivaniuta.booking.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable apartment catalog state with a city/capacity secondary index.
+ *
+ * <p>Case-folded city names are interned to small integer ids; each city (plus one bucket for "any city") keeps
+ * its apartments in parallel arrays sorted by capacity, then id. A {@code city + minCapacity} lookup is one hash
+ * probe and one binary search, returning a suffix of the bucket without copying.</p>
+ *
+ * <p>Located apartments are also bucketed in a uniform latitude/longitude grid of {@value #CELL_DEGREES}-degree
+ * cells (about 5.5 km north-south), so a geo search visits only the cells overlapping its box; boxes spanning
+ * more cells than there are located apartments fall back to a scan of those apartments.</p>
+ *
+ * <p>{@link #with} is incremental: it sorts nothing, only splicing the apartment out of and into the buckets and
+ * grid cells it leaves and joins. The id map and the "any city" bucket are still copied, so an upsert is linear in
+ * the catalog size rather than a full O(N log N) rebuild.</p>
+ */
+final class CatalogSnapshot {
+
+  static final CatalogSnapshot EMPTY = new CatalogSnapshot(List.of());
+
+  private static final Comparator<ApartmentInfo> BY_CAPACITY =
+      Comparator.comparingInt(ApartmentInfo::capacity).thenComparing(ApartmentInfo::id);
+
+  static final double CELL_DEGREES = 0.05;
+
+  private final Map<UUID, ApartmentInfo> byId;
+  private final Map<String, Integer> cityIds;
+  private final Bucket[] cities;
+  private final Bucket all;
+  private final Map<Long, ApartmentInfo[]> grid;
+  private final ApartmentInfo[] located;
+
+  CatalogSnapshot(Collection<ApartmentInfo> apartments) {
+    Map<UUID, ApartmentInfo> ids = new HashMap<>(apartments.size() * 2);
+    Map<String, Integer> interned = new HashMap<>();
+    List<List<ApartmentInfo>> grouped = new ArrayList<>();
+    for (ApartmentInfo a : apartments) {
+      ids.put(a.id(), a);
+      int cityId = interned.computeIfAbsent(fold(a.city()), k -> {
+        grouped.add(new ArrayList<>());
+        return grouped.size() - 1;
+      });
+      grouped.get(cityId).add(a);
+    }
+    this.byId = Map.copyOf(ids);
+    this.cityIds = Map.copyOf(interned);
+    this.cities = new Bucket[grouped.size()];
+    for (int i = 0; i < cities.length; i++) {
+      cities[i] = Bucket.of(grouped.get(i));
+    }
+    this.all = Bucket.of(ids.values());
+
+    Map<Long, List<ApartmentInfo>> cells = new HashMap<>();
+    List<ApartmentInfo> withLocation = new ArrayList<>();
+    for (ApartmentInfo a : all.apartments()) {
+      if (a.located()) {
+        withLocation.add(a);
+        cells.computeIfAbsent(cell(row(a.latitude()), col(a.longitude())), k -> new ArrayList<>()).add(a);
+      }
+    }
+    Map<Long, ApartmentInfo[]> g = new HashMap<>(cells.size() * 2);
+    cells.forEach((k, v) -> g.put(k, v.toArray(new ApartmentInfo[0])));
+    this.grid = Map.copyOf(g);
+    this.located = withLocation.toArray(new ApartmentInfo[0]);
+  }
+
+  private CatalogSnapshot(Map<UUID, ApartmentInfo> byId, Map<String, Integer> cityIds, Bucket[] cities, Bucket all,
+      Map<Long, ApartmentInfo[]> grid, ApartmentInfo[] located) {
+    this.byId = byId;
+    this.cityIds = cityIds;
+    this.cities = cities;
+    this.all = all;
+    this.grid = grid;
+    this.located = located;
+  }
+
+  ApartmentInfo get(UUID id) {
+    return byId.get(id);
+  }
+
+  Collection<ApartmentInfo> values() {
+    return byId.values();
+  }
+
+  int size() {
+    return byId.size();
+  }
+
+  /**
+   * @param city city (case-insensitive); null for any
+   * @param minCapacity minimum capacity; null for any
+   * @return matching apartments ordered by capacity, then id (unmodifiable view)
+   */
+  List<ApartmentInfo> candidates(String city, Integer minCapacity) {
+    Bucket bucket;
+    if (city == null) {
+      bucket = all;
+    } else {
+      Integer cityId = cityIds.get(fold(city));
+      if (cityId == null) {
+        return List.of();
+      }
+      bucket = cities[cityId];
+    }
+    return bucket.from(minCapacity == null ? Integer.MIN_VALUE : minCapacity);
+  }
+
+  /**
+   * @param area search area
+   * @param minCapacity minimum capacity; null for any
+   * @return located apartments inside the area; nearest first for a circle, else by capacity, then id
+   */
+  List<ApartmentInfo> within(GeoArea area, Integer minCapacity) {
+    int min = minCapacity == null ? Integer.MIN_VALUE : minCapacity;
+    List<ApartmentInfo> out = new ArrayList<>();
+    int row0 = row(area.minLat());
+    int row1 = row(area.maxLat());
+    int col0 = col(area.minLon());
+    int col1 = col(area.maxLon());
+    long cellCount = (long) (row1 - row0 + 1) * (col1 - col0 + 1);
+    if (cellCount > located.length) {
+      for (ApartmentInfo a : located) {
+        collect(a, area, min, out);
+      }
+    } else {
+      for (int r = row0; r <= row1; r++) {
+        for (int c = col0; c <= col1; c++) {
+          ApartmentInfo[] members = grid.get(cell(r, c));
+          if (members != null) {
+            for (ApartmentInfo a : members) {
+              collect(a, area, min, out);
+            }
+          }
+        }
+      }
+    }
+    if (area.isCircle()) {
+      out.sort(Comparator.comparingDouble(
+          a -> GeoArea.distanceMeters(area.centerLat(), area.centerLon(), a.latitude(), a.longitude())));
+    } else {
+      out.sort(BY_CAPACITY);
+    }
+    return out;
+  }
+
+  /** @return copy with {@code apartment} added or replaced */
+  CatalogSnapshot with(ApartmentInfo apartment) {
+    ApartmentInfo previous = byId.get(apartment.id());
+    Map<UUID, ApartmentInfo> ids = new HashMap<>(byId);
+    ids.put(apartment.id(), apartment);
+
+    Map<String, Integer> interned = cityIds;
+    Bucket[] nextCities = cities.clone();
+    if (previous != null) {
+      int oldCity = cityIds.get(fold(previous.city()));
+      nextCities[oldCity] = nextCities[oldCity].without(previous);
+    }
+    Integer cityId = cityIds.get(fold(apartment.city()));
+    if (cityId == null) {
+      cityId = cities.length;
+      Map<String, Integer> grown = new HashMap<>(cityIds);
+      grown.put(fold(apartment.city()), cityId);
+      interned = Map.copyOf(grown);
+      nextCities = Arrays.copyOf(nextCities, cityId + 1);
+      nextCities[cityId] = Bucket.of(List.of());
+    }
+    nextCities[cityId] = nextCities[cityId].with(apartment);
+    Bucket nextAll = (previous == null ? all : all.without(previous)).with(apartment);
+
+    Map<Long, ApartmentInfo[]> cells = grid;
+    ApartmentInfo[] nextLocated = located;
+    if ((previous != null && previous.located()) || apartment.located()) {
+      Map<Long, ApartmentInfo[]> g = new HashMap<>(grid);
+      if (previous != null && previous.located()) {
+        long key = cell(row(previous.latitude()), col(previous.longitude()));
+        ApartmentInfo[] members = remove(g.get(key), previous);
+        if (members.length == 0) {
+          g.remove(key);
+        } else {
+          g.put(key, members);
+        }
+        nextLocated = remove(nextLocated, previous);
+      }
+      if (apartment.located()) {
+        g.merge(cell(row(apartment.latitude()), col(apartment.longitude())), new ApartmentInfo[] {apartment},
+            (members, added) -> insert(members, apartment));
+        nextLocated = insert(nextLocated, apartment);
+      }
+      cells = Map.copyOf(g);
+    }
+    return new CatalogSnapshot(Map.copyOf(ids), interned, nextCities, nextAll, cells, nextLocated);
+  }
+
+  /** @return copy of {@code sorted} (by {@link #BY_CAPACITY}) with {@code a} inserted in order */
+  private static ApartmentInfo[] insert(ApartmentInfo[] sorted, ApartmentInfo a) {
+    int at = -(Arrays.binarySearch(sorted, a, BY_CAPACITY) + 1);
+    ApartmentInfo[] out = new ApartmentInfo[sorted.length + 1];
+    System.arraycopy(sorted, 0, out, 0, at);
+    out[at] = a;
+    System.arraycopy(sorted, at, out, at + 1, sorted.length - at);
+    return out;
+  }
+
+  /** @return copy of {@code sorted} (by {@link #BY_CAPACITY}) without {@code a} */
+  private static ApartmentInfo[] remove(ApartmentInfo[] sorted, ApartmentInfo a) {
+    int at = Arrays.binarySearch(sorted, a, BY_CAPACITY);
+    ApartmentInfo[] out = new ApartmentInfo[sorted.length - 1];
+    System.arraycopy(sorted, 0, out, 0, at);
+    System.arraycopy(sorted, at + 1, out, at, out.length - at);
+    return out;
+  }
+
+  private static void collect(ApartmentInfo a, GeoArea area, int minCapacity, List<ApartmentInfo> out) {
+    if (a.capacity() >= minCapacity && area.contains(a.latitude(), a.longitude())) {
+      out.add(a);
+    }
+  }
+
+  private static int row(double lat) {
+    return (int) Math.floor((lat + 90) / CELL_DEGREES);
+  }
+
+  private static int col(double lon) {
+    return (int) Math.floor((lon + 180) / CELL_DEGREES);
+  }
+
+  private static long cell(int row, int col) {
+    return ((long) row << 32) | (col & 0xFFFFFFFFL);
+  }
+
+  static String fold(String city) {
+    return city.toLowerCase(Locale.ROOT);
+  }
+
+  private record Bucket(int[] capacities, ApartmentInfo[] apartments) {
+
+    static Bucket of(Collection<ApartmentInfo> members) {
+      ApartmentInfo[] sorted = members.toArray(new ApartmentInfo[0]);
+      Arrays.sort(sorted, BY_CAPACITY);
+      return ofSorted(sorted);
+    }
+
+    Bucket with(ApartmentInfo a) {
+      return ofSorted(insert(apartments, a));
+    }
+
+    Bucket without(ApartmentInfo a) {
+      return ofSorted(remove(apartments, a));
+    }
+
+    private static Bucket ofSorted(ApartmentInfo[] sorted) {
+      int[] capacities = new int[sorted.length];
+      for (int i = 0; i < sorted.length; i++) {
+        capacities[i] = sorted[i].capacity();
+      }
+      return new Bucket(capacities, sorted);
+    }
+
+    List<ApartmentInfo> from(int minCapacity) {
+      int lo = 0;
+      int hi = capacities.length;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (capacities[mid] < minCapacity) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      return Collections.unmodifiableList(Arrays.asList(apartments).subList(lo, apartments.length));
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.github.dimitryivaniuta.booking.catalog;
+
+/**
+ * Search area for geo availability search: a latitude/longitude box, optionally the bounding box of a circle.
+ *
+ * <p>Boxes do not wrap around the antimeridian; a circle crossing it is clipped at +/-180 degrees longitude.</p>
+ *
+ * @param minLat southern edge (degrees)
+ * @param minLon western edge (degrees)
+ * @param maxLat northern edge (degrees)
+ * @param maxLon eastern edge (degrees)
+ * @param centerLat circle center latitude; null for a plain box
+ * @param centerLon circle center longitude; null for a plain box
+ * @param radiusMeters circle radius; 0 for a plain box
+ */
+public record GeoArea(
+    double minLat,
+    double minLon,
+    double maxLat,
+    double maxLon,
+    Double centerLat,
+    Double centerLon,
+    double radiusMeters
+) {
+
+  /** Mean Earth radius used for distances. */
+  public static final double EARTH_RADIUS_METERS = 6_371_000;
+
+  /**
+   * @return a plain box
+   */
+  public static GeoArea box(double minLat, double minLon, double maxLat, double maxLon) {
+    return new GeoArea(minLat, minLon, maxLat, maxLon, null, null, 0);
+  }
+
+  /**
+   * @param lat center latitude (degrees)
+   * @param lon center longitude (degrees)
+   * @param radiusMeters radius
+   * @return a circle, with its bounding box
+   */
+  public static GeoArea circle(double lat, double lon, double radiusMeters) {
+    double dLat = Math.toDegrees(radiusMeters / EARTH_RADIUS_METERS);
+    double cos = Math.cos(Math.toRadians(lat));
+    double dLon = cos < 1e-9 ? 180 : Math.min(180, dLat / cos);
+    return new GeoArea(
+        Math.max(-90, lat - dLat), Math.max(-180, lon - dLon),
+        Math.min(90, lat + dLat), Math.min(180, lon + dLon),
+        lat, lon, radiusMeters);
+  }
+
+  /** @return true for a point + radius search */
+  public boolean isCircle() {
+    return centerLat != null && centerLon != null;
+  }
+
+  /**
+   * @param lat latitude (degrees)
+   * @param lon longitude (degrees)
+   * @return true if the point is inside the area
+   */
+  public boolean contains(double lat, double lon) {
+    if (lat < minLat || lat > maxLat || lon < minLon || lon > maxLon) {
+      return false;
+    }
+    return !isCircle() || distanceMeters(centerLat, centerLon, lat, lon) <= radiusMeters;
+  }
+
+  /**
+   * Great-circle (haversine) distance.
+   *
+   * @return distance in meters
+   */
+  public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLon = Math.toRadians(lon2 - lon1);
+    double h = Math.pow(Math.sin(dLat / 2), 2)
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+    return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(h)));
+  }
+}
@@ -0,0 +1,120 @@
+package com.github.dimitryivaniuta.booking.catalog;
+
+import com.github.dimitryivaniuta.booking.domain.ApartmentRate;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable nightly price calendar of one apartment: a base rate plus seasonal overrides.
+ *
+ * <p>Overrides are stored as a prefix-sum array of {@code (override - base)} per night over the span they cover,
+ * so the total of any stay is the base rate times the nights plus one difference of two prefix entries: O(1) per
+ * apartment regardless of stay length. Amounts are kept in cents.</p>
+ */
+public final class RateTable {
+
+  /** No base rate: stays cannot be priced. */
+  public static final RateTable UNPRICED = new RateTable(-1, 0, new long[] {0});
+
+  private final long baseCents;
+  private final long spanStart;
+  /** {@code prefix[i]} = sum of the override deltas of nights {@code spanStart .. spanStart + i - 1}. */
+  private final long[] prefix;
+
+  private RateTable(long baseCents, long spanStart, long[] prefix) {
+    this.baseCents = baseCents;
+    this.spanStart = spanStart;
+    this.prefix = prefix;
+  }
+
+  /**
+   * @param baseRate base nightly rate; null if unpriced (overrides are then ignored)
+   * @param overrides non-overlapping seasonal rates
+   * @return rate table
+   */
+  public static RateTable of(BigDecimal baseRate, Collection<ApartmentRate> overrides) {
+    if (baseRate == null) {
+      return UNPRICED;
+    }
+    long base = cents(baseRate);
+    if (overrides.isEmpty()) {
+      return new RateTable(base, 0, new long[] {0});
+    }
+    long start = Long.MAX_VALUE;
+    long end = Long.MIN_VALUE;
+    for (ApartmentRate r : overrides) {
+      start = Math.min(start, r.getStartDate().toEpochDay());
+      end = Math.max(end, r.getEndDate().toEpochDay());
+    }
+    long[] prefix = new long[Math.toIntExact(end - start) + 1];
+    for (ApartmentRate r : overrides) {
+      long delta = cents(r.getNightlyRate()) - base;
+      int from = (int) (r.getStartDate().toEpochDay() - start);
+      int to = (int) (r.getEndDate().toEpochDay() - start);
+      for (int i = from; i < to; i++) {
+        prefix[i + 1] = delta;
+      }
+    }
+    for (int i = 1; i < prefix.length; i++) {
+      prefix[i] += prefix[i - 1];
+    }
+    return new RateTable(base, start, prefix);
+  }
+
+  /** @return true if stays can be priced */
+  public boolean priced() {
+    return baseCents >= 0;
+  }
+
+  /** @return base nightly rate, or null if unpriced */
+  public BigDecimal baseRate() {
+    return priced() ? BigDecimal.valueOf(baseCents, 2) : null;
+  }
+
+  /**
+   * @param from check-in (inclusive)
+   * @param to check-out (exclusive)
+   * @return total price of the stay in cents, or -1 if unpriced
+   */
+  public long totalCents(LocalDate from, LocalDate to) {
+    if (!priced()) {
+      return -1;
+    }
+    long f = from.toEpochDay();
+    long t = to.toEpochDay();
+    return baseCents * (t - f) + prefix[clamp(t)] - prefix[clamp(f)];
+  }
+
+  /**
+   * @param from check-in (inclusive)
+   * @param to check-out (exclusive)
+   * @return total price of the stay, or null if unpriced
+   */
+  public BigDecimal total(LocalDate from, LocalDate to) {
+    long cents = totalCents(from, to);
+    return cents < 0 ? null : BigDecimal.valueOf(cents, 2);
+  }
+
+  /** @return amount in cents (half-up) */
+  public static long cents(BigDecimal amount) {
+    return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof RateTable r
+        && baseCents == r.baseCents && spanStart == r.spanStart && Arrays.equals(prefix, r.prefix);
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(baseCents) * 31 + Arrays.hashCode(prefix);
+  }
+
+  private int clamp(long epochDay) {
+    return (int) Math.max(0, Math.min(prefix.length - 1, epochDay - spanStart));
+  }
+}
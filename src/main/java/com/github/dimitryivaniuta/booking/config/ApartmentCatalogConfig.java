@@ -0,0 +1,26 @@
+package com.github.dimitryivaniuta.booking.config;
+
+import com.github.dimitryivaniuta.booking.catalog.ApartmentCatalog;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Subscribes the local {@link ApartmentCatalog} to apartment change notifications.
+ */
+@Configuration
+public class ApartmentCatalogConfig {
+
+  @Bean
+  public RedisMessageListenerContainer apartmentCatalogListenerContainer(
+      RedisConnectionFactory connectionFactory,
+      ApartmentCatalog apartmentCatalog
+  ) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(apartmentCatalog, new ChannelTopic(ApartmentCatalog.CHANNEL));
+    return container;
+  }
+}
@@ -0,0 +1,41 @@
+package com.github.dimitryivaniuta.booking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+/**
+ * Kafka consumer configuration.
+ *
+ * <p>{@link #BATCH_FACTORY} is the container factory for batch listeners (see
+ * {@code KeyedBatchProcessor}): one consumer thread per partition up to {@code booking.events.consumer.concurrency}
+ * (the booking events topic has six), offsets committed per batch. A failed record is retried with a fixed
+ * back-off after committing the records before it, then logged and skipped.</p>
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+  /** Bean name of the batch listener container factory. */
+  public static final String BATCH_FACTORY = "batchKafkaListenerContainerFactory";
+
+  @Bean(name = BATCH_FACTORY)
+  public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+      ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+      ConsumerFactory<Object, Object> consumerFactory,
+      @Value("${booking.events.consumer.concurrency:6}") int concurrency,
+      @Value("${booking.events.consumer.retry-interval-ms:1000}") long retryIntervalMs,
+      @Value("${booking.events.consumer.max-retries:3}") long maxRetries
+  ) {
+    ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    configurer.configure(factory, consumerFactory);
+    factory.setBatchListener(true);
+    factory.setConcurrency(Math.max(1, concurrency));
+    factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(retryIntervalMs, maxRetries)));
+    return factory;
+  }
+}
@@ -0,0 +1,22 @@
+package com.github.dimitryivaniuta.booking.config;
+
+import com.github.dimitryivaniuta.booking.security.AuthenticatedUserArgumentResolver;
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC customizations.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+  /**
+   * Lets controllers declare an {@code AuthenticatedUser} parameter instead of re-parsing the JWT.
+   */
+  @Override
+  public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+    resolvers.add(new AuthenticatedUserArgumentResolver());
+  }
+}
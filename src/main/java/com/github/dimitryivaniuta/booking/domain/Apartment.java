@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 import lombok.Getter;
@@ -36,6 +37,18 @@ public class Apartment {
   @Column(name = "created_at", nullable = false)
   private Instant createdAt;
 
+  /** Latitude in degrees (WGS84); null if the location is unknown. */
+  @Column(name = "latitude")
+  private Double latitude;
+
+  /** Longitude in degrees (WGS84); null if the location is unknown. */
+  @Column(name = "longitude")
+  private Double longitude;
+
+  /** Base nightly rate; null if the apartment is not priced yet. Seasonal overrides are {@link ApartmentRate}s. */
+  @Column(name = "nightly_rate", precision = 12, scale = 2)
+  private BigDecimal nightlyRate;
+
   /**
    * Creates a new apartment instance.
    *
@@ -50,4 +63,19 @@ public class Apartment {
     this.capacity = capacity;
     this.createdAt = Instant.now();
   }
+
+  /**
+   * Creates a new apartment instance with a location.
+   *
+   * @param name name
+   * @param city city
+   * @param capacity capacity
+   * @param latitude latitude in degrees; nullable
+   * @param longitude longitude in degrees; nullable
+   */
+  public Apartment(String name, String city, int capacity, Double latitude, Double longitude) {
+    this(name, city, capacity);
+    this.latitude = latitude;
+    this.longitude = longitude;
+  }
 }
@@ -0,0 +1,60 @@
+package com.github.dimitryivaniuta.booking.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Seasonal nightly rate of an apartment for {@code [startDate, endDate)}, overriding its base rate.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "apartment_rates")
+public class ApartmentRate {
+
+  @Id
+  @Column(name = "id", nullable = false)
+  private UUID id;
+
+  @Column(name = "apartment_id", nullable = false)
+  private UUID apartmentId;
+
+  @Column(name = "start_date", nullable = false)
+  private LocalDate startDate;
+
+  @Column(name = "end_date", nullable = false)
+  private LocalDate endDate;
+
+  @Column(name = "nightly_rate", nullable = false, precision = 12, scale = 2)
+  private BigDecimal nightlyRate;
+
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+
+  /**
+   * Creates a seasonal rate.
+   *
+   * @param apartmentId apartment id
+   * @param startDate first night (inclusive)
+   * @param endDate end (exclusive)
+   * @param nightlyRate rate per night
+   */
+  public ApartmentRate(UUID apartmentId, LocalDate startDate, LocalDate endDate, BigDecimal nightlyRate) {
+    this.id = UUID.randomUUID();
+    this.apartmentId = apartmentId;
+    this.startDate = startDate;
+    this.endDate = endDate;
+    this.nightlyRate = nightlyRate;
+    this.createdAt = Instant.now();
+  }
+}
@@ -0,0 +1,10 @@
+package com.github.dimitryivaniuta.booking.events;
+
+import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import java.util.UUID;
+
+/**
+ * A booking was cancelled by its owner or an admin.
+ */
+public record BookingCancelled(UUID bookingId, BookingStatus status) implements BookingEvent {
+}
@@ -0,0 +1,10 @@
+package com.github.dimitryivaniuta.booking.events;
+
+import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import java.util.UUID;
+
+/**
+ * A hold was confirmed (paid).
+ */
+public record BookingConfirmed(UUID bookingId, String paymentRef, BookingStatus status) implements BookingEvent {
+}
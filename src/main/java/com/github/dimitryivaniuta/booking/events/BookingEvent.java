@@ -0,0 +1,30 @@
+package com.github.dimitryivaniuta.booking.events;
+
+import java.util.Map;
+
+/**
+ * Booking domain events published through the outbox to {@code booking-events}.
+ *
+ * <p>The event type (the simple record name) travels in the {@value EventEncoder#HEADER_EVENT_TYPE} Kafka
+ * header, not in the body. Bodies are JSON (record components as fields) or, for topics configured as binary,
+ * the compact {@link BookingEventCodec} format.</p>
+ */
+public sealed interface BookingEvent permits BookingHeld, BookingConfirmed, BookingCancelled, BookingExpired,
+    BookingHoldsExpired {
+
+  /** Event record class by event type. */
+  Map<String, Class<? extends BookingEvent>> TYPES = Map.of(
+      "BookingHeld", BookingHeld.class,
+      "BookingConfirmed", BookingConfirmed.class,
+      "BookingCancelled", BookingCancelled.class,
+      "BookingExpired", BookingExpired.class,
+      "BookingHoldsExpired", BookingHoldsExpired.class
+  );
+
+  /**
+   * @return event type name (stored in {@code outbox.event_type} and sent as a header)
+   */
+  default String eventType() {
+    return getClass().getSimpleName();
+  }
+}
@@ -0,0 +1,290 @@
+package com.github.dimitryivaniuta.booking.events;
+
+import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of {@link BookingEvent}s.
+ *
+ * <p>Layout: one schema version byte, then the record components in declaration order. The event type is
+ * not part of the body (it is a Kafka header), so decoding needs it. Field encodings:
+ * <ul>
+ *   <li>UUID: 16 bytes, big-endian most/least significant halves</li>
+ *   <li>LocalDate: zig-zag varint of the epoch day; a second date is a varint of days after the first</li>
+ *   <li>Instant: zig-zag varint of epoch milliseconds (sub-millisecond precision is dropped)</li>
+ *   <li>int: zig-zag varint; String: varint of (UTF-8 length + 1), 0 meaning null, then the bytes</li>
+ *   <li>BookingStatus: one byte, index in {@link #STATUSES}</li>
+ *   <li>List&lt;UUID&gt;: varint count, then the UUIDs</li>
+ * </ul>
+ * A {@code BookingHeld} is 60-odd bytes against roughly 300 in JSON.</p>
+ *
+ * <p>Evolution: new fields are appended and bump {@link #VERSION}; decoders keep reading older versions.
+ * {@link #STATUSES} is append-only.</p>
+ */
+public final class BookingEventCodec {
+
+  /** Current schema version (first body byte). v2 appended {@code BookingHoldsExpired.bookingIds}. */
+  public static final byte VERSION = 2;
+
+  /** Kafka {@code content-type} header value of this format (the version is in the body). */
+  public static final String CONTENT_TYPE = "application/x-booking-event";
+
+  private static final BookingStatus[] STATUSES = {
+      BookingStatus.HOLD, BookingStatus.CONFIRMED, BookingStatus.CANCELLED, BookingStatus.EXPIRED
+  };
+
+  private BookingEventCodec() {
+  }
+
+  /**
+   * Encodes an event body.
+   *
+   * @param event event
+   * @return encoded bytes
+   */
+  public static byte[] encode(BookingEvent event) {
+    Writer w = new Writer(64);
+    w.writeByte(VERSION);
+    switch (event) {
+      case BookingHeld e -> {
+        w.writeUuid(e.bookingId());
+        w.writeUuid(e.apartmentId());
+        w.writeUuid(e.userId());
+        long start = e.startDate().toEpochDay();
+        w.writeVarLong(zigZag(start));
+        w.writeVarLong(zigZag(e.endDate().toEpochDay() - start));
+        w.writeStatus(e.status());
+        w.writeVarLong(zigZag(e.expiresAt().toEpochMilli()));
+      }
+      case BookingConfirmed e -> {
+        w.writeUuid(e.bookingId());
+        w.writeString(e.paymentRef());
+        w.writeStatus(e.status());
+      }
+      case BookingCancelled e -> {
+        w.writeUuid(e.bookingId());
+        w.writeStatus(e.status());
+      }
+      case BookingExpired e -> {
+        w.writeUuid(e.bookingId());
+        w.writeUuid(e.apartmentId());
+        w.writeUuid(e.userId());
+        long start = e.startDate().toEpochDay();
+        w.writeVarLong(zigZag(start));
+        w.writeVarLong(zigZag(e.endDate().toEpochDay() - start));
+        w.writeStatus(e.status());
+        w.writeVarLong(zigZag(e.expiredAt().toEpochMilli()));
+      }
+      case BookingHoldsExpired e -> {
+        w.writeVarLong(zigZag(e.count()));
+        w.writeVarLong(zigZag(e.at().toEpochMilli()));
+        w.writeVarLong(e.bookingIds().size());
+        for (UUID id : e.bookingIds()) {
+          w.writeUuid(id);
+        }
+      }
+    }
+    return w.toByteArray();
+  }
+
+  /**
+   * Decodes an event body.
+   *
+   * @param eventType event type from the message header
+   * @param body encoded bytes
+   * @return event
+   * @throws IllegalArgumentException on an unknown type/version or a malformed body
+   */
+  public static BookingEvent decode(String eventType, byte[] body) {
+    Reader r = new Reader(body);
+    int version = r.readByte();
+    if (version < 1 || version > VERSION) {
+      throw new IllegalArgumentException("Unsupported booking event version: " + version);
+    }
+    return switch (eventType) {
+      case "BookingHeld" -> {
+        UUID bookingId = r.readUuid();
+        UUID apartmentId = r.readUuid();
+        UUID userId = r.readUuid();
+        long start = unZigZag(r.readVarLong());
+        long nights = unZigZag(r.readVarLong());
+        yield new BookingHeld(bookingId, apartmentId, userId,
+            LocalDate.ofEpochDay(start), LocalDate.ofEpochDay(start + nights),
+            r.readStatus(), Instant.ofEpochMilli(unZigZag(r.readVarLong())));
+      }
+      case "BookingConfirmed" -> new BookingConfirmed(r.readUuid(), r.readString(), r.readStatus());
+      case "BookingCancelled" -> new BookingCancelled(r.readUuid(), r.readStatus());
+      case "BookingExpired" -> {
+        UUID bookingId = r.readUuid();
+        UUID apartmentId = r.readUuid();
+        UUID userId = r.readUuid();
+        long start = unZigZag(r.readVarLong());
+        long nights = unZigZag(r.readVarLong());
+        yield new BookingExpired(bookingId, apartmentId, userId,
+            LocalDate.ofEpochDay(start), LocalDate.ofEpochDay(start + nights),
+            r.readStatus(), Instant.ofEpochMilli(unZigZag(r.readVarLong())));
+      }
+      case "BookingHoldsExpired" -> {
+        int count = (int) unZigZag(r.readVarLong());
+        Instant at = Instant.ofEpochMilli(unZigZag(r.readVarLong()));
+        List<UUID> ids = new ArrayList<>();
+        if (version >= 2) {
+          int n = Math.toIntExact(r.readVarLong());
+          for (int i = 0; i < n; i++) {
+            ids.add(r.readUuid());
+          }
+        }
+        yield new BookingHoldsExpired(count, at, ids);
+      }
+      default -> throw new IllegalArgumentException("Unknown booking event type: " + eventType);
+    };
+  }
+
+  private static long zigZag(long v) {
+    return (v << 1) ^ (v >> 63);
+  }
+
+  private static long unZigZag(long v) {
+    return (v >>> 1) ^ -(v & 1);
+  }
+
+  private static final class Writer {
+
+    private byte[] buf;
+    private int pos;
+
+    Writer(int capacity) {
+      this.buf = new byte[capacity];
+    }
+
+    void writeByte(int b) {
+      ensure(1);
+      buf[pos++] = (byte) b;
+    }
+
+    void writeUuid(UUID id) {
+      writeLong(id.getMostSignificantBits());
+      writeLong(id.getLeastSignificantBits());
+    }
+
+    void writeLong(long v) {
+      ensure(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        buf[pos++] = (byte) (v >>> shift);
+      }
+    }
+
+    void writeVarLong(long v) {
+      ensure(10);
+      while ((v & ~0x7FL) != 0) {
+        buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+        v >>>= 7;
+      }
+      buf[pos++] = (byte) v;
+    }
+
+    void writeString(String s) {
+      if (s == null) {
+        writeVarLong(0);
+        return;
+      }
+      byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+      writeVarLong(bytes.length + 1L);
+      ensure(bytes.length);
+      System.arraycopy(bytes, 0, buf, pos, bytes.length);
+      pos += bytes.length;
+    }
+
+    void writeStatus(BookingStatus status) {
+      for (int i = 0; i < STATUSES.length; i++) {
+        if (STATUSES[i] == status) {
+          writeByte(i);
+          return;
+        }
+      }
+      throw new IllegalArgumentException("Status has no binary code: " + status);
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(buf, pos);
+    }
+
+    private void ensure(int n) {
+      if (pos + n > buf.length) {
+        buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+      }
+    }
+  }
+
+  private static final class Reader {
+
+    private final byte[] buf;
+    private int pos;
+
+    Reader(byte[] buf) {
+      this.buf = buf;
+    }
+
+    int readByte() {
+      require(1);
+      return buf[pos++] & 0xFF;
+    }
+
+    UUID readUuid() {
+      return new UUID(readLong(), readLong());
+    }
+
+    long readLong() {
+      require(8);
+      long v = 0;
+      for (int i = 0; i < 8; i++) {
+        v = (v << 8) | (buf[pos++] & 0xFF);
+      }
+      return v;
+    }
+
+    long readVarLong() {
+      long v = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        int b = readByte();
+        v |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return v;
+        }
+      }
+      throw new IllegalArgumentException("Malformed varint");
+    }
+
+    String readString() {
+      long len = readVarLong();
+      if (len == 0) {
+        return null;
+      }
+      int n = Math.toIntExact(len - 1);
+      require(n);
+      String s = new String(buf, pos, n, StandardCharsets.UTF_8);
+      pos += n;
+      return s;
+    }
+
+    BookingStatus readStatus() {
+      int code = readByte();
+      if (code >= STATUSES.length) {
+        throw new IllegalArgumentException("Unknown status code: " + code);
+      }
+      return STATUSES[code];
+    }
+
+    private void require(int n) {
+      if (n < 0 || pos + n > buf.length) {
+        throw new IllegalArgumentException("Truncated booking event body");
+      }
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.github.dimitryivaniuta.booking.events;
+
+import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A hold on {@code [startDate, endDate)} passed its expiry time and was moved to EXPIRED at {@code expiredAt}.
+ */
+public record BookingExpired(
+    UUID bookingId,
+    UUID apartmentId,
+    UUID userId,
+    LocalDate startDate,
+    LocalDate endDate,
+    BookingStatus status,
+    Instant expiredAt
+) implements BookingEvent {
+}
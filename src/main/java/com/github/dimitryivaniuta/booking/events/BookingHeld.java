@@ -0,0 +1,20 @@
+package com.github.dimitryivaniuta.booking.events;
+
+import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A hold was placed on an apartment for {@code [startDate, endDate)} until {@code expiresAt}.
+ */
+public record BookingHeld(
+    UUID bookingId,
+    UUID apartmentId,
+    UUID userId,
+    LocalDate startDate,
+    LocalDate endDate,
+    BookingStatus status,
+    Instant expiresAt
+) implements BookingEvent {
+}
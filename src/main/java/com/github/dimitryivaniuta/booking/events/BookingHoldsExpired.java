@@ -0,0 +1,22 @@
+package com.github.dimitryivaniuta.booking.events;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The expiry job moved {@code count} overdue holds to EXPIRED at {@code at}.
+ *
+ * <p>No longer published (expiry now emits one {@link BookingExpired} per booking); kept so that records
+ * already on the topic still decode.</p>
+ *
+ * @param count number of expired holds
+ * @param at expiry run time
+ * @param bookingIds the expired bookings (empty when decoded from a v1 binary body)
+ */
+public record BookingHoldsExpired(int count, Instant at, List<UUID> bookingIds) implements BookingEvent {
+
+  public BookingHoldsExpired {
+    bookingIds = bookingIds == null ? List.of() : List.copyOf(bookingIds);
+  }
+}
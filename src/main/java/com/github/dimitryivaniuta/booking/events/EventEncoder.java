@@ -0,0 +1,119 @@
+package com.github.dimitryivaniuta.booking.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chooses the wire format of outbox events per Kafka topic.
+ *
+ * <p>The outbox always stores JSON (readable in {@code psql}, independent of the wire format). Topics listed
+ * in {@code booking.events.binary-topics} get {@link BookingEventCodec} bodies; everything else, including
+ * event types the codec does not know (auth events), is sent as the stored JSON bytes unchanged.</p>
+ */
+@Slf4j
+@Component
+public class EventEncoder {
+
+  /** Kafka header carrying the event type. */
+  public static final String HEADER_EVENT_TYPE = "event-type";
+
+  /** Kafka header carrying the body format ({@link #JSON} or {@link BookingEventCodec#CONTENT_TYPE}). */
+  public static final String HEADER_CONTENT_TYPE = "content-type";
+
+  /** Kafka header carrying the outbox row id (decimal), the deduplication key for consumers. */
+  public static final String HEADER_OUTBOX_ID = "outbox-id";
+
+  public static final String JSON = "application/json";
+
+  private final ObjectMapper objectMapper;
+  private final Set<String> binaryTopics;
+
+  public EventEncoder(
+      ObjectMapper objectMapper,
+      @Value("${booking.events.binary-topics:}") Set<String> binaryTopics
+  ) {
+    this.objectMapper = objectMapper;
+    this.binaryTopics = Set.copyOf(binaryTopics);
+  }
+
+  /**
+   * Encodes a stored outbox payload for its topic.
+   *
+   * @param topic destination topic
+   * @param eventType event type
+   * @param json stored JSON payload
+   * @return body and its content type
+   */
+  public Encoded encode(String topic, String eventType, String json) {
+    Class<? extends BookingEvent> type = BookingEvent.TYPES.get(eventType);
+    if (type != null && binaryTopics.contains(topic)) {
+      try {
+        return new Encoded(BookingEventCodec.encode(objectMapper.readValue(json, type)), BookingEventCodec.CONTENT_TYPE);
+      } catch (Exception e) {
+        log.warn("Cannot binary-encode {} for topic {}, sending JSON: {}", eventType, topic, e.toString());
+      }
+    }
+    return new Encoded(json.getBytes(StandardCharsets.UTF_8), JSON);
+  }
+
+  /**
+   * Decodes a booking event body received from Kafka.
+   *
+   * @param eventType event type header
+   * @param contentType content type header (null = JSON)
+   * @param body message value
+   * @return event
+   * @throws IllegalArgumentException for unknown event types or malformed bodies
+   */
+  public BookingEvent decode(String eventType, String contentType, byte[] body) {
+    if (contentType != null && contentType.startsWith(BookingEventCodec.CONTENT_TYPE)) {
+      return BookingEventCodec.decode(eventType, body);
+    }
+    Class<? extends BookingEvent> type = BookingEvent.TYPES.get(eventType);
+    if (type == null) {
+      throw new IllegalArgumentException("Unknown booking event type: " + eventType);
+    }
+    try {
+      return objectMapper.readValue(body, type);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Malformed " + eventType + " JSON body", e);
+    }
+  }
+
+  /**
+   * Decodes a booking event from a Kafka record's headers and value.
+   *
+   * @param headers record headers
+   * @param body record value
+   * @return event
+   * @throws IllegalArgumentException for unknown event types or malformed bodies
+   */
+  public BookingEvent decode(Headers headers, byte[] body) {
+    return decode(header(headers, HEADER_EVENT_TYPE), header(headers, HEADER_CONTENT_TYPE), body);
+  }
+
+  /**
+   * @param headers record headers
+   * @param name header name
+   * @return last value of the header as UTF-8, or null
+   */
+  public static String header(Headers headers, String name) {
+    Header h = headers.lastHeader(name);
+    return h == null ? null : new String(h.value(), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Encoded message body.
+   *
+   * @param value bytes to send
+   * @param contentType value of the {@value #HEADER_CONTENT_TYPE} header
+   */
+  public record Encoded(byte[] value, String contentType) {
+  }
+}
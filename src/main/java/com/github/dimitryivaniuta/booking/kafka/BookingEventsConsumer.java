@@ -1,6 +1,15 @@
 package com.github.dimitryivaniuta.booking.kafka;
 
+import com.github.dimitryivaniuta.booking.config.KafkaConsumerConfig;
+import com.github.dimitryivaniuta.booking.events.BookingEvent;
+import com.github.dimitryivaniuta.booking.events.EventEncoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
@@ -8,18 +17,75 @@ import org.springframework.stereotype.Component;
  * Example consumer for booking events.
  *
  * <p>In a real system, this could be notifications, billing, analytics, etc.</p>
+ *
+ * <p>The event type and body format come from the record headers, so JSON and binary bodies are both accepted.
+ * Records are consumed in batches and handled in parallel per booking (record key) by {@link KeyedBatchProcessor};
+ * redelivered events are skipped by {@link EventDeduplicator} using the outbox id header.</p>
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class BookingEventsConsumer {
 
+  /** Deduplication namespace of this consumer. */
+  static final String NAME = "booking-apartments";
+
+  private final EventEncoder eventEncoder;
+  private final KeyedBatchProcessor processor;
+  private final EventDeduplicator deduplicator;
+
   /**
-   * Consumes booking events (demo).
+   * Consumes a batch of booking events (demo).
    *
-   * @param payload JSON payload
+   * @param records Kafka records (value = encoded event body)
+   * @param consumer container consumer
    */
-  @KafkaListener(topics = "${booking.outbox.topic:booking-events}", groupId = "booking-apartments")
-  public void onEvent(String payload) {
-    log.info("booking-event={}", payload);
+  @KafkaListener(topics = "${booking.outbox.topic:booking-events}", groupId = "booking-apartments",
+      containerFactory = KafkaConsumerConfig.BATCH_FACTORY)
+  public void onEvents(List<ConsumerRecord<String, byte[]>> records, Consumer<?, ?> consumer) {
+    List<Long> ids = new ArrayList<>(records.size());
+    for (ConsumerRecord<String, byte[]> r : records) {
+      Long id = outboxId(r);
+      if (id != null) {
+        ids.add(id);
+      }
+    }
+    Set<Long> seen = ids.isEmpty() ? Set.of() : deduplicator.alreadyProcessed(NAME, ids);
+    try {
+      processor.process(records, consumer, r -> {
+        Long id = outboxId(r);
+        if (id != null && (seen.contains(id) || deduplicator.recentlyProcessed(NAME, id))) {
+          return;
+        }
+        onEvent(r);
+        if (id != null) {
+          deduplicator.markProcessed(NAME, id);
+        }
+      });
+    } finally {
+      deduplicator.flush(NAME);
+    }
+  }
+
+  private void onEvent(ConsumerRecord<String, byte[]> record) {
+    try {
+      BookingEvent event = eventEncoder.decode(record.headers(), record.value());
+      log.info("booking-event={}", event);
+    } catch (IllegalArgumentException e) {
+      log.warn("Skipping undecodable booking event type={} offset={}: {}",
+          EventEncoder.header(record.headers(), EventEncoder.HEADER_EVENT_TYPE), record.offset(), e.getMessage());
+    }
+  }
+
+  private static Long outboxId(ConsumerRecord<?, ?> record) {
+    String v = EventEncoder.header(record.headers(), EventEncoder.HEADER_OUTBOX_ID);
+    if (v == null) {
+      return null;
+    }
+    try {
+      return Long.parseLong(v);
+    } catch (NumberFormatException e) {
+      return null;
+    }
   }
 }
@@ -0,0 +1,247 @@
+package com.github.dimitryivaniuta.booking.kafka;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.dimitryivaniuta.booking.support.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumer-side deduplication of outbox events, keyed by the {@code outbox-id} header.
+ *
+ * <p>Outbox delivery is at-least-once, so each consumer (identified by a name) checks ids before handling
+ * a batch and marks them after handling each record. Per consumer it keeps:
+ * <ul>
+ *   <li>an exact set of ids processed in the last {@code exact-window-seconds} (bounded in size)</li>
+ *   <li>two rotating bloom filters covering the last {@code bloom-window-hours} to twice that</li>
+ * </ul>
+ * An id in the exact set is a duplicate. In {@code memory} mode an id only the bloom filter reports is taken
+ * as a duplicate too (wrong with probability {@code bloom-fpp}; counted as {@code source=bloom}), and an id
+ * the filter has never seen is new. Memory is bounded: the exact set by size, the filters by sizing.</p>
+ *
+ * <p>In {@code postgres} mode the {@code processed_events} table is the authority for ids not in the exact
+ * set (a local bloom filter cannot know what another node processed before a rebalance): they are looked up
+ * in one query per batch, and marks are written in one statement per batch by {@link #flush}. Markers are
+ * purged after {@code retention-hours}.</p>
+ */
+@Slf4j
+@Component
+public class EventDeduplicator {
+
+  private final ProcessedEventRepository repository;
+  private final MeterRegistry registry;
+  private final boolean durable;
+  private final Duration exactWindow;
+  private final long exactMaxSize;
+  private final Duration bloomWindow;
+  private final long bloomExpected;
+  private final double bloomFpp;
+  private final Duration retention;
+  private final Ticker ticker;
+
+  private final Map<String, Window> windows = new ConcurrentHashMap<>();
+  private final Map<String, Queue<Long>> pendingMarks = new ConcurrentHashMap<>();
+
+  @Autowired
+  public EventDeduplicator(
+      ProcessedEventRepository repository,
+      MeterRegistry registry,
+      @Value("${booking.events.dedup.mode:memory}") String mode,
+      @Value("${booking.events.dedup.exact-window-seconds:600}") long exactWindowSeconds,
+      @Value("${booking.events.dedup.exact-max-size:500000}") long exactMaxSize,
+      @Value("${booking.events.dedup.bloom-window-hours:24}") long bloomWindowHours,
+      @Value("${booking.events.dedup.bloom-expected:2000000}") long bloomExpected,
+      @Value("${booking.events.dedup.bloom-fpp:0.000001}") double bloomFpp,
+      @Value("${booking.events.dedup.retention-hours:72}") long retentionHours
+  ) {
+    this(repository, registry, mode, exactWindowSeconds, exactMaxSize, bloomWindowHours, bloomExpected, bloomFpp,
+        retentionHours, Ticker.systemTicker());
+  }
+
+  /** As above, with the time source of the exact window and filter rotation (for tests). */
+  EventDeduplicator(ProcessedEventRepository repository, MeterRegistry registry, String mode, long exactWindowSeconds,
+      long exactMaxSize, long bloomWindowHours, long bloomExpected, double bloomFpp, long retentionHours,
+      Ticker ticker) {
+    this.repository = repository;
+    this.registry = registry;
+    this.durable = "postgres".equalsIgnoreCase(mode);
+    this.exactWindow = Duration.ofSeconds(Math.max(1, exactWindowSeconds));
+    this.exactMaxSize = Math.max(1, exactMaxSize);
+    this.bloomWindow = Duration.ofHours(Math.max(1, bloomWindowHours));
+    this.bloomExpected = Math.max(1, bloomExpected);
+    this.bloomFpp = bloomFpp;
+    this.retention = Duration.ofHours(Math.max(1, retentionHours));
+    this.ticker = ticker;
+  }
+
+  /**
+   * Batch pre-check.
+   *
+   * @param consumer consumer name (max 64 chars)
+   * @param ids outbox ids of the batch
+   * @return ids already processed by this consumer
+   */
+  public Set<Long> alreadyProcessed(String consumer, Collection<Long> ids) {
+    Window w = window(consumer);
+    Set<Long> duplicates = new HashSet<>();
+    List<Long> unknown = new ArrayList<>();
+    for (Long id : ids) {
+      if (w.exact.getIfPresent(id) != null) {
+        duplicates.add(id);
+        w.duplicates("exact").increment();
+      } else if (durable) {
+        unknown.add(id);
+      } else if (w.bloomMightContain(id)) {
+        duplicates.add(id);
+        w.duplicates("bloom").increment();
+      }
+    }
+    if (!unknown.isEmpty()) {
+      for (Long id : repository.findProcessed(consumer, unknown)) {
+        duplicates.add(id);
+        w.duplicates("postgres").increment();
+      }
+    }
+    return duplicates;
+  }
+
+  /**
+   * In-memory check for a single record, catching a duplicate within the batch being handled.
+   *
+   * @param consumer consumer name
+   * @param id outbox id
+   * @return true if this node processed the id in the exact window
+   */
+  public boolean recentlyProcessed(String consumer, long id) {
+    return window(consumer).exact.getIfPresent(id) != null;
+  }
+
+  /**
+   * Marks an event as processed (call after successful handling).
+   *
+   * @param consumer consumer name
+   * @param id outbox id
+   */
+  public void markProcessed(String consumer, long id) {
+    window(consumer).add(id);
+    if (durable) {
+      pendingMarks.computeIfAbsent(consumer, c -> new ConcurrentLinkedQueue<>()).add(id);
+    }
+  }
+
+  /**
+   * Writes pending durable marks of a consumer in one statement (no-op in memory mode).
+   *
+   * @param consumer consumer name
+   */
+  public void flush(String consumer) {
+    Queue<Long> queue = pendingMarks.get(consumer);
+    if (queue == null || queue.isEmpty()) {
+      return;
+    }
+    List<Long> ids = new ArrayList<>();
+    for (Long id; (id = queue.poll()) != null; ) {
+      ids.add(id);
+    }
+    try {
+      repository.markProcessed(consumer, ids.toArray(Long[]::new));
+    } catch (Exception e) {
+      // Only costs a possible reprocessing after a restart/rebalance; memory still has the ids.
+      log.warn("Failed to persist {} dedup markers for {}: {}", ids.size(), consumer, e.toString());
+    }
+  }
+
+  /**
+   * Purges durable markers past retention, in batches.
+   */
+  @Scheduled(fixedDelayString = "${booking.events.dedup.purge-interval-ms:600000}", initialDelay = 60000)
+  public void purgeExpired() {
+    if (!durable) {
+      return;
+    }
+    Instant cutoff = Instant.now().minus(retention);
+    for (int i = 0; i < 100 && repository.deleteProcessedBefore(cutoff, 5000) == 5000; i++) {
+      // keep deleting full batches
+    }
+  }
+
+  private Window window(String consumer) {
+    return windows.computeIfAbsent(consumer, Window::new);
+  }
+
+  /** Dedup state of one consumer. */
+  private final class Window {
+
+    private final String consumer;
+    private final Cache<Long, Boolean> exact;
+    private final Map<String, Counter> duplicateCounters = new ConcurrentHashMap<>();
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private volatile long rotatedAtMillis;
+
+    Window(String consumer) {
+      this.consumer = consumer;
+      this.exact = Caffeine.newBuilder().ticker(ticker).expireAfterWrite(exactWindow).maximumSize(exactMaxSize).build();
+      this.current = newFilter();
+      this.previous = newFilter();
+      this.rotatedAtMillis = nowMillis();
+    }
+
+    boolean bloomMightContain(long id) {
+      rotateIfDue();
+      String key = Long.toString(id);
+      return current.mightContain(key) || previous.mightContain(key);
+    }
+
+    void add(long id) {
+      exact.put(id, Boolean.TRUE);
+      rotateIfDue();
+      current.put(Long.toString(id));
+    }
+
+    Counter duplicates(String source) {
+      return duplicateCounters.computeIfAbsent(source, s -> Counter.builder("booking.events.dedup.duplicates")
+          .tag("consumer", consumer).tag("source", s).register(registry));
+    }
+
+    private void rotateIfDue() {
+      if (nowMillis() - rotatedAtMillis < bloomWindow.toMillis()) {
+        return;
+      }
+      synchronized (this) {
+        long now = nowMillis();
+        if (now - rotatedAtMillis >= bloomWindow.toMillis()) {
+          previous = current;
+          current = newFilter();
+          rotatedAtMillis = now;
+        }
+      }
+    }
+
+    private long nowMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(ticker.read());
+    }
+
+    private BloomFilter newFilter() {
+      return new BloomFilter(bloomExpected, bloomFpp);
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package com.github.dimitryivaniuta.booking.kafka;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs a batch listener's records in parallel per key while keeping each key's order.
+ *
+ * <p>Records are grouped by (partition, key); each group is handled sequentially, in offset order, on its own
+ * virtual thread, and groups run concurrently. The call returns once every group is done, so the container
+ * commits the whole batch only after it fully succeeded. If a record fails, its group stops (later records of
+ * that key are not handled out of order) and a {@link BatchListenerFailedException} names the earliest failed
+ * record: the error handler commits the contiguous prefix before it and redelivers the rest, so records after
+ * it may be handled again and handlers must be idempotent.</p>
+ *
+ * <p>Exports {@code booking.events.consumer.lag} per topic/partition, read from the consumer's last fetch
+ * (no extra broker round trip).</p>
+ */
+@Component
+public class KeyedBatchProcessor {
+
+  private final MeterRegistry registry;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final Map<TopicPartition, AtomicLong> lag = new ConcurrentHashMap<>();
+
+  public KeyedBatchProcessor(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  /**
+   * Handles a batch.
+   *
+   * @param records polled records, in the order delivered by the container
+   * @param consumer the container's consumer (used for lag only; must be the calling thread's consumer)
+   * @param handler record handler; an exception marks the record failed
+   * @param <K> key type
+   * @param <V> value type
+   * @throws BatchListenerFailedException if any record failed
+   */
+  public <K, V> void process(List<ConsumerRecord<K, V>> records, Consumer<?, ?> consumer, RecordHandler<K, V> handler) {
+    Map<GroupKey, List<Integer>> groups = new LinkedHashMap<>();
+    for (int i = 0; i < records.size(); i++) {
+      ConsumerRecord<K, V> r = records.get(i);
+      groups.computeIfAbsent(new GroupKey(r.topic(), r.partition(), r.key()), k -> new ArrayList<>()).add(i);
+    }
+
+    List<Future<Failure>> results = new ArrayList<>(groups.size());
+    for (List<Integer> group : groups.values()) {
+      results.add(executor.submit(() -> runGroup(records, group, handler)));
+    }
+
+    Failure first = null;
+    for (Future<Failure> f : results) {
+      Failure failure;
+      try {
+        failure = f.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new BatchListenerFailedException("Interrupted while handling batch", e, 0);
+      } catch (ExecutionException e) {
+        failure = new Failure(0, e.getCause());
+      }
+      if (failure != null && (first == null || failure.index() < first.index())) {
+        first = failure;
+      }
+    }
+
+    updateLag(records, consumer);
+    if (first != null) {
+      ConsumerRecord<K, V> failed = records.get(first.index());
+      throw new BatchListenerFailedException("Failed to handle " + failed.topic() + "-" + failed.partition()
+          + "@" + failed.offset(), first.cause(), first.index());
+    }
+  }
+
+  /** @return the failed record of the group, or null if the whole group succeeded */
+  private static <K, V> Failure runGroup(List<ConsumerRecord<K, V>> records, List<Integer> group,
+                                         RecordHandler<K, V> handler) {
+    for (int index : group) {
+      try {
+        handler.handle(records.get(index));
+      } catch (Exception e) {
+        return new Failure(index, e);
+      }
+    }
+    return null;
+  }
+
+  private void updateLag(List<? extends ConsumerRecord<?, ?>> records, Consumer<?, ?> consumer) {
+    if (consumer == null) {
+      return;
+    }
+    Set<TopicPartition> partitions = new HashSet<>();
+    for (ConsumerRecord<?, ?> r : records) {
+      partitions.add(new TopicPartition(r.topic(), r.partition()));
+    }
+    for (TopicPartition tp : partitions) {
+      OptionalLong current = consumer.currentLag(tp);
+      if (current.isPresent()) {
+        lag.computeIfAbsent(tp, this::registerLagGauge).set(current.getAsLong());
+      }
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private AtomicLong registerLagGauge(TopicPartition tp) {
+    AtomicLong value = new AtomicLong();
+    Gauge.builder("booking.events.consumer.lag", value, AtomicLong::get)
+        .tags(Tags.of("topic", tp.topic(), "partition", String.valueOf(tp.partition())))
+        .register(registry);
+    return value;
+  }
+
+  /**
+   * Handles one record.
+   *
+   * @param <K> key type
+   * @param <V> value type
+   */
+  @FunctionalInterface
+  public interface RecordHandler<K, V> {
+    void handle(ConsumerRecord<K, V> record) throws Exception;
+  }
+
+  private record GroupKey(String topic, int partition, Object key) {
+  }
+
+  private record Failure(int index, Throwable cause) {
+  }
+}
@@ -0,0 +1,47 @@
+package com.github.dimitryivaniuta.booking.kafka;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Marker that a consumer has processed an event (outbox id); used by {@link EventDeduplicator} in postgres mode.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "processed_events")
+@IdClass(ProcessedEvent.Key.class)
+public class ProcessedEvent {
+
+  @Id
+  @Column(name = "consumer", nullable = false, length = 64)
+  private String consumer;
+
+  @Id
+  @Column(name = "event_id", nullable = false)
+  private Long eventId;
+
+  @Column(name = "processed_at", nullable = false)
+  private Instant processedAt;
+
+  /**
+   * Composite primary key.
+   */
+  @Getter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @EqualsAndHashCode
+  public static class Key implements Serializable {
+    private String consumer;
+    private Long eventId;
+  }
+}
@@ -0,0 +1,57 @@
+package com.github.dimitryivaniuta.booking.kafka;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for durable deduplication markers.
+ */
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, ProcessedEvent.Key> {
+
+  /**
+   * @param consumer consumer name
+   * @param ids candidate event ids
+   * @return the subset already processed by this consumer
+   */
+  @Query(value = "select event_id from processed_events where consumer = :consumer and event_id in (:ids)",
+      nativeQuery = true)
+  List<Long> findProcessed(@Param("consumer") String consumer, @Param("ids") Collection<Long> ids);
+
+  /**
+   * Records processed events in one statement; already recorded ids are ignored.
+   *
+   * @param consumer consumer name
+   * @param ids event ids
+   * @return number of new rows
+   */
+  @Transactional
+  @Modifying
+  @Query(value = """
+      insert into processed_events(consumer, event_id, processed_at)
+      select :consumer, id, now() from unnest(cast(:ids as bigint[])) as t(id)
+      on conflict do nothing
+      """, nativeQuery = true)
+  int markProcessed(@Param("consumer") String consumer, @Param("ids") Long[] ids);
+
+  /**
+   * Deletes one batch of markers older than the cutoff.
+   *
+   * @param cutoff markers processed before this instant are deleted
+   * @param limit maximum rows per batch
+   * @return number of rows deleted
+   */
+  @Transactional
+  @Modifying
+  @Query(value = """
+      delete from processed_events where (consumer, event_id) in (
+        select consumer, event_id from processed_events where processed_at < :cutoff limit :limit
+      )
+      """, nativeQuery = true)
+  int deleteProcessedBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,80 @@
+package com.github.dimitryivaniuta.booking.outbox;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Leases outbox rows to this node so that several instances can publish concurrently.
+ *
+ * <p>The outbox is split into {@code partitions} by hash of aggregate id. Claiming a partition takes a
+ * Postgres advisory lock for the duration of the (short) claim transaction, then leases the next rows with
+ * {@code FOR UPDATE SKIP LOCKED}; publishing itself happens after commit, protected only by the lease.
+ * Leases are never renewed: if a node dies mid-publish, its lease expires and another node re-sends.</p>
+ *
+ * <p>Since an aggregate always maps to the same partition, and a partition never hands out rows behind an
+ * in-flight row of the same aggregate, per-aggregate order survives any number of nodes and workers.</p>
+ */
+@Component
+public class OutboxClaimer {
+
+  /** Advisory lock namespace of outbox partitions (first key of {@code pg_try_advisory_xact_lock}). */
+  static final int LOCK_CLASS = 0x0B0C;
+
+  private final OutboxRepository outboxRepository;
+  private final int partitions;
+  private final long leaseMs;
+  private final String nodeId;
+
+  public OutboxClaimer(
+      OutboxRepository outboxRepository,
+      @Value("${booking.outbox.partitions:8}") int partitions,
+      @Value("${booking.outbox.lease-ms:160000}") long leaseMs,
+      @Value("${booking.outbox.node-id:}") String nodeId
+  ) {
+    this.outboxRepository = outboxRepository;
+    this.partitions = Math.max(1, partitions);
+    this.leaseMs = Math.max(1000, leaseMs);
+    this.nodeId = (nodeId == null || nodeId.isBlank()) ? UUID.randomUUID().toString() : nodeId;
+  }
+
+  /**
+   * Leases the next batch of one partition.
+   *
+   * @param partition partition number in {@code [0, partitions)}
+   * @param limit batch size
+   * @return leased messages in id order; empty if nothing is due or another node holds the partition
+   */
+  @Transactional
+  public List<OutboxMessage> claim(int partition, int limit) {
+    if (!outboxRepository.tryLockPartition(LOCK_CLASS, partition)) {
+      return List.of();
+    }
+    List<OutboxMessage> claimed = outboxRepository.claimBatch(partition, partitions, limit, nodeId, leaseMs);
+    claimed.sort(Comparator.comparing(OutboxMessage::getId));
+    return claimed;
+  }
+
+  /**
+   * Gives up this node's lease on messages that could not be published.
+   *
+   * @param ids message ids
+   */
+  public void release(Collection<Long> ids) {
+    if (!ids.isEmpty()) {
+      outboxRepository.releaseClaims(ids, nodeId);
+    }
+  }
+
+  public int partitions() {
+    return partitions;
+  }
+
+  public String nodeId() {
+    return nodeId;
+  }
+}
@@ -0,0 +1,150 @@
+package com.github.dimitryivaniuta.booking.outbox;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Sends outbox messages to Kafka right after their transaction commits, keeping the outbox as the safety net.
+ *
+ * <p>{@link #lease} is called before the insert: the row is written already leased to this node for
+ * {@code grace-ms}, so {@link OutboxClaimer} skips it (and every later row of the same aggregate) until the
+ * grace period has passed. After commit the message is sent from a single thread, in commit order. Acked ids
+ * are marked published in bulk every {@code flush-ms}; failed ones are released so the poller retries them
+ * at once. If the node dies, the lease simply runs out and the poller publishes the row.</p>
+ *
+ * <p>A row is only leased when its aggregate has no earlier unpublished row: otherwise the fast path could
+ * overtake a row the poller is still (re)sending. Such rows, and every row written while too many sends are
+ * pending (e.g. Kafka is slow), are written unleased and left to the poller, which keeps per-aggregate order
+ * and never lets the fast path queue without bound.</p>
+ */
+@Slf4j
+@Component
+public class OutboxFastPath {
+
+  private final OutboxPublisher publisher;
+  private final OutboxClaimer claimer;
+  private final OutboxRepository outboxRepository;
+  private final boolean enabled;
+  private final long graceMs;
+  private final int maxPending;
+
+  private final AtomicInteger pending = new AtomicInteger();
+  private final Queue<Long> acked = new ConcurrentLinkedQueue<>();
+  private final Queue<Long> failed = new ConcurrentLinkedQueue<>();
+  private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread t = new Thread(r, "outbox-fast-path");
+    t.setDaemon(true);
+    return t;
+  });
+
+  public OutboxFastPath(
+      OutboxPublisher publisher,
+      OutboxClaimer claimer,
+      OutboxRepository outboxRepository,
+      @Value("${booking.outbox.fast-path.enabled:true}") boolean enabled,
+      @Value("${booking.outbox.fast-path.grace-ms:10000}") long graceMs,
+      @Value("${booking.outbox.fast-path.max-pending:10000}") int maxPending,
+      @Value("${booking.outbox.fast-path.flush-ms:20}") long flushMs
+  ) {
+    this.publisher = publisher;
+    this.claimer = claimer;
+    this.outboxRepository = outboxRepository;
+    this.enabled = enabled;
+    this.graceMs = Math.max(1000, graceMs);
+    this.maxPending = Math.max(1, maxPending);
+    executor.scheduleWithFixedDelay(this::flush, flushMs, Math.max(1, flushMs), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Reserves a message for the fast path (call before saving it, in the transaction that saves it).
+   *
+   * <p>The caller has already updated the aggregate, so a concurrent transaction on the same aggregate waits
+   * on its row lock and then sees this transaction's rows in the unpublished check.</p>
+   *
+   * @param message new outbox message
+   * @return the same message, leased to this node if the fast path accepts it
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public OutboxMessage lease(OutboxMessage message) {
+    if (enabled && pending.get() < maxPending && !outboxRepository.existsUnpublished(message.getAggregateId())) {
+      message.setClaimedBy(claimer.nodeId());
+      message.setClaimedUntil(Instant.now().plusMillis(graceMs));
+    }
+    return message;
+  }
+
+  /**
+   * Sends a leased message once its transaction has committed.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onSaved(OutboxMessageSavedEvent event) {
+    OutboxMessage msg = event.message();
+    if (msg.getId() == null || !claimer.nodeId().equals(msg.getClaimedBy())) {
+      return;
+    }
+    pending.incrementAndGet();
+    try {
+      executor.execute(() -> publisher.send(msg).whenComplete((r, ex) -> {
+        (ex == null ? acked : failed).add(msg.getId());
+        pending.decrementAndGet();
+      }));
+    } catch (RejectedExecutionException e) {
+      // Shutting down: the lease expires and the poller publishes the row.
+      pending.decrementAndGet();
+    }
+  }
+
+  /** Marks acked rows published and releases failed ones, each in one statement. */
+  private void flush() {
+    try {
+      List<Long> ok = drain(acked);
+      if (!ok.isEmpty()) {
+        outboxRepository.markPublished(ok, Instant.now());
+      }
+      List<Long> retry = drain(failed);
+      if (!retry.isEmpty()) {
+        claimer.release(retry);
+        log.warn("Fast-path publish failed for {} outbox messages; released to the poller", retry.size());
+      }
+    } catch (Exception e) {
+      // Rows stay leased until the grace period ends; the poller re-sends them (duplicates are tolerated).
+      log.warn("Fast-path outbox flush failed: {}", e.toString());
+    }
+  }
+
+  private static List<Long> drain(Queue<Long> queue) {
+    List<Long> ids = new ArrayList<>();
+    for (Long id; ids.size() < 1000 && (id = queue.poll()) != null; ) {
+      ids.add(id);
+    }
+    return ids;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+    try {
+      executor.awaitTermination(2, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    executor.shutdownNow();
+    flush();
+  }
+}
@@ -49,6 +49,14 @@ public class OutboxMessage {
   @Column(name = "published_at")
   private Instant publishedAt;
 
+  /** Node currently publishing this message (lease owner); null when unclaimed. */
+  @Column(name = "claimed_by", length = 64)
+  private String claimedBy;
+
+  /** Lease expiry; after it passes any node may reclaim the message. */
+  @Column(name = "claimed_until")
+  private Instant claimedUntil;
+
   /**
    * Creates a new outbox message.
    *
@@ -0,0 +1,9 @@
+package com.github.dimitryivaniuta.booking.outbox;
+
+/**
+ * Application event published in the transaction that inserted an outbox row.
+ *
+ * @param message the saved message (with its generated id)
+ */
+public record OutboxMessageSavedEvent(OutboxMessage message) {
+}
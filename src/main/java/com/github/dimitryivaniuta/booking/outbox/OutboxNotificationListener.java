@@ -0,0 +1,119 @@
+package com.github.dimitryivaniuta.booking.outbox;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wakes the {@link OutboxPublisher} on Postgres {@code NOTIFY outbox_new} (sent by the outbox insert trigger).
+ *
+ * <p>Uses one dedicated connection outside the Hikari pool, since it is held for the lifetime of the
+ * application. After every (re)connect the publisher is woken once, covering notifications missed while
+ * disconnected; the publisher's slow fallback poll covers anything else.</p>
+ */
+@Slf4j
+@Component
+public class OutboxNotificationListener {
+
+  /** Channel notified by the {@code trg_outbox_notify} trigger. */
+  static final String CHANNEL = "outbox_new";
+
+  private final DataSourceProperties dataSource;
+  private final OutboxPublisher publisher;
+  private final boolean enabled;
+  private final int waitMs;
+  private final long reconnectBackoffMs;
+
+  private volatile boolean running;
+  private volatile Connection connection;
+  private Thread thread;
+
+  public OutboxNotificationListener(
+      DataSourceProperties dataSource,
+      OutboxPublisher publisher,
+      @Value("${booking.outbox.notify.enabled:true}") boolean enabled,
+      @Value("${booking.outbox.notify.wait-ms:10000}") int waitMs,
+      @Value("${booking.outbox.notify.reconnect-backoff-ms:2000}") long reconnectBackoffMs
+  ) {
+    this.dataSource = dataSource;
+    this.publisher = publisher;
+    this.enabled = enabled;
+    this.waitMs = Math.max(100, waitMs);
+    this.reconnectBackoffMs = Math.max(100, reconnectBackoffMs);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled || running) {
+      return;
+    }
+    running = true;
+    thread = new Thread(this::listenLoop, "outbox-listen");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @PreDestroy
+  void stop() {
+    running = false;
+    closeQuietly(connection);
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  private void listenLoop() {
+    while (running) {
+      try (Connection c = DriverManager.getConnection(
+          dataSource.determineUrl(), dataSource.determineUsername(), dataSource.determinePassword())) {
+        connection = c;
+        try (Statement st = c.createStatement()) {
+          st.execute("LISTEN " + CHANNEL);
+        }
+        PGConnection pg = c.unwrap(PGConnection.class);
+        publisher.wake();
+        while (running) {
+          // Blocks on the socket until a notification arrives or waitMs passes; no query round trips.
+          PGNotification[] notifications = pg.getNotifications(waitMs);
+          if (notifications != null && notifications.length > 0) {
+            publisher.wake();
+          } else if (!c.isValid(1)) {
+            break;
+          }
+        }
+      } catch (Exception e) {
+        if (running) {
+          log.warn("Outbox LISTEN connection lost, reconnecting in {} ms: {}", reconnectBackoffMs, e.toString());
+        }
+      } finally {
+        connection = null;
+      }
+      if (running) {
+        try {
+          Thread.sleep(reconnectBackoffMs);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  private static void closeQuietly(Connection c) {
+    if (c == null) return;
+    try {
+      c.close();
+    } catch (Exception ignored) {
+      // shutting down
+    }
+  }
+}
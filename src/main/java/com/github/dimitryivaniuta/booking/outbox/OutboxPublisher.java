@@ -1,9 +1,34 @@
 package com.github.dimitryivaniuta.booking.outbox;
 
+import com.github.dimitryivaniuta.booking.events.EventEncoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -14,45 +39,286 @@ import org.springframework.stereotype.Component;
  *
  * <p>Publishing is done outside of the DB transaction that wrote the business update.
  * After a successful publish, the outbox row is marked as published.</p>
+ *
+ * <p>A batch is pipelined: every record is handed to the producer without waiting, then all acknowledgements
+ * are awaited and the successful rows are marked in a single UPDATE. Records are sent in id order keyed by
+ * aggregate id, and the idempotent producer preserves that order within a partition.</p>
+ *
+ * <p>On a partial failure, the failed record and every later record of the same aggregate stay unpublished,
+ * even if Kafka acknowledged the later ones. The next poll re-sends them in order, so each aggregate's stream
+ * ends in the correct order, at the cost of duplicates that consumers must tolerate.</p>
+ *
+ * <p>Rows are leased through {@link OutboxClaimer}, one partition per task, on {@code booking.outbox.workers}
+ * threads, so any number of nodes can run the publisher without sending the same row twice in normal
+ * operation.</p>
+ *
+ * <p>Runs are triggered by {@link #wake()} — from {@link OutboxNotificationListener} on every outbox insert,
+ * and from a slow fallback poll — and executed one at a time on a dispatcher thread. Wake-ups that arrive
+ * while a run is in progress are coalesced into exactly one follow-up run, so no notification is lost.</p>
+ *
+ * <p>Metrics (next to the backlog gauges of {@link OutboxRetentionJob}):
+ * <ul>
+ *   <li>{@code booking.outbox.published} / {@code booking.outbox.send.failed} – acked / failed sends per topic</li>
+ *   <li>{@code booking.outbox.send} – Kafka send-to-ack latency histogram</li>
+ *   <li>{@code booking.outbox.publish.lag} – outbox write-to-ack latency histogram (end-to-end staleness)</li>
+ *   <li>{@code booking.outbox.batch.size} – claimed batch size distribution</li>
+ *   <li>{@code booking.outbox.consecutive.failures} – batches in a row with at least one failed send</li>
+ * </ul></p>
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class OutboxPublisher {
 
   private final OutboxRepository outboxRepository;
-  private final KafkaTemplate<String, String> kafkaTemplate;
+  private final OutboxClaimer claimer;
+  private final KafkaTemplate<String, byte[]> kafkaTemplate;
+  private final EventEncoder eventEncoder;
+  private final int batchSize;
+  private final String defaultTopic;
+  private final long sendTimeoutMs;
+  private final ExecutorService workers;
+  private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "outbox-dispatch");
+    t.setDaemon(true);
+    return t;
+  });
+  private final AtomicBoolean wakePending = new AtomicBoolean();
+
+  private final MeterRegistry registry;
+  private final Timer sendTimer;
+  private final Timer lagTimer;
+  private final DistributionSummary batchSizes;
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private final Map<String, Counter> publishedByTopic = new ConcurrentHashMap<>();
+  private final Map<String, Counter> failedByTopic = new ConcurrentHashMap<>();
 
-  @Value("${booking.outbox.poll.batch-size:100}")
-  private int batchSize;
+  public OutboxPublisher(
+      OutboxRepository outboxRepository,
+      OutboxClaimer claimer,
+      KafkaTemplate<String, byte[]> kafkaTemplate,
+      EventEncoder eventEncoder,
+      MeterRegistry registry,
+      @Value("${booking.outbox.poll.batch-size:100}") int batchSize,
+      @Value("${booking.outbox.topic:booking-events}") String defaultTopic,
+      @Value("${booking.outbox.send-timeout-ms:130000}") long sendTimeoutMs,
+      @Value("${booking.outbox.workers:4}") int workers
+  ) {
+    this.outboxRepository = outboxRepository;
+    this.claimer = claimer;
+    this.kafkaTemplate = kafkaTemplate;
+    this.eventEncoder = eventEncoder;
+    this.batchSize = batchSize;
+    this.defaultTopic = defaultTopic;
+    this.sendTimeoutMs = sendTimeoutMs;
+    this.workers = workers > 1 ? Executors.newFixedThreadPool(workers, namedThreads()) : null;
 
-  @Value("${booking.outbox.poll.fixed-delay-ms:500}")
-  private long fixedDelayMs;
+    this.registry = registry;
+    this.sendTimer = Timer.builder("booking.outbox.send").publishPercentileHistogram().register(registry);
+    this.lagTimer = Timer.builder("booking.outbox.publish.lag").publishPercentileHistogram().register(registry);
+    this.batchSizes = DistributionSummary.builder("booking.outbox.batch.size").publishPercentileHistogram()
+        .register(registry);
+    Gauge.builder("booking.outbox.consecutive.failures", consecutiveFailures, AtomicInteger::get).register(registry);
+  }
 
-  @Value("${booking.outbox.topic:booking-events}")
-  private String defaultTopic;
+  /**
+   * Fallback poll for notifications missed while the LISTEN connection was down (or with notify disabled).
+   */
+  @Scheduled(fixedDelayString = "${booking.outbox.poll.fixed-delay-ms:5000}")
+  public void fallbackPoll() {
+    wake();
+  }
+
+  /**
+   * Requests a publishing run. Never blocks; concurrent requests collapse into one pending run.
+   */
+  public void wake() {
+    if (wakePending.compareAndSet(false, true)) {
+      try {
+        dispatcher.execute(() -> {
+          // Cleared before the run: rows committed during it trigger one more run.
+          wakePending.set(false);
+          try {
+            pollAndPublish();
+          } catch (Exception e) {
+            log.warn("Outbox publishing run failed: {}", String.valueOf(e));
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        wakePending.set(false);
+      }
+    }
+  }
 
   /**
-   * Polls and publishes outbox messages.
+   * Polls and publishes outbox messages: drains every partition once, in parallel when workers are configured.
    */
-  @Scheduled(fixedDelayString = "${booking.outbox.poll.fixed-delay-ms:500}")
-  public void pollAndPublish() {
-    List<OutboxMessage> batch = outboxRepository.findNextBatch(batchSize);
-    if (batch.isEmpty()) {
+  void pollAndPublish() {
+    int partitions = claimer.partitions();
+    if (workers == null) {
+      for (int p = 0; p < partitions; p++) {
+        drainPartition(p);
+      }
       return;
     }
+    List<Future<?>> tasks = new ArrayList<>(partitions);
+    for (int p = 0; p < partitions; p++) {
+      int partition = p;
+      tasks.add(workers.submit(() -> drainPartition(partition)));
+    }
+    for (Future<?> task : tasks) {
+      try {
+        task.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException e) {
+        log.warn("Outbox partition drain failed: {}", String.valueOf(e.getCause()));
+      }
+    }
+  }
+
+  /**
+   * Publishes leased batches of one partition until it has nothing due (or a batch could not be fully sent).
+   *
+   * @param partition partition number
+   */
+  void drainPartition(int partition) {
+    while (true) {
+      List<OutboxMessage> batch = claimer.claim(partition, batchSize);
+      if (batch.isEmpty()) {
+        return;
+      }
+      int published = publishBatch(batch);
+      if (published < batch.size() || batch.size() < batchSize) {
+        return;
+      }
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    dispatcher.shutdownNow();
+    if (workers != null) {
+      workers.shutdownNow();
+    }
+  }
 
+  /**
+   * Sends a batch asynchronously, awaits all acknowledgements and marks the publishable prefix per aggregate.
+   *
+   * @param batch messages in id order
+   * @return number of messages marked as published
+   */
+  int publishBatch(List<OutboxMessage> batch) {
+    batchSizes.record(batch.size());
+    List<CompletableFuture<?>> acks = new ArrayList<>(batch.size());
     for (OutboxMessage msg : batch) {
+      acks.add(send(msg));
+    }
+
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+    List<Long> published = new ArrayList<>(batch.size());
+    Set<UUID> blocked = new HashSet<>();
+    int failed = 0;
+    Exception firstFailure = null;
+    Long firstFailedId = null;
+    for (int i = 0; i < batch.size(); i++) {
+      OutboxMessage msg = batch.get(i);
+      boolean ok;
       try {
-        // key = aggregateId (keeps ordering per booking)
-        String t = (msg.getTopic() == null || msg.getTopic().isBlank()) ? defaultTopic : msg.getTopic();
-        kafkaTemplate.send(t, msg.getAggregateId().toString(), msg.getPayload()).get();
-        outboxRepository.markPublished(msg.getId(), Instant.now());
+        acks.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        ok = true;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        ok = false;
+        firstFailure = firstFailure == null ? e : firstFailure;
       } catch (Exception e) {
-        // Stop on first failure to avoid hot-looping and to keep ordering stable.
-        log.warn("Failed to publish outbox message id={} (will retry). cause={}", msg.getId(), e.toString());
-        return;
+        ok = false;
+        firstFailure = firstFailure == null ? e : firstFailure;
+      }
+      if (!ok) {
+        failed++;
+        firstFailedId = firstFailedId == null ? msg.getId() : firstFailedId;
+        blocked.add(msg.getAggregateId());
+      } else if (!blocked.contains(msg.getAggregateId())) {
+        published.add(msg.getId());
+      }
+    }
+
+    if (!published.isEmpty()) {
+      outboxRepository.markPublished(published, Instant.now());
+    }
+    if (failed == 0) {
+      consecutiveFailures.set(0);
+    } else {
+      consecutiveFailures.incrementAndGet();
+      List<Long> retry = new ArrayList<>(batch.size() - published.size());
+      for (OutboxMessage msg : batch) {
+        if (blocked.contains(msg.getAggregateId())) {
+          retry.add(msg.getId());
+        }
       }
+      claimer.release(retry);
+      log.warn("Failed to publish {} of {} outbox messages (first id={}, will retry). cause={}",
+          failed, batch.size(), firstFailedId, String.valueOf(firstFailure));
+    }
+    return published.size();
+  }
+
+  /**
+   * Hands one message to the producer and records send metrics when it is acknowledged.
+   *
+   * @param msg outbox message
+   * @return acknowledgement; completed exceptionally if the send failed (never throws)
+   */
+  CompletableFuture<?> send(OutboxMessage msg) {
+    String topic = topicOf(msg);
+    long start = System.nanoTime();
+    try {
+      return kafkaTemplate.send(toRecord(msg)).whenComplete((r, ex) -> {
+        sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (ex != null) {
+          topicCounter(failedByTopic, "booking.outbox.send.failed", topic).increment();
+          return;
+        }
+        topicCounter(publishedByTopic, "booking.outbox.published", topic).increment();
+        if (msg.getCreatedAt() != null) {
+          lagTimer.record(Duration.between(msg.getCreatedAt(), Instant.now()));
+        }
+      });
+    } catch (Exception e) {
+      topicCounter(failedByTopic, "booking.outbox.send.failed", topic).increment();
+      return CompletableFuture.failedFuture(e);
     }
   }
+
+  /** Key = aggregate id (keeps ordering per booking); event type, body format and outbox id travel as headers. */
+  private ProducerRecord<String, byte[]> toRecord(OutboxMessage msg) {
+    String topic = topicOf(msg);
+    EventEncoder.Encoded body = eventEncoder.encode(topic, msg.getEventType(), msg.getPayload());
+    ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, msg.getAggregateId().toString(), body.value());
+    record.headers().add(EventEncoder.HEADER_EVENT_TYPE, msg.getEventType().getBytes(StandardCharsets.UTF_8));
+    record.headers().add(EventEncoder.HEADER_CONTENT_TYPE, body.contentType().getBytes(StandardCharsets.UTF_8));
+    if (msg.getId() != null) {
+      record.headers().add(EventEncoder.HEADER_OUTBOX_ID, msg.getId().toString().getBytes(StandardCharsets.UTF_8));
+    }
+    return record;
+  }
+
+  private Counter topicCounter(Map<String, Counter> counters, String name, String topic) {
+    return counters.computeIfAbsent(topic, t -> Counter.builder(name).tag("topic", t).register(registry));
+  }
+
+  private static ThreadFactory namedThreads() {
+    AtomicInteger n = new AtomicInteger();
+    return r -> {
+      Thread t = new Thread(r, "outbox-worker-" + n.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    };
+  }
+
+  private String topicOf(OutboxMessage msg) {
+    return (msg.getTopic() == null || msg.getTopic().isBlank()) ? defaultTopic : msg.getTopic();
+  }
 }
@@ -1,12 +1,13 @@
 package com.github.dimitryivaniuta.booking.outbox;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -15,21 +16,159 @@ import org.springframework.transaction.annotation.Transactional;
 public interface OutboxRepository extends JpaRepository<OutboxMessage, Long> {
 
   /**
-   * Loads the next batch of unpublished messages.
+   * Whether an aggregate still has an unpublished message (served by the unpublished-aggregate index).
    *
+   * <p>Joins the caller's transaction, so it also sees rows that transaction has written.</p>
+   *
+   * @param aggregateId aggregate id
+   * @return true if some message of the aggregate is not published yet
+   */
+  @Query(value = "select exists (select 1 from outbox where aggregate_id = :aggregateId and published_at is null)",
+      nativeQuery = true)
+  boolean existsUnpublished(@Param("aggregateId") UUID aggregateId);
+
+  /**
+   * Takes the transaction-scoped advisory lock of an outbox partition, if free.
+   *
+   * <p>At most one transaction cluster-wide claims a given partition at a time, which makes the
+   * per-aggregate ordering check in {@link #claimBatch} race-free.</p>
+   *
+   * @param lockClass advisory lock namespace
+   * @param partition partition number
+   * @return true if the lock was acquired (released on commit/rollback)
+   */
+  @Query(value = "select pg_try_advisory_xact_lock(:lockClass, :partition)", nativeQuery = true)
+  boolean tryLockPartition(@Param("lockClass") int lockClass, @Param("partition") int partition);
+
+  /**
+   * Leases the next unpublished messages of one partition (partitioned by hash of aggregate id).
+   *
+   * <p>Skips rows leased by anyone else and every row whose aggregate has an earlier row still in flight,
+   * so no two nodes ever publish the same aggregate concurrently. Must run inside a transaction holding
+   * {@link #tryLockPartition}. Returned rows are not ordered.</p>
+   *
+   * @param partition partition number
+   * @param partitions total partitions
    * @param limit batch size
-   * @return outbox messages
+   * @param owner lease owner (node id)
+   * @param leaseMs lease duration
+   * @return leased messages
    */
-  @Query(value = "select * from outbox where published_at is null order by id asc limit :limit", nativeQuery = true)
-  List<OutboxMessage> findNextBatch(@Param("limit") int limit);
+  @Query(value = """
+      update outbox set claimed_by = :owner, claimed_until = now() + (:leaseMs * interval '1 millisecond')
+      where id in (
+        select o.id from outbox o
+        where o.published_at is null
+          and (o.claimed_until is null or o.claimed_until < now())
+          and (hashtext(o.aggregate_id::text) & 2147483647) % :partitions = :partition
+          and not exists (
+            select 1 from outbox e
+            where e.aggregate_id = o.aggregate_id
+              and e.published_at is null
+              and e.id < o.id
+              and e.claimed_until >= now()
+          )
+        order by o.id
+        limit :limit
+        for update skip locked
+      )
+      returning *
+      """, nativeQuery = true)
+  List<OutboxMessage> claimBatch(@Param("partition") int partition,
+                                 @Param("partitions") int partitions,
+                                 @Param("limit") int limit,
+                                 @Param("owner") String owner,
+                                 @Param("leaseMs") long leaseMs);
 
   /**
-   * Marks one message as published.
+   * Inserts many messages of one topic/type in a single multi-row statement.
+   *
+   * <p>Rows get ids in array order. They are left unleased, so the poller (woken by NOTIFY) publishes them.
+   * Joins the caller's transaction.</p>
    *
-   * <p>Runs in its own transaction to avoid holding the original polling transaction while sending to Kafka.</p>
+   * @param topic kafka topic
+   * @param aggregateType aggregate type
+   * @param eventType event type
+   * @param aggregateIds aggregate id per row
+   * @param payloads json payload per row (same length as {@code aggregateIds})
+   * @param createdAt creation time
+   * @return number of rows inserted
    */
-  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  @Transactional
   @Modifying
-  @Query(value = "update outbox set published_at = :publishedAt where id = :id and published_at is null", nativeQuery = true)
-  int markPublished(@Param("id") long id, @Param("publishedAt") Instant publishedAt);
+  @Query(value = """
+      insert into outbox (topic, aggregate_type, aggregate_id, event_type, payload, created_at)
+      select :topic, :aggregateType, t.aggregate_id, :eventType, cast(t.payload as jsonb), :createdAt
+      from unnest(cast(:aggregateIds as uuid[]), cast(:payloads as text[])) with ordinality as t(aggregate_id, payload, n)
+      order by t.n
+      """, nativeQuery = true)
+  int insertBatch(@Param("topic") String topic,
+                  @Param("aggregateType") String aggregateType,
+                  @Param("eventType") String eventType,
+                  @Param("aggregateIds") UUID[] aggregateIds,
+                  @Param("payloads") String[] payloads,
+                  @Param("createdAt") Instant createdAt);
+
+  /**
+   * Drops this node's lease on messages it failed to publish so they are retried without waiting for expiry.
+   *
+   * @param ids message ids
+   * @param owner lease owner
+   * @return number of rows released
+   */
+  @Transactional
+  @Modifying
+  @Query(value = """
+      update outbox set claimed_by = null, claimed_until = null
+      where id in (:ids) and claimed_by = :owner and published_at is null
+      """, nativeQuery = true)
+  int releaseClaims(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
+  /**
+   * Marks a set of messages as published in one statement.
+   *
+   * <p>Runs in its own short transaction; the poller itself is not transactional, so no transaction is held
+   * while waiting for Kafka acknowledgements.</p>
+   *
+   * @param ids message ids
+   * @param publishedAt publish time
+   * @return number of rows updated
+   */
+  @Transactional
+  @Modifying
+  @Query(value = "update outbox set published_at = :publishedAt where id in (:ids) and published_at is null", nativeQuery = true)
+  int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+  /**
+   * Deletes one batch of messages published before the cutoff.
+   *
+   * <p>Walks the partial published-at index from the oldest publish time, so a run stops at the cutoff instead of
+   * scanning the retained rows (and the dead tuples of earlier deletes) behind it.</p>
+   *
+   * @param cutoff messages published before this instant are deleted
+   * @param limit maximum rows per batch
+   * @return number of rows deleted
+   */
+  @Transactional
+  @Modifying
+  @Query(value = """
+      delete from outbox where id in (
+        select id from outbox where published_at < :cutoff order by published_at limit :limit
+      )
+      """, nativeQuery = true)
+  int deletePublishedBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+  /**
+   * @return number of unpublished messages (served by the partial unpublished index)
+   */
+  @Query(value = "select count(*) from outbox where published_at is null", nativeQuery = true)
+  long countUnpublished();
+
+  /**
+   * @return age in seconds of the oldest unpublished message, or null if there is none
+   */
+  @Query(value = """
+      select extract(epoch from (now() - min(created_at)))::float8 from outbox where published_at is null
+      """, nativeQuery = true)
+  Double oldestUnpublishedAgeSeconds();
 }
@@ -0,0 +1,111 @@
+package com.github.dimitryivaniuta.booking.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes published outbox rows after a retention period and reports outbox health.
+ *
+ * <p>Purging runs in small batches (each its own short transaction) with a pause between them and a cap
+ * per run, so it never holds locks or I/O long enough to slow down the booking write path; a large backlog
+ * is worked off over several runs. Multiple nodes may purge concurrently: deletes are idempotent.</p>
+ *
+ * <p>Metrics:
+ * <ul>
+ *   <li>{@code booking.outbox.backlog} – unpublished messages</li>
+ *   <li>{@code booking.outbox.oldest.unpublished.age} – seconds since the oldest unpublished message was written</li>
+ *   <li>{@code booking.outbox.purged} – counter of deleted rows (purge rate)</li>
+ * </ul>
+ * The gauges are refreshed on a schedule rather than per scrape, so scrapes never hit the database.</p>
+ */
+@Slf4j
+@Component
+public class OutboxRetentionJob {
+
+  private final OutboxRepository outboxRepository;
+  private final boolean enabled;
+  private final Duration retention;
+  private final int batchSize;
+  private final int maxBatchesPerRun;
+  private final long pauseMs;
+
+  private final Counter purged;
+  private final AtomicLong backlog = new AtomicLong();
+  private final AtomicLong oldestUnpublishedAgeSeconds = new AtomicLong();
+
+  public OutboxRetentionJob(
+      OutboxRepository outboxRepository,
+      MeterRegistry registry,
+      @Value("${booking.outbox.retention.enabled:true}") boolean enabled,
+      @Value("${booking.outbox.retention.hours:72}") long retentionHours,
+      @Value("${booking.outbox.retention.batch-size:1000}") int batchSize,
+      @Value("${booking.outbox.retention.max-batches-per-run:50}") int maxBatchesPerRun,
+      @Value("${booking.outbox.retention.pause-ms:100}") long pauseMs
+  ) {
+    this.outboxRepository = outboxRepository;
+    this.enabled = enabled;
+    this.retention = Duration.ofHours(Math.max(1, retentionHours));
+    this.batchSize = Math.max(1, batchSize);
+    this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+    this.pauseMs = Math.max(0, pauseMs);
+
+    this.purged = Counter.builder("booking.outbox.purged").register(registry);
+    Gauge.builder("booking.outbox.backlog", backlog, AtomicLong::get).register(registry);
+    Gauge.builder("booking.outbox.oldest.unpublished.age", oldestUnpublishedAgeSeconds, AtomicLong::get)
+        .baseUnit("seconds")
+        .register(registry);
+  }
+
+  /**
+   * Deletes published rows older than the retention, at most {@code max-batches-per-run} batches per run.
+   *
+   * @return rows deleted in this run
+   */
+  @Scheduled(fixedDelayString = "${booking.outbox.retention.interval-ms:60000}",
+      initialDelayString = "${booking.outbox.retention.initial-delay-ms:30000}")
+  public long purge() {
+    if (!enabled) {
+      return 0;
+    }
+    Instant cutoff = Instant.now().minus(retention);
+    long total = 0;
+    for (int i = 0; i < maxBatchesPerRun; i++) {
+      int deleted = outboxRepository.deletePublishedBefore(cutoff, batchSize);
+      total += deleted;
+      purged.increment(deleted);
+      if (deleted < batchSize) {
+        break;
+      }
+      if (pauseMs > 0) {
+        try {
+          Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+    }
+    if (total > 0) {
+      log.info("Purged {} published outbox messages older than {}", total, cutoff);
+    }
+    return total;
+  }
+
+  /**
+   * Refreshes the backlog gauges.
+   */
+  @Scheduled(fixedDelayString = "${booking.outbox.metrics.refresh-ms:15000}")
+  public void refreshBacklogMetrics() {
+    backlog.set(outboxRepository.countUnpublished());
+    Double age = outboxRepository.oldestUnpublishedAgeSeconds();
+    oldestUnpublishedAgeSeconds.set(age == null ? 0 : Math.max(0, age.longValue()));
+  }
+}
@@ -0,0 +1,332 @@
+package com.github.dimitryivaniuta.booking.projection;
+
+import com.github.dimitryivaniuta.booking.events.BookingCancelled;
+import com.github.dimitryivaniuta.booking.events.BookingConfirmed;
+import com.github.dimitryivaniuta.booking.events.BookingEvent;
+import com.github.dimitryivaniuta.booking.events.BookingExpired;
+import com.github.dimitryivaniuta.booking.events.BookingHeld;
+import com.github.dimitryivaniuta.booking.events.BookingHoldsExpired;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory read model of occupied stays per apartment, built from booking events.
+ *
+ * <p>Single writer (the projection consumer thread), many readers. Each apartment's stays are kept in an
+ * immutable array sorted by check-in, with a running maximum of check-out, and swapped on every change,
+ * so a reader answers "is this apartment occupied in [from, to)" with one binary search and no locks.</p>
+ *
+ * <p>Holds carry their deadline and stop counting once it has passed, like the database reads do, so an overdue
+ * hold does not block search while its {@link BookingExpired} is still on its way. They are kept apart from
+ * confirmed stays (an apartment has few at a time) and checked one by one.</p>
+ *
+ * <p>All updates are idempotent (events may be applied twice around a bootstrap or a redelivery).</p>
+ */
+public final class AvailabilityProjection {
+
+  /** Snapshot body format version. */
+  static final int FORMAT = 2;
+
+  private final Map<UUID, Stay> byBooking = new HashMap<>();
+  private final Map<UUID, Map<UUID, Stay>> stayIndex = new HashMap<>();
+  private final Map<UUID, Stays> byApartment = new ConcurrentHashMap<>();
+
+  /**
+   * Applies one event (writer thread only).
+   *
+   * @param event booking event
+   */
+  public void apply(BookingEvent event) {
+    switch (event) {
+      case BookingHeld e -> put(new Stay(e.bookingId(), e.apartmentId(),
+          e.startDate().toEpochDay(), e.endDate().toEpochDay(),
+          e.expiresAt() == null ? Stay.NO_EXPIRY : e.expiresAt().toEpochMilli()));
+      case BookingCancelled e -> remove(e.bookingId());
+      case BookingExpired e -> remove(e.bookingId());
+      case BookingHoldsExpired e -> e.bookingIds().forEach(this::remove);
+      case BookingConfirmed e -> confirm(e.bookingId());
+    }
+  }
+
+  /**
+   * Makes a held stay permanent (writer thread only).
+   *
+   * @param bookingId booking id
+   */
+  public void confirm(UUID bookingId) {
+    Stay stay = byBooking.get(bookingId);
+    if (stay != null && stay.expiresAtMillis() != Stay.NO_EXPIRY) {
+      put(new Stay(stay.bookingId(), stay.apartmentId(), stay.startDay(), stay.endDay(), Stay.NO_EXPIRY));
+    }
+  }
+
+  /**
+   * Adds or replaces an active stay (writer thread only).
+   *
+   * @param stay stay
+   */
+  public void put(Stay stay) {
+    Stay previous = byBooking.get(stay.bookingId());
+    if (stay.equals(previous)) {
+      return;
+    }
+    index(stay);
+    if (previous != null && !previous.apartmentId().equals(stay.apartmentId())) {
+      rebuild(previous.apartmentId());
+    }
+    rebuild(stay.apartmentId());
+  }
+
+  /**
+   * Removes a stay if present (writer thread only).
+   *
+   * @param bookingId booking id
+   */
+  public void remove(UUID bookingId) {
+    Stay removed = byBooking.remove(bookingId);
+    if (removed != null) {
+      unindex(removed);
+      rebuild(removed.apartmentId());
+    }
+  }
+
+  /**
+   * Drops stays that ended on or before the given day (writer thread only).
+   *
+   * @param day cutoff
+   */
+  public void pruneEndedBy(LocalDate day) {
+    long cutoff = day.toEpochDay();
+    Set<UUID> touched = new HashSet<>();
+    byBooking.values().removeIf(s -> {
+      if (s.endDay() <= cutoff) {
+        unindex(s);
+        touched.add(s.apartmentId());
+        return true;
+      }
+      return false;
+    });
+    touched.forEach(this::rebuild);
+  }
+
+  /**
+   * @param apartmentId apartment id
+   * @param from check-in (inclusive)
+   * @param to check-out (exclusive)
+   * @return true if the apartment has an active stay overlapping {@code [from, to)}
+   */
+  public boolean isOccupied(UUID apartmentId, LocalDate from, LocalDate to) {
+    return isOccupied(apartmentId, from, to, System.currentTimeMillis());
+  }
+
+  /**
+   * @param apartmentId apartment id
+   * @param from check-in (inclusive)
+   * @param to check-out (exclusive)
+   * @param nowMillis current time; holds with an earlier deadline are ignored
+   * @return true if the apartment has an active stay overlapping {@code [from, to)}
+   */
+  public boolean isOccupied(UUID apartmentId, LocalDate from, LocalDate to, long nowMillis) {
+    Stays stays = byApartment.get(apartmentId);
+    return stays != null && stays.overlaps(from.toEpochDay(), to.toEpochDay(), nowMillis);
+  }
+
+  /**
+   * @param from check-in (inclusive)
+   * @param to check-out (exclusive)
+   * @return apartments with an active stay overlapping {@code [from, to)}
+   */
+  public Set<UUID> occupied(LocalDate from, LocalDate to) {
+    return occupied(from, to, System.currentTimeMillis());
+  }
+
+  /**
+   * @param from check-in (inclusive)
+   * @param to check-out (exclusive)
+   * @param nowMillis current time; holds with an earlier deadline are ignored
+   * @return apartments with an active stay overlapping {@code [from, to)}
+   */
+  public Set<UUID> occupied(LocalDate from, LocalDate to, long nowMillis) {
+    long f = from.toEpochDay();
+    long t = to.toEpochDay();
+    Set<UUID> result = new HashSet<>();
+    byApartment.forEach((apartmentId, stays) -> {
+      if (stays.overlaps(f, t, nowMillis)) {
+        result.add(apartmentId);
+      }
+    });
+    return result;
+  }
+
+  /** @return number of active stays */
+  public int size() {
+    return byBooking.size();
+  }
+
+  /**
+   * Writes all stays (writer thread only).
+   *
+   * @param out stream
+   * @throws IOException on write failure
+   */
+  void writeTo(DataOutputStream out) throws IOException {
+    out.writeInt(byBooking.size());
+    for (Stay s : byBooking.values()) {
+      out.writeLong(s.bookingId().getMostSignificantBits());
+      out.writeLong(s.bookingId().getLeastSignificantBits());
+      out.writeLong(s.apartmentId().getMostSignificantBits());
+      out.writeLong(s.apartmentId().getLeastSignificantBits());
+      out.writeLong(s.startDay());
+      out.writeLong(s.endDay());
+      out.writeLong(s.expiresAtMillis());
+    }
+  }
+
+  /**
+   * Replaces the content with stays read by {@link #writeTo} (writer thread only).
+   *
+   * @param in stream
+   * @throws IOException on read failure
+   */
+  void readFrom(DataInputStream in) throws IOException {
+    clear();
+    int n = in.readInt();
+    for (int i = 0; i < n; i++) {
+      index(new Stay(new UUID(in.readLong(), in.readLong()), new UUID(in.readLong(), in.readLong()),
+          in.readLong(), in.readLong(), in.readLong()));
+    }
+    rebuildAll();
+  }
+
+  /**
+   * Replaces the content with the given stays (writer thread only).
+   *
+   * @param stays active stays
+   */
+  public void load(List<Stay> stays) {
+    clear();
+    for (Stay s : stays) {
+      index(s);
+    }
+    rebuildAll();
+  }
+
+  private void clear() {
+    byBooking.clear();
+    stayIndex.clear();
+    byApartment.clear();
+  }
+
+  private void index(Stay s) {
+    Stay previous = byBooking.put(s.bookingId(), s);
+    if (previous != null) {
+      unindex(previous);
+    }
+    stayIndex.computeIfAbsent(s.apartmentId(), k -> new HashMap<>()).put(s.bookingId(), s);
+  }
+
+  private void unindex(Stay s) {
+    Map<UUID, Stay> stays = stayIndex.get(s.apartmentId());
+    if (stays != null) {
+      stays.remove(s.bookingId());
+      if (stays.isEmpty()) {
+        stayIndex.remove(s.apartmentId());
+      }
+    }
+  }
+
+  private void rebuildAll() {
+    byApartment.clear();
+    stayIndex.forEach((apartmentId, stays) -> byApartment.put(apartmentId, Stays.of(stays.values())));
+  }
+
+  private void rebuild(UUID apartmentId) {
+    Map<UUID, Stay> stays = stayIndex.get(apartmentId);
+    if (stays == null || stays.isEmpty()) {
+      byApartment.remove(apartmentId);
+    } else {
+      byApartment.put(apartmentId, Stays.of(stays.values()));
+    }
+  }
+
+  /**
+   * An active booking's stay, as epoch days ({@code [startDay, endDay)}).
+   *
+   * @param bookingId booking id
+   * @param apartmentId apartment id
+   * @param startDay check-in epoch day
+   * @param endDay check-out epoch day (exclusive)
+   * @param expiresAtMillis hold deadline (epoch ms); {@link #NO_EXPIRY} once confirmed
+   */
+  public record Stay(UUID bookingId, UUID apartmentId, long startDay, long endDay, long expiresAtMillis) {
+
+    /** Deadline of a stay that does not expire. */
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    /** @return true while the stay blocks its dates (an unexpired hold or a confirmed booking) */
+    boolean liveAt(long nowMillis) {
+      return expiresAtMillis >= nowMillis;
+    }
+  }
+
+  /**
+   * Immutable stays of one apartment: confirmed stays sorted by check-in with a running maximum check-out,
+   * plus the holds, which are only counted until their deadline.
+   */
+  private record Stays(long[] starts, long[] maxEnds, Stay[] holds) {
+
+    private static final Stay[] NO_HOLDS = new Stay[0];
+
+    static Stays of(Collection<Stay> list) {
+      List<Stay> firm = new ArrayList<>(list.size());
+      List<Stay> holds = new ArrayList<>();
+      for (Stay s : list) {
+        (s.expiresAtMillis() == Stay.NO_EXPIRY ? firm : holds).add(s);
+      }
+      firm.sort(Comparator.comparingLong(Stay::startDay));
+      long[] starts = new long[firm.size()];
+      long[] maxEnds = new long[firm.size()];
+      long max = Long.MIN_VALUE;
+      for (int i = 0; i < starts.length; i++) {
+        starts[i] = firm.get(i).startDay();
+        max = Math.max(max, firm.get(i).endDay());
+        maxEnds[i] = max;
+      }
+      return new Stays(starts, maxEnds, holds.isEmpty() ? NO_HOLDS : holds.toArray(Stay[]::new));
+    }
+
+    /** Some confirmed stay, or hold live at {@code nowMillis}, with {@code start < to} has {@code end > from}. */
+    boolean overlaps(long from, long to, long nowMillis) {
+      for (Stay h : holds) {
+        if (h.startDay() < to && h.endDay() > from && h.liveAt(nowMillis)) {
+          return true;
+        }
+      }
+      int lo = 0;
+      int hi = starts.length - 1;
+      int last = -1;
+      while (lo <= hi) {
+        int mid = (lo + hi) >>> 1;
+        if (starts[mid] < to) {
+          last = mid;
+          lo = mid + 1;
+        } else {
+          hi = mid - 1;
+        }
+      }
+      return last >= 0 && maxEnds[last] > from;
+    }
+  }
+}
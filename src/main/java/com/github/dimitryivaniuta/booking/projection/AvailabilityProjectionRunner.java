@@ -0,0 +1,273 @@
+package com.github.dimitryivaniuta.booking.projection;
+
+import com.github.dimitryivaniuta.booking.domain.Booking;
+import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import com.github.dimitryivaniuta.booking.events.EventEncoder;
+import com.github.dimitryivaniuta.booking.repo.BookingRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Properties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps this node's {@link AvailabilityProjection} up to date from the booking events topic.
+ *
+ * <p>Every node reads all partitions itself (manual assignment, no consumer group, no offset commits):
+ * the projection is a local cache, not shared work. Startup restores the latest on-disk snapshot (stays plus
+ * the offsets they reflect) and resumes from those offsets. Without a usable snapshot it captures the end
+ * offsets first, then loads active bookings from Postgres, then consumes from the captured offsets; events
+ * that overlap the load are applied twice, which is harmless because updates are idempotent.</p>
+ *
+ * <p>Staleness bound: every event published before the last poll that left all partitions at zero lag is
+ * applied. {@link #stalenessMillis()} is the time since that poll ({@link Long#MAX_VALUE} until first
+ * caught up), exported as {@code booking.availability.projection.staleness}.</p>
+ *
+ * <p>The consumer thread is the projection's only writer; it also writes snapshots, so a snapshot's stays and
+ * offsets are always consistent.</p>
+ */
+@Slf4j
+@Component
+public class AvailabilityProjectionRunner {
+
+  private static final String SNAPSHOT_FILE = "availability.snapshot";
+
+  private final AvailabilityProjection projection = new AvailabilityProjection();
+  private final ConsumerFactory<Object, Object> consumerFactory;
+  private final BookingRepository bookingRepository;
+  private final EventEncoder eventEncoder;
+  private final boolean enabled;
+  private final String topic;
+  private final Path snapshotDir;
+  private final long snapshotIntervalMs;
+
+  private volatile boolean running;
+  private volatile long caughtUpAtMillis;
+  private Thread thread;
+
+  public AvailabilityProjectionRunner(
+      ConsumerFactory<Object, Object> consumerFactory,
+      BookingRepository bookingRepository,
+      EventEncoder eventEncoder,
+      MeterRegistry registry,
+      @Value("${booking.availability.mode:db}") String mode,
+      @Value("${booking.outbox.topic:booking-events}") String topic,
+      @Value("${booking.availability.projection.snapshot-dir:./data/projection}") String snapshotDir,
+      @Value("${booking.availability.projection.snapshot-interval-ms:60000}") long snapshotIntervalMs
+  ) {
+    this.consumerFactory = consumerFactory;
+    this.bookingRepository = bookingRepository;
+    this.eventEncoder = eventEncoder;
+    this.enabled = "projection".equalsIgnoreCase(mode);
+    this.topic = topic;
+    this.snapshotDir = Path.of(snapshotDir);
+    this.snapshotIntervalMs = Math.max(1000, snapshotIntervalMs);
+    Gauge.builder("booking.availability.projection.staleness", this, r -> r.stalenessMillis() / 1000.0)
+        .baseUnit("seconds")
+        .register(registry);
+    Gauge.builder("booking.availability.projection.stays", projection, AvailabilityProjection::size)
+        .register(registry);
+  }
+
+  /** @return the projection (readable from any thread) */
+  public AvailabilityProjection projection() {
+    return projection;
+  }
+
+  /** @return milliseconds since the projection was last fully caught up; {@link Long#MAX_VALUE} if never */
+  public long stalenessMillis() {
+    long at = caughtUpAtMillis;
+    return at == 0 ? Long.MAX_VALUE : Math.max(0, System.currentTimeMillis() - at);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled || running) {
+      return;
+    }
+    running = true;
+    thread = new Thread(this::run, "availability-projection");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @PreDestroy
+  void stop() {
+    running = false;
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  private void run() {
+    while (running) {
+      try (Consumer<Object, Object> consumer = consumerFactory.createConsumer(null, "availability-projection", null,
+          consumerOverrides())) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (PartitionInfo p : consumer.partitionsFor(topic)) {
+          partitions.add(new TopicPartition(topic, p.partition()));
+        }
+        consumer.assign(partitions);
+        bootstrap(consumer, partitions);
+        consume(consumer, partitions);
+      } catch (Exception e) {
+        caughtUpAtMillis = 0;
+        if (running) {
+          log.warn("Availability projection consumer failed, restarting in 5 s: {}", e.toString());
+          sleepQuietly(5000);
+        }
+      }
+    }
+  }
+
+  private void bootstrap(Consumer<Object, Object> consumer, List<TopicPartition> partitions) {
+    Map<TopicPartition, Long> offsets = readSnapshot();
+    if (offsets != null) {
+      Map<TopicPartition, Long> earliest = consumer.beginningOffsets(partitions);
+      boolean usable = offsets.keySet().containsAll(partitions);
+      for (TopicPartition tp : partitions) {
+        usable &= usable && offsets.get(tp) >= earliest.get(tp);
+      }
+      if (usable) {
+        partitions.forEach(tp -> consumer.seek(tp, offsets.get(tp)));
+        log.info("Availability projection restored {} stays from snapshot", projection.size());
+        return;
+      }
+      log.info("Availability projection snapshot is behind topic retention; rebuilding from the database");
+    }
+    // Capture positions before reading the table so that no event can fall between the two.
+    Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+    List<AvailabilityProjection.Stay> stays = new ArrayList<>();
+    for (Booking b : bookingRepository.findActiveEndingAfter(LocalDate.now().minusDays(1))) {
+      stays.add(new AvailabilityProjection.Stay(b.getId(), b.getApartmentId(),
+          b.getStartDate().toEpochDay(), b.getEndDate().toEpochDay(),
+          b.getStatus() == BookingStatus.HOLD && b.getExpiresAt() != null
+              ? b.getExpiresAt().toEpochMilli()
+              : AvailabilityProjection.Stay.NO_EXPIRY));
+    }
+    projection.load(stays);
+    partitions.forEach(tp -> consumer.seek(tp, end.get(tp)));
+    log.info("Availability projection loaded {} active stays from the database", stays.size());
+  }
+
+  private void consume(Consumer<Object, Object> consumer, List<TopicPartition> partitions) {
+    long lastSnapshot = System.currentTimeMillis();
+    while (running) {
+      long pollStartedAt = System.currentTimeMillis();
+      ConsumerRecords<Object, Object> records = consumer.poll(Duration.ofMillis(500));
+      for (ConsumerRecord<Object, Object> r : records) {
+        try {
+          projection.apply(eventEncoder.decode(r.headers(), (byte[]) r.value()));
+        } catch (IllegalArgumentException e) {
+          log.debug("Projection skips {}-{}@{}: {}", r.topic(), r.partition(), r.offset(), e.getMessage());
+        }
+      }
+      if (caughtUp(consumer, partitions)) {
+        caughtUpAtMillis = pollStartedAt;
+      }
+      if (pollStartedAt - lastSnapshot >= snapshotIntervalMs) {
+        projection.pruneEndedBy(LocalDate.now().minusDays(1));
+        writeSnapshot(consumer, partitions);
+        lastSnapshot = pollStartedAt;
+      }
+    }
+  }
+
+  private static boolean caughtUp(Consumer<?, ?> consumer, List<TopicPartition> partitions) {
+    for (TopicPartition tp : partitions) {
+      OptionalLong lag = consumer.currentLag(tp);
+      if (lag.isEmpty() || lag.getAsLong() > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Map<TopicPartition, Long> readSnapshot() {
+    Path file = snapshotDir.resolve(SNAPSHOT_FILE);
+    if (!Files.exists(file)) {
+      return null;
+    }
+    try (InputStream raw = Files.newInputStream(file);
+         DataInputStream in = new DataInputStream(new BufferedInputStream(raw))) {
+      if (in.readInt() != AvailabilityProjection.FORMAT || !topic.equals(in.readUTF())) {
+        return null;
+      }
+      Map<TopicPartition, Long> offsets = new HashMap<>();
+      int n = in.readInt();
+      for (int i = 0; i < n; i++) {
+        offsets.put(new TopicPartition(topic, in.readInt()), in.readLong());
+      }
+      projection.readFrom(in);
+      return offsets;
+    } catch (IOException e) {
+      log.warn("Ignoring unreadable availability snapshot {}: {}", file, e.toString());
+      return null;
+    }
+  }
+
+  private void writeSnapshot(Consumer<?, ?> consumer, List<TopicPartition> partitions) {
+    try {
+      Files.createDirectories(snapshotDir);
+      Path tmp = snapshotDir.resolve(SNAPSHOT_FILE + ".tmp");
+      try (OutputStream raw = Files.newOutputStream(tmp);
+           DataOutputStream out = new DataOutputStream(new BufferedOutputStream(raw))) {
+        out.writeInt(AvailabilityProjection.FORMAT);
+        out.writeUTF(topic);
+        out.writeInt(partitions.size());
+        for (TopicPartition tp : partitions) {
+          out.writeInt(tp.partition());
+          out.writeLong(consumer.position(tp));
+        }
+        projection.writeTo(out);
+      }
+      Files.move(tmp, snapshotDir.resolve(SNAPSHOT_FILE),
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      log.warn("Failed to write availability snapshot: {}", e.toString());
+    }
+  }
+
+  private static Properties consumerOverrides() {
+    Properties props = new Properties();
+    props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+    props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+    return props;
+  }
+
+  private static void sleepQuietly(long ms) {
+    try {
+      Thread.sleep(ms);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
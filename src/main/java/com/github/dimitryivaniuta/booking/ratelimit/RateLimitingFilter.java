@@ -1,6 +1,7 @@
 package com.github.dimitryivaniuta.booking.ratelimit;
 
 import com.github.dimitryivaniuta.booking.config.CorrelationIdFilter;
+import com.github.dimitryivaniuta.booking.security.AuthenticatedUser;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,7 +20,6 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -61,8 +61,8 @@ public class RateLimitingFilter extends OncePerRequestFilter {
 
     String clientId = null;
     Authentication a = SecurityContextHolder.getContext().getAuthentication();
-    if (a != null && a.getPrincipal() instanceof Jwt jwt) {
-      clientId = "u:" + jwt.getSubject();
+    if (a != null && a.getPrincipal() instanceof AuthenticatedUser user) {
+      clientId = "u:" + user.userId();
     }
     if (clientId == null) {
       clientId = request.getHeader("X-Client-Id");
@@ -0,0 +1,27 @@
+package com.github.dimitryivaniuta.booking.repo;
+
+import com.github.dimitryivaniuta.booking.domain.ApartmentRate;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository for {@link ApartmentRate}.
+ */
+public interface ApartmentRateRepository extends JpaRepository<ApartmentRate, UUID> {
+
+  List<ApartmentRate> findAllByApartmentId(UUID apartmentId);
+
+  /**
+   * Removes all seasonal rates of an apartment (must run inside a transaction).
+   *
+   * @param apartmentId apartment id
+   * @return number of rows deleted
+   */
+  @Modifying
+  @Query("delete from ApartmentRate r where r.apartmentId = :apartmentId")
+  int deleteAllByApartmentIdInBulk(@Param("apartmentId") UUID apartmentId);
+}
@@ -2,7 +2,9 @@ package com.github.dimitryivaniuta.booking.repo;
 
 import com.github.dimitryivaniuta.booking.domain.Apartment;
 import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -15,16 +17,46 @@ import org.springframework.data.domain.Pageable;
  */
 public interface ApartmentRepository extends JpaRepository<Apartment, UUID> {
 
+  /** Haversine distance in meters from ({@code :lat}, {@code :lon}) to the apartment. */
+  String GEO_DISTANCE = """
+      (12742000 * asin(least(1, sqrt(
+        power(sin(radians(a.latitude - :lat) / 2), 2)
+        + cos(radians(:lat)) * cos(radians(a.latitude)) * power(sin(radians(a.longitude - :lon) / 2), 2)))))
+      """;
+
+  /** Body of {@link #searchAvailableInArea} (shared with its count query). */
+  String GEO_SEARCH = """
+      select a.* from apartments a
+      where a.latitude is not null
+        and point(a.longitude, a.latitude) <@ box(point(:minLon, :minLat), point(:maxLon, :maxLat))
+        and a.capacity >= :minCapacity
+        and (:radiusMeters <= 0 or
+      """ + GEO_DISTANCE + """
+        <= :radiusMeters)
+        and not exists (
+          select 1 from bookings b
+          where b.apartment_id = a.id
+            and b.status not in ('CANCELLED', 'EXPIRED')
+            and (b.status <> 'HOLD' or b.expires_at is null or b.expires_at >= :now)
+            and b.stay && daterange(:from, :to, '[)')
+        )
+      """;
+
   /**
    * Searches apartments by city/capacity and filters out those that have overlapping active bookings.
    *
    * <p>Overlap condition matches the DB exclusion constraint semantics: two intervals overlap if
-   * {@code startDate < to && endDate > from} (with end being exclusive).
+   * {@code startDate < to && endDate > from} (with end being exclusive). Holds past their expiry time count
+   * as free even if the expiry job has not processed them yet.
    *
    * @param city city (case-insensitive); nullable
    * @param minCapacity minimum capacity; nullable
    * @param from check-in (inclusive)
    * @param to check-out (exclusive)
+   * @param cancelled status CANCELLED
+   * @param expired status EXPIRED
+   * @param hold status HOLD
+   * @param now current time (holds expiring before it are ignored)
    * @param pageable paging
    * @return page of apartments available in the given window
    */
@@ -36,6 +68,7 @@ public interface ApartmentRepository extends JpaRepository<Apartment, UUID> {
           select 1 from Booking b
           where b.apartmentId = a.id
             and b.status not in (:cancelled, :expired)
+            and (b.status <> :hold or b.expiresAt is null or b.expiresAt >= :now)
             and b.startDate < :to
             and b.endDate > :from
         )
@@ -47,6 +80,112 @@ public interface ApartmentRepository extends JpaRepository<Apartment, UUID> {
       @Param("to") LocalDate to,
       @Param("cancelled") BookingStatus cancelled,
       @Param("expired") BookingStatus expired,
+      @Param("hold") BookingStatus hold,
+      @Param("now") Instant now,
+      Pageable pageable
+  );
+
+  /**
+   * Filters pre-selected candidate apartments (see {@code ApartmentCatalog#candidates}) down to those without
+   * overlapping active bookings; same overlap and expiry semantics as {@link #searchAvailable}.
+   *
+   * @param ids candidate apartment ids; must not be empty
+   * @param from check-in (inclusive)
+   * @param to check-out (exclusive)
+   * @param cancelled status CANCELLED
+   * @param expired status EXPIRED
+   * @param hold status HOLD
+   * @param now current time (holds expiring before it are ignored)
+   * @param pageable paging
+   * @return page of candidate apartments available in the given window
+   */
+  @Query("""
+      select a from Apartment a
+      where a.id in :ids
+        and not exists (
+          select 1 from Booking b
+          where b.apartmentId = a.id
+            and b.status not in (:cancelled, :expired)
+            and (b.status <> :hold or b.expiresAt is null or b.expiresAt >= :now)
+            and b.startDate < :to
+            and b.endDate > :from
+        )
+      """)
+  Page<Apartment> searchAvailableAmong(
+      @Param("ids") Collection<UUID> ids,
+      @Param("from") LocalDate from,
+      @Param("to") LocalDate to,
+      @Param("cancelled") BookingStatus cancelled,
+      @Param("expired") BookingStatus expired,
+      @Param("hold") BookingStatus hold,
+      @Param("now") Instant now,
+      Pageable pageable
+  );
+
+  /**
+   * Geo availability search: located apartments inside a box (and, for a radius search, within
+   * {@code radiusMeters} of the center), without overlapping active bookings.
+   *
+   * <p>One plan: the box predicate is served by the GiST index {@code idx_apartments_location}, the overlap
+   * check by the bookings exclusion constraint's GiST index. For a plain box pass {@code radiusMeters = 0}; results
+   * are then ordered by id, otherwise nearest first. Overlap and expiry semantics match {@link #searchAvailable}.</p>
+   *
+   * @param minLat southern edge (degrees)
+   * @param minLon western edge (degrees)
+   * @param maxLat northern edge (degrees)
+   * @param maxLon eastern edge (degrees)
+   * @param lat circle center latitude (ignored for a box)
+   * @param lon circle center longitude (ignored for a box)
+   * @param radiusMeters circle radius; 0 for a plain box
+   * @param minCapacity minimum capacity (0 for any)
+   * @param from check-in (inclusive)
+   * @param to check-out (exclusive)
+   * @param now current time (holds expiring before it are ignored)
+   * @param pageable paging (unsorted)
+   * @return page of available apartments in the area
+   */
+  @Query(value = GEO_SEARCH + """
+      order by case when :radiusMeters > 0 then
+      """ + GEO_DISTANCE + """
+        else 0 end, a.id
+      """, countQuery = "select count(*) from (" + GEO_SEARCH + ") c", nativeQuery = true)
+  Page<Apartment> searchAvailableInArea(
+      @Param("minLat") double minLat,
+      @Param("minLon") double minLon,
+      @Param("maxLat") double maxLat,
+      @Param("maxLon") double maxLon,
+      @Param("lat") double lat,
+      @Param("lon") double lon,
+      @Param("radiusMeters") double radiusMeters,
+      @Param("minCapacity") int minCapacity,
+      @Param("from") LocalDate from,
+      @Param("to") LocalDate to,
+      @Param("now") Instant now,
+      Pageable pageable
+  );
+
+  /**
+   * Searches apartments by city/capacity, skipping the given (already known to be occupied) apartments.
+   *
+   * <p>Used when availability is answered from the booking events projection instead of the
+   * {@code bookings} table.</p>
+   *
+   * @param city city (case-insensitive); nullable
+   * @param minCapacity minimum capacity; nullable
+   * @param excluded apartment ids to skip; must not be empty
+   * @param pageable paging
+   * @return page of apartments not in {@code excluded}
+   */
+  @Query("""
+      select a from Apartment a
+      where (:city is null or lower(a.city) = lower(:city))
+        and (:minCapacity is null or a.capacity >= :minCapacity)
+        and a.id not in :excluded
+      """)
+  Page<Apartment> searchExcluding(
+      @Param("city") String city,
+      @Param("minCapacity") Integer minCapacity,
+      @Param("excluded") Collection<UUID> excluded,
       Pageable pageable
   );
 }
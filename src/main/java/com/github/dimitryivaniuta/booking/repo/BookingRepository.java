@@ -2,28 +2,38 @@ package com.github.dimitryivaniuta.booking.repo;
 
 import com.github.dimitryivaniuta.booking.domain.Booking;
 import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import jakarta.persistence.QueryHint;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository for {@link Booking}.
  */
 public interface BookingRepository extends JpaRepository<Booking, UUID> {
 
+  /** Rows per round trip of the {@link #streamForExport} cursor. */
+  String EXPORT_FETCH_SIZE = "1000";
+
   /**
    * Checks if there is any non-cancelled/non-expired booking that overlaps with the given period.
    *
+   * <p>Holds past their expiry time count as free even if the expiry job has not processed them yet.</p>
+   *
    * @param apartmentId apartment id
    * @param from start (inclusive)
    * @param to end (exclusive)
+   * @param now current time
    * @return true if overlapping bookings exist
    */
   @Query("""
@@ -31,12 +41,15 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
       where b.apartmentId = :apartmentId
         and b.status <> com.github.dimitryivaniuta.booking.domain.BookingStatus.CANCELLED
         and b.status <> com.github.dimitryivaniuta.booking.domain.BookingStatus.EXPIRED
+        and (b.status <> com.github.dimitryivaniuta.booking.domain.BookingStatus.HOLD
+          or b.expiresAt is null or b.expiresAt >= :now)
         and b.startDate < :to
         and b.endDate > :from
       """)
   boolean existsOverlap(@Param("apartmentId") UUID apartmentId,
                         @Param("from") LocalDate from,
-                        @Param("to") LocalDate to);
+                        @Param("to") LocalDate to,
+                        @Param("now") Instant now);
 
   /**
    * Finds expired holds at a given instant.
@@ -60,20 +73,204 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
   Optional<Booking> findByIdAndStatus(UUID id, BookingStatus status);
 
   /**
-   * Bulk update to expire holds.
+   * Expires one chunk of overdue holds.
+   *
+   * <p>Locks at most {@code limit} overdue holds, oldest deadline first, with {@code FOR UPDATE SKIP LOCKED},
+   * so the statement stays short and never waits on rows a concurrent confirm/cancel (or another expiry run)
+   * holds. Must run inside a transaction.</p>
    *
    * @param now current time
-   * @return number of rows updated
+   * @param limit maximum holds to expire
+   * @return the bookings moved to EXPIRED
+   */
+  @Query(value = """
+      update bookings set status = 'EXPIRED', updated_at = :now
+      where id in (
+        select id from bookings
+        where status = 'HOLD' and expires_at is not null and expires_at < :now
+        order by expires_at
+        limit :limit
+        for update skip locked
+      )
+      returning id, apartment_id as apartmentId, user_id as userId, start_date as startDate, end_date as endDate
+      """, nativeQuery = true)
+  List<ExpiredHold> expireHoldsChunk(@Param("now") Instant now, @Param("limit") int limit);
+
+  /**
+   * Expires the given holds if they are still holds and past their expiry time.
+   *
+   * <p>Targeted variant of {@link #expireHoldsChunk} for the timing-wheel expiry; ids that were confirmed,
+   * cancelled or are locked by a concurrent writer are left alone. Must run inside a transaction.</p>
+   *
+   * @param ids candidate booking ids
+   * @param now current time
+   * @return the bookings moved to EXPIRED
+   */
+  @Query(value = """
+      update bookings set status = 'EXPIRED', updated_at = :now
+      where id in (
+        select id from bookings
+        where id in (:ids) and status = 'HOLD' and expires_at is not null and expires_at < :now
+        for update skip locked
+      )
+      returning id, apartment_id as apartmentId, user_id as userId, start_date as startDate, end_date as endDate
+      """, nativeQuery = true)
+  List<ExpiredHold> expireHoldsByIds(@Param("ids") Collection<UUID> ids, @Param("now") Instant now);
+
+  /**
+   * Expires the holds on an apartment that overlap the given period and are past their expiry time.
+   *
+   * <p>Makes room for a new hold that hit the exclusion constraint because of holds the expiry job has not
+   * processed yet (served by the constraint's GiST index). Must run inside a transaction.</p>
+   *
+   * @param apartmentId apartment id
+   * @param from start (inclusive)
+   * @param to end (exclusive)
+   * @param now current time
+   * @return the bookings moved to EXPIRED
+   */
+  @Query(value = """
+      update bookings set status = 'EXPIRED', updated_at = :now
+      where apartment_id = :apartmentId
+        and stay && daterange(:from, :to, '[)')
+        and status = 'HOLD' and expires_at is not null and expires_at < :now
+      returning id, apartment_id as apartmentId, user_id as userId, start_date as startDate, end_date as endDate
+      """, nativeQuery = true)
+  List<ExpiredHold> expireStaleOverlapping(@Param("apartmentId") UUID apartmentId,
+                                           @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to,
+                                           @Param("now") Instant now);
+
+  /**
+   * Lists holds expiring in {@code [from, until)} (one range scan of {@code idx_bookings_hold_expires_at}).
+   *
+   * @param from lower bound (inclusive)
+   * @param until upper bound (exclusive)
+   * @return hold ids with their expiry time
    */
-  @Transactional
-  @Modifying
   @Query("""
-      update Booking b
-      set b.status = com.github.dimitryivaniuta.booking.domain.BookingStatus.EXPIRED,
-          b.updatedAt = :now
+      select b.id as id, b.expiresAt as expiresAt from Booking b
       where b.status = com.github.dimitryivaniuta.booking.domain.BookingStatus.HOLD
-        and b.expiresAt is not null
-        and b.expiresAt < :now
+        and b.expiresAt >= :from and b.expiresAt < :until
+      """)
+  List<HoldDeadline> findHoldDeadlinesBetween(@Param("from") Instant from, @Param("until") Instant until);
+
+  /**
+   * Loads all active (non-cancelled, non-expired) bookings ending after the given date.
+   *
+   * @param from earliest check-out date of interest
+   * @return active bookings
+   */
+  @Query("""
+      select b from Booking b
+      where b.status <> com.github.dimitryivaniuta.booking.domain.BookingStatus.CANCELLED
+        and b.status <> com.github.dimitryivaniuta.booking.domain.BookingStatus.EXPIRED
+        and b.endDate > :from
       """)
-  int expireHolds(@Param("now") Instant now);
+  List<Booking> findActiveEndingAfter(@Param("from") LocalDate from);
+
+  /**
+   * Streams bookings for export, oldest first, through a server-side cursor.
+   *
+   * <p>Rows are fetched {@value #EXPORT_FETCH_SIZE} at a time (the Postgres driver only uses a cursor inside a
+   * transaction) and loaded read-only, so no dirty-checking snapshots are kept. The caller must close the stream
+   * and detach the entities it has consumed to keep memory constant.</p>
+   *
+   * @param from stays ending after this date; nullable
+   * @param to stays starting before this date; nullable
+   * @param status status; nullable for any
+   * @param apartmentId apartment id; nullable for any
+   * @return forward-only stream of bookings
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+  })
+  @Query("""
+      select b from Booking b
+      where (:from is null or b.endDate > :from)
+        and (:to is null or b.startDate < :to)
+        and (:status is null or b.status = :status)
+        and (:apartmentId is null or b.apartmentId = :apartmentId)
+      order by b.createdAt, b.id
+      """)
+  Stream<Booking> streamForExport(@Param("from") LocalDate from,
+                                  @Param("to") LocalDate to,
+                                  @Param("status") BookingStatus status,
+                                  @Param("apartmentId") UUID apartmentId);
+
+  /**
+   * First page of a user's bookings, newest first.
+   *
+   * <p>Served by {@code idx_bookings_user_created}; pass {@code PageRequest.of(0, n)} to limit without a count
+   * query.</p>
+   *
+   * @param userId user id
+   * @param status status; nullable for any
+   * @param pageable limit
+   * @return bookings
+   */
+  @Query("""
+      select new com.github.dimitryivaniuta.booking.repo.BookingSummary(
+        b.id, b.apartmentId, b.userId, b.startDate, b.endDate, b.status, b.expiresAt, b.createdAt, b.updatedAt)
+      from Booking b
+      where b.userId = :userId
+        and (:status is null or b.status = :status)
+      order by b.createdAt desc, b.id
+      """)
+  List<BookingSummary> findFirstPageForUser(@Param("userId") UUID userId,
+                                            @Param("status") BookingStatus status,
+                                            Pageable pageable);
+
+  /**
+   * Next page of a user's bookings after the keyset position {@code (createdAt, id)} of the previous page's last row.
+   *
+   * <p>The redundant {@code createdAt <= :createdAt} bounds the index range scan; the second predicate breaks ties
+   * in the same order as the index ({@code id} ascending).</p>
+   *
+   * @param userId user id
+   * @param status status; nullable for any
+   * @param createdAt created at of the last row seen
+   * @param id id of the last row seen
+   * @param pageable limit
+   * @return bookings
+   */
+  @Query("""
+      select new com.github.dimitryivaniuta.booking.repo.BookingSummary(
+        b.id, b.apartmentId, b.userId, b.startDate, b.endDate, b.status, b.expiresAt, b.createdAt, b.updatedAt)
+      from Booking b
+      where b.userId = :userId
+        and (:status is null or b.status = :status)
+        and b.createdAt <= :createdAt
+        and (b.createdAt < :createdAt or b.id > :id)
+      order by b.createdAt desc, b.id
+      """)
+  List<BookingSummary> findPageForUserAfter(@Param("userId") UUID userId,
+                                            @Param("status") BookingStatus status,
+                                            @Param("createdAt") Instant createdAt,
+                                            @Param("id") UUID id,
+                                            Pageable pageable);
+
+  /** A hold moved to EXPIRED. */
+  interface ExpiredHold {
+
+    UUID getId();
+
+    UUID getApartmentId();
+
+    UUID getUserId();
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+  }
+
+  /** Id and expiry time of a hold. */
+  interface HoldDeadline {
+
+    UUID getId();
+
+    Instant getExpiresAt();
+  }
 }
@@ -0,0 +1,34 @@
+package com.github.dimitryivaniuta.booking.repo;
+
+import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Read-only booking row for listings.
+ *
+ * <p>Built by a JPQL constructor expression, so Hibernate neither manages the rows nor keeps dirty-checking
+ * snapshots of them.</p>
+ *
+ * @param id booking id
+ * @param apartmentId apartment id
+ * @param userId user id
+ * @param startDate check-in
+ * @param endDate check-out
+ * @param status status
+ * @param expiresAt hold expiry (null for non-holds)
+ * @param createdAt created at
+ * @param updatedAt updated at
+ */
+public record BookingSummary(
+    UUID id,
+    UUID apartmentId,
+    UUID userId,
+    LocalDate startDate,
+    LocalDate endDate,
+    BookingStatus status,
+    Instant expiresAt,
+    Instant createdAt,
+    Instant updatedAt
+) {}
@@ -1,19 +1,66 @@
 package com.github.dimitryivaniuta.booking.security;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
 /**
  * Authenticated user principal extracted from a validated JWT.
  *
+ * <p>Built once per request by {@link UserAuthenticationConverter}; roles known to the application are
+ * packed into a bitmask so ownership/admin checks never touch a collection.</p>
+ *
  * @param userId user id
  * @param email email
- * @param roles role names (e.g. USER, ADMIN)
+ * @param roleMask bitmask of {@link #ROLE_USER} / {@link #ROLE_ADMIN}
  */
-public record AuthenticatedUser(UUID userId, String email, Set<String> roles) {
+public record AuthenticatedUser(UUID userId, String email, int roleMask) {
+
+  /** Bit for the USER role. */
+  public static final int ROLE_USER = 1;
+
+  /** Bit for the ADMIN role. */
+  public static final int ROLE_ADMIN = 1 << 1;
+
+  /**
+   * @param role role name (e.g. USER, ADMIN)
+   * @return role bit, or 0 for roles the application does not model
+   */
+  public static int roleBit(String role) {
+    if (role == null) {
+      return 0;
+    }
+    return switch (role) {
+      case "USER" -> ROLE_USER;
+      case "ADMIN" -> ROLE_ADMIN;
+      default -> 0;
+    };
+  }
+
+  /**
+   * @param role role name
+   * @return true if user has the role
+   */
+  public boolean hasRole(String role) {
+    int bit = roleBit(role);
+    return bit != 0 && (roleMask & bit) != 0;
+  }
 
   /** @return true if user has ADMIN role. */
   public boolean isAdmin() {
-    return roles != null && roles.contains("ADMIN");
+    return (roleMask & ROLE_ADMIN) != 0;
+  }
+
+  /** @return role names decoded from the mask (allocates; not for the hot path). */
+  public Set<String> roles() {
+    List<String> names = new ArrayList<>(2);
+    if ((roleMask & ROLE_USER) != 0) {
+      names.add("USER");
+    }
+    if ((roleMask & ROLE_ADMIN) != 0) {
+      names.add("ADMIN");
+    }
+    return Set.copyOf(names);
   }
 }
@@ -0,0 +1,33 @@
+package com.github.dimitryivaniuta.booking.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link AuthenticatedUser} controller parameters from the current {@link UserAuthenticationToken}.
+ *
+ * <p>Resolves to {@code null} for anonymous requests; services treat a null user as "not authenticated".</p>
+ */
+public class AuthenticatedUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+  @Override
+  public boolean supportsParameter(MethodParameter parameter) {
+    return AuthenticatedUser.class.equals(parameter.getParameterType());
+  }
+
+  @Override
+  public AuthenticatedUser resolveArgument(
+      MethodParameter parameter,
+      ModelAndViewContainer mavContainer,
+      NativeWebRequest webRequest,
+      WebDataBinderFactory binderFactory
+  ) {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    return auth instanceof UserAuthenticationToken token ? token.getPrincipal() : null;
+  }
+}
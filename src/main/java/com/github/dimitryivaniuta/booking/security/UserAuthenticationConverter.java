@@ -0,0 +1,75 @@
+package com.github.dimitryivaniuta.booking.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+
+/**
+ * Converts a validated JWT into a {@link UserAuthenticationToken}.
+ *
+ * <p>Walks the {@code roles} claim exactly once to build both the granted authorities and the
+ * {@link AuthenticatedUser} role bitmask. Authorities for known roles are shared constants.</p>
+ */
+public class UserAuthenticationConverter implements Converter<Jwt, UserAuthenticationToken> {
+
+  private static final GrantedAuthority ROLE_USER = new SimpleGrantedAuthority("ROLE_USER");
+  private static final GrantedAuthority ROLE_ADMIN = new SimpleGrantedAuthority("ROLE_ADMIN");
+
+  private static final List<GrantedAuthority> USER_ONLY = List.of(ROLE_USER);
+  private static final List<GrantedAuthority> USER_AND_ADMIN = List.of(ROLE_USER, ROLE_ADMIN);
+  private static final List<GrantedAuthority> ADMIN_ONLY = List.of(ROLE_ADMIN);
+
+  @Override
+  public UserAuthenticationToken convert(Jwt jwt) {
+    UUID userId;
+    try {
+      userId = UUID.fromString(jwt.getSubject());
+    } catch (RuntimeException e) {
+      throw new InvalidBearerTokenException("Token subject is not a user id.");
+    }
+
+    int mask = 0;
+    List<GrantedAuthority> extra = null;
+    Object raw = jwt.getClaims().get("roles");
+    if (raw instanceof List<?> list) {
+      for (Object o : list) {
+        if (o == null) {
+          continue;
+        }
+        String role = o.toString();
+        int bit = AuthenticatedUser.roleBit(role);
+        if (bit != 0) {
+          mask |= bit;
+        } else {
+          if (extra == null) {
+            extra = new ArrayList<>(2);
+          }
+          extra.add(new SimpleGrantedAuthority("ROLE_" + role));
+        }
+      }
+    }
+
+    AuthenticatedUser user = new AuthenticatedUser(userId, jwt.getClaimAsString("email"), mask);
+    return new UserAuthenticationToken(user, jwt, authorities(mask, extra));
+  }
+
+  private static List<GrantedAuthority> authorities(int mask, List<GrantedAuthority> extra) {
+    List<GrantedAuthority> known = switch (mask) {
+      case AuthenticatedUser.ROLE_USER -> USER_ONLY;
+      case AuthenticatedUser.ROLE_ADMIN -> ADMIN_ONLY;
+      case AuthenticatedUser.ROLE_USER | AuthenticatedUser.ROLE_ADMIN -> USER_AND_ADMIN;
+      default -> List.of();
+    };
+    if (extra == null) {
+      return known;
+    }
+    List<GrantedAuthority> all = new ArrayList<>(known);
+    all.addAll(extra);
+    return List.copyOf(all);
+  }
+}
@@ -0,0 +1,50 @@
+package com.github.dimitryivaniuta.booking.security;
+
+import java.util.Collection;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Authentication for a validated bearer JWT whose principal is a prebuilt {@link AuthenticatedUser}.
+ *
+ * <p>Replaces {@code JwtAuthenticationToken} so that controllers and filters read the user id and roles
+ * directly instead of re-parsing claims on every access.</p>
+ */
+public class UserAuthenticationToken extends AbstractAuthenticationToken {
+
+  private final AuthenticatedUser user;
+  private final Jwt token;
+
+  /**
+   * @param user prebuilt principal
+   * @param token validated JWT
+   * @param authorities granted authorities
+   */
+  public UserAuthenticationToken(AuthenticatedUser user, Jwt token, Collection<? extends GrantedAuthority> authorities) {
+    super(authorities);
+    this.user = user;
+    this.token = token;
+    setAuthenticated(true);
+  }
+
+  /** @return the validated JWT (e.g. for jti/exp on logout) */
+  public Jwt getToken() {
+    return token;
+  }
+
+  @Override
+  public AuthenticatedUser getPrincipal() {
+    return user;
+  }
+
+  @Override
+  public Object getCredentials() {
+    return token;
+  }
+
+  @Override
+  public String getName() {
+    return token.getSubject();
+  }
+}
@@ -0,0 +1,313 @@
+package com.github.dimitryivaniuta.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dimitryivaniuta.booking.api.dto.ApartmentCreateRequest;
+import com.github.dimitryivaniuta.booking.api.dto.ApartmentImportResponse;
+import com.github.dimitryivaniuta.booking.api.dto.ImportRowError;
+import com.github.dimitryivaniuta.booking.catalog.ApartmentCatalog;
+import com.github.dimitryivaniuta.booking.config.CacheConfig;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk apartment import from CSV or NDJSON.
+ *
+ * <p>The upload is read line by line and each row is validated like {@code POST /api/apartments}; valid rows are
+ * inserted {@code batch-size} at a time with one JDBC batch per transaction (the driver rewrites it into multi-row
+ * inserts, see {@code reWriteBatchedInserts}). Only the current batch and the first {@code max-errors} row errors are
+ * kept, so memory is constant in the size of the upload. The apartment catalog (on every node) and the availability
+ * search cache are refreshed once at the end instead of per row.</p>
+ *
+ * <p>A rejected row never fails the import; batches committed before a failure stay committed.</p>
+ */
+@Slf4j
+@Service
+public class ApartmentImportService {
+
+  /** Upload format. */
+  public enum Format { CSV, NDJSON }
+
+  private static final String INSERT = """
+      insert into apartments (id, name, city, capacity, created_at, latitude, longitude, nightly_rate)
+      values (?, ?, ?, ?, ?, ?, ?, ?)
+      """;
+
+  private static final int[] INSERT_TYPES = {
+      Types.OTHER, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.TIMESTAMP_WITH_TIMEZONE,
+      Types.DOUBLE, Types.DOUBLE, Types.NUMERIC
+  };
+
+  private static final List<String> CSV_COLUMNS =
+      List.of("name", "city", "capacity", "latitude", "longitude", "nightlyrate");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Validator validator;
+  private final ObjectMapper objectMapper;
+  private final ApartmentCatalog apartmentCatalog;
+  private final CacheManager cacheManager;
+  private final int batchSize;
+  private final int maxErrors;
+
+  public ApartmentImportService(
+      JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      Validator validator,
+      ObjectMapper objectMapper,
+      ApartmentCatalog apartmentCatalog,
+      CacheManager cacheManager,
+      @Value("${booking.apartments.import.batch-size:1000}") int batchSize,
+      @Value("${booking.apartments.import.max-errors:1000}") int maxErrors
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.validator = validator;
+    this.objectMapper = objectMapper;
+    this.apartmentCatalog = apartmentCatalog;
+    this.cacheManager = cacheManager;
+    this.batchSize = Math.max(1, batchSize);
+    this.maxErrors = Math.max(0, maxErrors);
+  }
+
+  /**
+   * Imports apartments.
+   *
+   * <p>CSV needs a header line naming the columns ({@code name, city, capacity} and optionally
+   * {@code latitude, longitude, nightlyRate}, any order); fields may be double-quoted but not span lines.
+   * NDJSON has one {@code ApartmentCreateRequest} JSON object per line. Blank lines are skipped.</p>
+   *
+   * @param in upload (UTF-8)
+   * @param format format
+   * @return counts and per-row errors
+   */
+  public ApartmentImportResponse importApartments(InputStream in, Format format) {
+    Run run = new Run();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      Map<String, Integer> header = null;
+      String line;
+      long lineNo = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNo++;
+        if (line.isBlank()) {
+          continue;
+        }
+        if (format == Format.CSV && header == null) {
+          header = csvHeader(line);
+          continue;
+        }
+        ApartmentCreateRequest req;
+        try {
+          req = format == Format.CSV ? fromCsv(header, line) : objectMapper.readValue(line, ApartmentCreateRequest.class);
+        } catch (Exception e) {
+          run.reject(lineNo, "Unparseable row: " + rootMessage(e));
+          continue;
+        }
+        if (req == null) {
+          // A JSON "null" line parses without error.
+          run.reject(lineNo, "Unparseable row: expected a JSON object");
+          continue;
+        }
+        String invalid = validate(req);
+        if (invalid != null) {
+          run.reject(lineNo, invalid);
+          continue;
+        }
+        run.add(lineNo, req);
+        if (run.batch.size() >= batchSize) {
+          flush(run);
+        }
+      }
+      flush(run);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Apartment import aborted after " + run.imported + " rows", e);
+    } finally {
+      if (run.imported > 0) {
+        refresh();
+      }
+    }
+    log.info("Apartment import: {} imported, {} rejected", run.imported, run.failed);
+    return new ApartmentImportResponse(run.imported, run.failed, run.errors, run.failed > run.errors.size());
+  }
+
+  private void flush(Run run) {
+    if (run.batch.isEmpty()) {
+      return;
+    }
+    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+    List<Object[]> rows = new ArrayList<>(run.batch.size());
+    for (ApartmentCreateRequest r : run.batch) {
+      rows.add(new Object[] {
+          UUID.randomUUID(), r.name().trim(), r.city().trim(), r.capacity(), now,
+          r.latitude(), r.longitude(), r.nightlyRate()
+      });
+    }
+    try {
+      transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, rows, INSERT_TYPES));
+      run.imported += rows.size();
+    } catch (DataAccessException e) {
+      String message = "Batch insert failed: " + rootMessage(e);
+      for (long lineNo : run.batchLines) {
+        run.reject(lineNo, message);
+      }
+    }
+    run.batch.clear();
+    run.batchLines.clear();
+  }
+
+  /** One catalog reload (broadcast to the other nodes) and one cache clear for the whole import. */
+  private void refresh() {
+    apartmentCatalog.reloadEverywhere();
+    Cache cache = cacheManager.getCache(CacheConfig.AVAILABILITY_SEARCH_CACHE);
+    if (cache != null) {
+      cache.clear();
+    }
+  }
+
+  private String validate(ApartmentCreateRequest req) {
+    Set<ConstraintViolation<ApartmentCreateRequest>> violations = validator.validate(req);
+    if (!violations.isEmpty()) {
+      StringBuilder sb = new StringBuilder();
+      for (ConstraintViolation<ApartmentCreateRequest> v : violations) {
+        sb.append(sb.isEmpty() ? "" : "; ").append(v.getPropertyPath()).append(' ').append(v.getMessage());
+      }
+      return sb.toString();
+    }
+    if ((req.latitude() == null) != (req.longitude() == null)) {
+      return "latitude and longitude must be given together.";
+    }
+    return null;
+  }
+
+  private static Map<String, Integer> csvHeader(String line) {
+    List<String> names = splitCsv(line);
+    Map<String, Integer> header = new HashMap<>();
+    for (int i = 0; i < names.size(); i++) {
+      String name = names.get(i).trim().toLowerCase(Locale.ROOT);
+      if (!CSV_COLUMNS.contains(name)) {
+        throw new BadRequestException("Unknown CSV column: " + names.get(i) + " (supported: " + CSV_COLUMNS + ").");
+      }
+      header.put(name, i);
+    }
+    for (String required : CSV_COLUMNS.subList(0, 3)) {
+      if (!header.containsKey(required)) {
+        throw new BadRequestException("CSV header must contain name, city and capacity.");
+      }
+    }
+    return header;
+  }
+
+  private static ApartmentCreateRequest fromCsv(Map<String, Integer> header, String line) {
+    List<String> f = splitCsv(line);
+    if (f.size() != header.size()) {
+      throw new IllegalArgumentException("expected " + header.size() + " fields, got " + f.size());
+    }
+    String lat = field(f, header, "latitude");
+    String lon = field(f, header, "longitude");
+    String rate = field(f, header, "nightlyrate");
+    String capacity = field(f, header, "capacity");
+    if (capacity == null) {
+      throw new IllegalArgumentException("capacity is required");
+    }
+    return new ApartmentCreateRequest(
+        field(f, header, "name"),
+        field(f, header, "city"),
+        Integer.parseInt(capacity.trim()),
+        lat == null ? null : Double.valueOf(lat.trim()),
+        lon == null ? null : Double.valueOf(lon.trim()),
+        rate == null ? null : new BigDecimal(rate.trim()));
+  }
+
+  /** @return the field, or null if the column is absent or the field is empty */
+  private static String field(List<String> fields, Map<String, Integer> header, String column) {
+    Integer i = header.get(column);
+    String v = i == null ? null : fields.get(i);
+    return v == null || v.isBlank() ? null : v;
+  }
+
+  /** Splits one CSV line (RFC 4180 quoting, {@code ""} escapes a quote inside a quoted field). */
+  static List<String> splitCsv(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder cur = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          cur.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          cur.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(cur.toString());
+        cur.setLength(0);
+      } else {
+        cur.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("unterminated quoted field");
+    }
+    fields.add(cur.toString());
+    return fields;
+  }
+
+  private static String rootMessage(Throwable e) {
+    Throwable t = e;
+    while (t.getCause() != null && t.getCause() != t) {
+      t = t.getCause();
+    }
+    return t.getMessage() == null ? t.getClass().getSimpleName() : t.getMessage().lines().findFirst().orElse("");
+  }
+
+  /** Mutable state of one import. */
+  private final class Run {
+
+    final List<ApartmentCreateRequest> batch = new ArrayList<>(batchSize);
+    final List<Long> batchLines = new ArrayList<>(batchSize);
+    final List<ImportRowError> errors = new ArrayList<>();
+    long imported;
+    long failed;
+
+    void add(long lineNo, ApartmentCreateRequest req) {
+      batch.add(req);
+      batchLines.add(lineNo);
+    }
+
+    void reject(long lineNo, String message) {
+      failed++;
+      if (errors.size() < maxErrors) {
+        errors.add(new ImportRowError(lineNo, message));
+      }
+    }
+  }
+}
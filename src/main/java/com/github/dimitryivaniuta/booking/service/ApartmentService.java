@@ -1,21 +1,43 @@
 package com.github.dimitryivaniuta.booking.service;
 
 import com.github.dimitryivaniuta.booking.api.dto.ApartmentCreateRequest;
+import com.github.dimitryivaniuta.booking.api.dto.ApartmentRatesRequest;
+import com.github.dimitryivaniuta.booking.api.dto.ApartmentRatesResponse;
+import com.github.dimitryivaniuta.booking.api.dto.SeasonalRate;
+import com.github.dimitryivaniuta.booking.catalog.ApartmentCatalog;
+import com.github.dimitryivaniuta.booking.catalog.ApartmentChangedEvent;
+import com.github.dimitryivaniuta.booking.catalog.ApartmentInfo;
 import com.github.dimitryivaniuta.booking.domain.Apartment;
+import com.github.dimitryivaniuta.booking.domain.ApartmentRate;
+import com.github.dimitryivaniuta.booking.repo.ApartmentRateRepository;
 import com.github.dimitryivaniuta.booking.repo.ApartmentRepository;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Application service for apartments.
+ *
+ * <p>Reads are served by the in-memory {@link ApartmentCatalog}; writes publish {@link ApartmentChangedEvent}
+ * so the catalog picks them up after commit.</p>
  */
 @Service
 @RequiredArgsConstructor
 public class ApartmentService {
 
+  /** Seasonal rates are expanded to one array slot per night; bound the span they may cover. */
+  private static final long MAX_SEASON_SPAN_DAYS = 3660;
+
   private final ApartmentRepository apartmentRepository;
+  private final ApartmentRateRepository rateRepository;
+  private final ApartmentCatalog apartmentCatalog;
+  private final ApplicationEventPublisher events;
 
   /**
    * Creates a new apartment.
@@ -25,8 +47,41 @@ public class ApartmentService {
    */
   @Transactional
   public Apartment create(ApartmentCreateRequest req) {
-    Apartment a = new Apartment(req.name(), req.city(), req.capacity());
-    return apartmentRepository.save(a);
+    if ((req.latitude() == null) != (req.longitude() == null)) {
+      throw new BadRequestException("latitude and longitude must be given together.");
+    }
+    Apartment apartment = new Apartment(req.name(), req.city(), req.capacity(), req.latitude(), req.longitude());
+    apartment.setNightlyRate(req.nightlyRate());
+    Apartment a = apartmentRepository.save(apartment);
+    events.publishEvent(new ApartmentChangedEvent(ApartmentInfo.of(a, List.of())));
+    return a;
+  }
+
+  /**
+   * Replaces the base rate and all seasonal rates of an apartment.
+   *
+   * @param id apartment id
+   * @param req new rates
+   * @return stored rates
+   */
+  @Transactional
+  public ApartmentRatesResponse setRates(UUID id, ApartmentRatesRequest req) {
+    Apartment a = apartmentRepository.findById(id)
+        .orElseThrow(() -> new NotFoundException("Apartment not found: " + id));
+    List<SeasonalRate> seasons = new ArrayList<>(req.seasons() == null ? List.of() : req.seasons());
+    seasons.sort(Comparator.comparing(SeasonalRate::startDate));
+    validateSeasons(seasons);
+
+    rateRepository.deleteAllByApartmentIdInBulk(id);
+    List<ApartmentRate> rates = new ArrayList<>(seasons.size());
+    for (SeasonalRate s : seasons) {
+      rates.add(new ApartmentRate(id, s.startDate(), s.endDate(), s.nightlyRate()));
+    }
+    rateRepository.saveAll(rates);
+    a.setNightlyRate(req.nightlyRate());
+
+    events.publishEvent(new ApartmentChangedEvent(ApartmentInfo.of(a, rates)));
+    return new ApartmentRatesResponse(id, a.getNightlyRate(), seasons);
   }
 
   /**
@@ -35,8 +90,25 @@ public class ApartmentService {
    * @param id apartment id
    * @return apartment
    */
-  @Transactional(readOnly = true)
-  public Apartment get(UUID id) {
-    return apartmentRepository.findById(id).orElseThrow(() -> new NotFoundException("Apartment not found: " + id));
+  public ApartmentInfo get(UUID id) {
+    return apartmentCatalog.find(id).orElseThrow(() -> new NotFoundException("Apartment not found: " + id));
+  }
+
+  private static void validateSeasons(List<SeasonalRate> sorted) {
+    for (int i = 0; i < sorted.size(); i++) {
+      SeasonalRate s = sorted.get(i);
+      if (!s.startDate().isBefore(s.endDate())) {
+        throw new BadRequestException("Season startDate must be before endDate (endDate is exclusive).");
+      }
+      if (i > 0 && s.startDate().isBefore(sorted.get(i - 1).endDate())) {
+        throw new BadRequestException("Seasons must not overlap: " + sorted.get(i - 1) + ", " + s);
+      }
+    }
+    // Sorted and non-overlapping, so the last season ends last.
+    if (!sorted.isEmpty()
+        && ChronoUnit.DAYS.between(sorted.get(0).startDate(), sorted.get(sorted.size() - 1).endDate())
+        > MAX_SEASON_SPAN_DAYS) {
+      throw new BadRequestException("Seasons must span at most " + MAX_SEASON_SPAN_DAYS + " days.");
+    }
   }
 }
@@ -1,5 +1,6 @@
 package com.github.dimitryivaniuta.booking.service;
 
+import com.github.dimitryivaniuta.booking.catalog.ApartmentChangedEvent;
 import com.github.dimitryivaniuta.booking.config.CacheConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,7 +10,7 @@ import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.transaction.event.TransactionPhase;
 
 /**
- * Invalidates cached availability search results after booking writes.
+ * Invalidates cached availability search results after booking and apartment writes.
  */
 @Slf4j
 @Component
@@ -23,6 +24,18 @@ public class AvailabilityCacheInvalidationListener {
    */
   @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
   public void onBookingChanged(BookingDataChangedEvent event) {
+    clear();
+  }
+
+  /**
+   * Clears availability cache after an apartment write (new apartment, rates) commits.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onApartmentChanged(ApartmentChangedEvent event) {
+    clear();
+  }
+
+  private void clear() {
     var cache = cacheManager.getCache(CacheConfig.AVAILABILITY_SEARCH_CACHE);
     if (cache != null) {
       cache.clear();
@@ -2,14 +2,29 @@ package com.github.dimitryivaniuta.booking.service;
 
 import com.github.dimitryivaniuta.booking.api.ApiMapper;
 import com.github.dimitryivaniuta.booking.api.dto.ApartmentResponse;
+import com.github.dimitryivaniuta.booking.catalog.ApartmentCatalog;
+import com.github.dimitryivaniuta.booking.catalog.ApartmentInfo;
+import com.github.dimitryivaniuta.booking.catalog.GeoArea;
+import com.github.dimitryivaniuta.booking.catalog.RateTable;
 import com.github.dimitryivaniuta.booking.config.CacheConfig;
+import com.github.dimitryivaniuta.booking.domain.Apartment;
 import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import com.github.dimitryivaniuta.booking.projection.AvailabilityProjectionRunner;
 import com.github.dimitryivaniuta.booking.repo.ApartmentRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -19,13 +34,70 @@ import org.springframework.transaction.annotation.Transactional;
  * Read-side service for availability search.
  *
  * <p>We cache the search result for a short TTL because this endpoint is typically the hottest read
- * path in booking systems.
+ * path in booking systems. Projection mode skips the cache: the projection is already in memory, and a cached
+ * result could outlive its staleness bound (the cache is cleared on commit, before the projection sees the event).
+ *
+ * <p>With {@code booking.availability.mode=projection} occupancy comes from the node-local
+ * {@link AvailabilityProjectionRunner} (built from the booking events topic) instead of the {@code bookings}
+ * table, as long as it is no staler than {@code max-staleness-ms}; otherwise the DB query is used.</p>
+ *
+ * <p>City/capacity filtering uses the {@link ApartmentCatalog} index once it is loaded: in projection mode the whole
+ * search then runs in memory; in DB mode up to {@code max-candidates} candidate ids are handed to the overlap query,
+ * so it needs no {@code lower(city)} scan.</p>
+ *
+ * <p>Results carry the total stay price from the catalog's {@link RateTable}s. Price filters and price ordering are
+ * applied before paging: candidates are priced in O(1) each, filtered by price, then checked for availability.</p>
  */
 @Service
-@RequiredArgsConstructor
 public class AvailabilityService {
 
+  /** Placeholder for an empty exclusion list ({@code not in ()} is not valid SQL). */
+  private static final Set<UUID> NONE = Set.of(new UUID(0, 0));
+
   private final ApartmentRepository apartmentRepository;
+  private final ApartmentCatalog apartmentCatalog;
+  private final AvailabilityProjectionRunner projection;
+  private final boolean projectionMode;
+  private final long maxStalenessMs;
+  private final int maxCandidates;
+
+  public AvailabilityService(
+      ApartmentRepository apartmentRepository,
+      ApartmentCatalog apartmentCatalog,
+      AvailabilityProjectionRunner projection,
+      @Value("${booking.availability.mode:db}") String mode,
+      @Value("${booking.availability.projection.max-staleness-ms:5000}") long maxStalenessMs,
+      @Value("${booking.availability.max-candidates:1000}") int maxCandidates
+  ) {
+    this.apartmentRepository = apartmentRepository;
+    this.apartmentCatalog = apartmentCatalog;
+    this.projection = projection;
+    this.projectionMode = "projection".equalsIgnoreCase(mode);
+    this.maxStalenessMs = maxStalenessMs;
+    this.maxCandidates = Math.max(1, maxCandidates);
+  }
+
+  /**
+   * Staleness bound of the data {@link #search} currently answers from.
+   *
+   * @return milliseconds the projection may lag behind committed bookings; 0 when reading the database
+   */
+  public long stalenessMillis() {
+    if (!projectionMode) {
+      return 0;
+    }
+    long staleness = projection.stalenessMillis();
+    return staleness <= maxStalenessMs ? staleness : 0;
+  }
+
+  /**
+   * Whether search results may be cached; referenced by the {@code @Cacheable} conditions.
+   *
+   * @return false in projection mode, where cached results would not honour the reported staleness bound
+   */
+  public boolean resultsCacheable() {
+    return !projectionMode;
+  }
 
   /**
    * Searches available apartments by city/capacity for the given date range.
@@ -34,6 +106,9 @@ public class AvailabilityService {
    * @param minCapacity minimum capacity, optional
    * @param from check-in (inclusive)
    * @param to check-out (exclusive)
+   * @param minPrice minimum total stay price, optional
+   * @param maxPrice maximum total stay price, optional
+   * @param sortByPrice order by total stay price ascending (unpriced apartments last)
    * @param page page index (0-based)
    * @param size page size
    * @return page of apartments
@@ -41,25 +116,219 @@ public class AvailabilityService {
   @Transactional(readOnly = true)
   @Cacheable(
       cacheNames = CacheConfig.AVAILABILITY_SEARCH_CACHE,
-      key = "T(String).valueOf(#city).toLowerCase() + '|' + T(String).valueOf(#minCapacity) + '|' + #from + '|' + #to + '|' + #page + '|' + #size"
+      condition = "#root.target.resultsCacheable()",
+      key = "T(String).valueOf(#city).toLowerCase() + '|' + T(String).valueOf(#minCapacity) + '|' + #from + '|' + #to + '|' + #minPrice + '|' + #maxPrice + '|' + #sortByPrice + '|' + #page + '|' + #size"
   )
-  public Page<ApartmentResponse> search(String city, Integer minCapacity, LocalDate from, LocalDate to, int page, int size) {
+  public Page<ApartmentResponse> search(String city, Integer minCapacity, LocalDate from, LocalDate to,
+                                        BigDecimal minPrice, BigDecimal maxPrice, boolean sortByPrice,
+                                        int page, int size) {
     validateDates(from, to);
     int safePage = Math.max(0, page);
     int safeSize = Math.min(Math.max(1, size), 200);
     Pageable pageable = PageRequest.of(safePage, safeSize);
 
-    Page<com.github.dimitryivaniuta.booking.domain.Apartment> result = apartmentRepository.searchAvailable(
+    if (minPrice != null || maxPrice != null || sortByPrice) {
+      validatePrices(minPrice, maxPrice);
+      return searchPriced(city, minCapacity, from, to, minPrice, maxPrice, sortByPrice, pageable);
+    }
+
+    if (projectionMode && projection.stalenessMillis() <= maxStalenessMs) {
+      Set<UUID> occupied = projection.projection().occupied(from, to);
+      if (apartmentCatalog.isLoaded()) {
+        return pageOf(apartmentCatalog.candidates(city, minCapacity), occupied, from, to, pageable);
+      }
+      return apartmentRepository.searchExcluding(city, minCapacity, occupied.isEmpty() ? NONE : occupied, pageable)
+          .map(a -> priced(a, from, to));
+    }
+
+    if (apartmentCatalog.isLoaded() && (city != null || minCapacity != null)) {
+      List<ApartmentInfo> candidates = apartmentCatalog.candidates(city, minCapacity);
+      if (candidates.isEmpty()) {
+        return Page.empty(pageable);
+      }
+      if (candidates.size() <= maxCandidates) {
+        List<UUID> ids = new ArrayList<>(candidates.size());
+        candidates.forEach(a -> ids.add(a.id()));
+        return apartmentRepository.searchAvailableAmong(ids, from, to, BookingStatus.CANCELLED, BookingStatus.EXPIRED,
+            BookingStatus.HOLD, Instant.now(), pageable).map(a -> priced(a, from, to));
+      }
+    }
+
+    Page<Apartment> result = apartmentRepository.searchAvailable(
         city,
         minCapacity,
         from,
         to,
         BookingStatus.CANCELLED,
         BookingStatus.EXPIRED,
+        BookingStatus.HOLD,
+        Instant.now(),
         pageable
     );
 
-    return result.map(ApiMapper::toResponse);
+    return result.map(a -> priced(a, from, to));
+  }
+
+  /**
+   * Searches available apartments inside a geographic area for the given date range.
+   *
+   * <p>Candidates come from the catalog's location grid when it is loaded; otherwise (or when there are more than
+   * {@code max-candidates}) a single Postgres query combines the GiST box lookup, the radius check and the
+   * overlap filter. Circle searches are ordered nearest first.</p>
+   *
+   * @param area search area
+   * @param minCapacity minimum capacity, optional
+   * @param from check-in (inclusive)
+   * @param to check-out (exclusive)
+   * @param page page index (0-based)
+   * @param size page size
+   * @return page of apartments
+   */
+  @Transactional(readOnly = true)
+  @Cacheable(
+      cacheNames = CacheConfig.AVAILABILITY_SEARCH_CACHE,
+      condition = "#root.target.resultsCacheable()",
+      key = "'geo|' + #area + '|' + T(String).valueOf(#minCapacity) + '|' + #from + '|' + #to + '|' + #page + '|' + #size"
+  )
+  public Page<ApartmentResponse> searchGeo(GeoArea area, Integer minCapacity, LocalDate from, LocalDate to,
+                                           int page, int size) {
+    validateDates(from, to);
+    validateArea(area);
+    Pageable pageable = PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), 200));
+
+    if (apartmentCatalog.isLoaded()) {
+      List<ApartmentInfo> candidates = apartmentCatalog.within(area, minCapacity);
+      if (candidates.isEmpty()) {
+        return Page.empty(pageable);
+      }
+      if (projectionMode && projection.stalenessMillis() <= maxStalenessMs) {
+        return pageOf(candidates, projection.projection().occupied(from, to), from, to, pageable);
+      }
+      if (candidates.size() <= maxCandidates) {
+        // Keep the catalog order (nearest first for circles).
+        return pageOf(candidates, occupiedAmong(candidates, from, to), from, to, pageable);
+      }
+    }
+
+    return apartmentRepository.searchAvailableInArea(area.minLat(), area.minLon(), area.maxLat(), area.maxLon(),
+            area.isCircle() ? area.centerLat() : 0, area.isCircle() ? area.centerLon() : 0, area.radiusMeters(),
+            minCapacity == null ? 0 : minCapacity, from, to, Instant.now(), pageable)
+        .map(a -> priced(a, from, to));
+  }
+
+  /**
+   * Price-aware search over the catalog: price every candidate from its {@link RateTable} (O(1) per apartment,
+   * whatever the stay length), drop those outside {@code [minPrice, maxPrice]}, check the rest for availability,
+   * then order and page in memory. Fails fast while the catalog is not loaded.
+   */
+  private Page<ApartmentResponse> searchPriced(String city, Integer minCapacity, LocalDate from, LocalDate to,
+                                               BigDecimal minPrice, BigDecimal maxPrice, boolean sortByPrice,
+                                               Pageable pageable) {
+    if (!apartmentCatalog.isLoaded()) {
+      // Only until the startup load finishes; never reload the whole catalog on a request thread.
+      throw new BookingException("Price search is unavailable until the apartment catalog is loaded.");
+    }
+    boolean filtered = minPrice != null || maxPrice != null;
+    long min = minPrice == null ? 0 : RateTable.cents(minPrice);
+    long max = maxPrice == null ? Long.MAX_VALUE : RateTable.cents(maxPrice);
+
+    List<ApartmentInfo> candidates = apartmentCatalog.candidates(city, minCapacity);
+    List<ApartmentInfo> inRange = new ArrayList<>();
+    List<Priced> matches = new ArrayList<>();
+    for (ApartmentInfo a : candidates) {
+      long cents = a.rates().totalCents(from, to);
+      if (filtered && (cents < min || cents > max)) {
+        continue;
+      }
+      inRange.add(a);
+      matches.add(new Priced(a, cents));
+    }
+    if (matches.isEmpty()) {
+      return Page.empty(pageable);
+    }
+
+    Predicate<UUID> occupied = projectionMode && projection.stalenessMillis() <= maxStalenessMs
+        ? projection.projection().occupied(from, to)::contains
+        : occupiedAmong(inRange, from, to);
+    matches.removeIf(p -> occupied.test(p.apartment().id()));
+    if (sortByPrice) {
+      // Stable: equal prices keep the catalog order (capacity, then id).
+      matches.sort(Comparator.comparingLong(p -> p.cents() < 0 ? Long.MAX_VALUE : p.cents()));
+    }
+
+    int fromIndex = (int) Math.min(pageable.getOffset(), matches.size());
+    int toIndex = Math.min(fromIndex + pageable.getPageSize(), matches.size());
+    List<ApartmentResponse> content = new ArrayList<>(toIndex - fromIndex);
+    for (Priced p : matches.subList(fromIndex, toIndex)) {
+      content.add(ApiMapper.toResponse(p.apartment(), from, to));
+    }
+    return new PageImpl<>(content, pageable, matches.size());
+  }
+
+  /**
+   * Occupancy of the given apartments from the database, {@code max-candidates} ids per query.
+   *
+   * @return predicate that is true for apartments that are not available
+   */
+  private Predicate<UUID> occupiedAmong(List<ApartmentInfo> apartments, LocalDate from, LocalDate to) {
+    Set<UUID> available = new HashSet<>();
+    Instant now = Instant.now();
+    for (int i = 0; i < apartments.size(); i += maxCandidates) {
+      List<ApartmentInfo> chunk = apartments.subList(i, Math.min(i + maxCandidates, apartments.size()));
+      List<UUID> ids = new ArrayList<>(chunk.size());
+      chunk.forEach(a -> ids.add(a.id()));
+      apartmentRepository.searchAvailableAmong(ids, from, to, BookingStatus.CANCELLED, BookingStatus.EXPIRED,
+          BookingStatus.HOLD, now, Pageable.unpaged()).forEach(a -> available.add(a.getId()));
+    }
+    return id -> !available.contains(id);
+  }
+
+  /** Maps a DB result with the catalog's rates so that it carries the stay price. */
+  private ApartmentResponse priced(Apartment a, LocalDate from, LocalDate to) {
+    return apartmentCatalog.find(a.getId())
+        .map(info -> ApiMapper.toResponse(info, from, to))
+        .orElseGet(() -> ApiMapper.toResponse(a));
+  }
+
+  /** Pages the unoccupied candidates in memory (candidate order: capacity, then id). */
+  private static Page<ApartmentResponse> pageOf(List<ApartmentInfo> candidates, Set<UUID> occupied,
+                                                LocalDate from, LocalDate to, Pageable pageable) {
+    return pageOf(candidates, occupied::contains, from, to, pageable);
+  }
+
+  private static Page<ApartmentResponse> pageOf(List<ApartmentInfo> candidates, Predicate<UUID> occupied,
+                                                LocalDate from, LocalDate to, Pageable pageable) {
+    long skip = pageable.getOffset();
+    List<ApartmentResponse> content = new ArrayList<>(pageable.getPageSize());
+    long total = 0;
+    for (ApartmentInfo a : candidates) {
+      if (occupied.test(a.id())) {
+        continue;
+      }
+      if (total >= skip && content.size() < pageable.getPageSize()) {
+        content.add(ApiMapper.toResponse(a, from, to));
+      }
+      total++;
+    }
+    return new PageImpl<>(content, pageable, total);
+  }
+
+  private void validateArea(GeoArea area) {
+    if (area.minLat() > area.maxLat() || area.minLon() > area.maxLon()) {
+      throw new BadRequestException("Bounding box must have min <= max for latitude and longitude.");
+    }
+    if (area.minLat() < -90 || area.maxLat() > 90 || area.minLon() < -180 || area.maxLon() > 180) {
+      throw new BadRequestException("Coordinates out of range.");
+    }
+  }
+
+  private void validatePrices(BigDecimal minPrice, BigDecimal maxPrice) {
+    if ((minPrice != null && minPrice.signum() < 0) || (maxPrice != null && maxPrice.signum() < 0)) {
+      throw new BadRequestException("minPrice and maxPrice must not be negative.");
+    }
+    if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+      throw new BadRequestException("minPrice must not exceed maxPrice.");
+    }
   }
 
   private void validateDates(LocalDate start, LocalDate end) {
@@ -70,4 +339,6 @@ public class AvailabilityService {
       throw new BadRequestException("from must be before to (to is exclusive checkout date).");
     }
   }
+
+  private record Priced(ApartmentInfo apartment, long cents) {}
 }
@@ -0,0 +1,36 @@
+package com.github.dimitryivaniuta.booking.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in a {@code (created_at desc, id)} ordered listing: the last row of the previous page.
+ *
+ * @param createdAt created at of the last row
+ * @param id id of the last row
+ */
+record BookingCursor(Instant createdAt, UUID id) {
+
+  /** @return opaque URL-safe token */
+  String encode() {
+    String raw = createdAt + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @param token token from {@link #encode()}
+   * @return cursor
+   * @throws BadRequestException if the token is malformed
+   */
+  static BookingCursor decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int sep = raw.indexOf('|');
+      return new BookingCursor(Instant.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+    } catch (RuntimeException e) {
+      throw new BadRequestException("Invalid cursor.");
+    }
+  }
+}
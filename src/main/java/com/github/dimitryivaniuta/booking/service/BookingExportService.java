@@ -0,0 +1,85 @@
+package com.github.dimitryivaniuta.booking.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dimitryivaniuta.booking.api.ApiMapper;
+import com.github.dimitryivaniuta.booking.domain.Booking;
+import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import com.github.dimitryivaniuta.booking.repo.BookingRepository;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Streams bookings as NDJSON (one {@code BookingResponse} JSON object per line) for reconciliation.
+ *
+ * <p>Rows come from a forward-only database cursor and are written straight to the output stream; each entity is
+ * detached once written, so memory stays constant however many rows are exported.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingExportService {
+
+  /** Flush the response every this many rows so the client sees progress and buffers stay small. */
+  private static final int FLUSH_EVERY = 1000;
+
+  private final BookingRepository bookingRepository;
+  private final EntityManager entityManager;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Validates export filters before anything is written (errors can no longer be reported once streaming starts).
+   *
+   * @param from stays ending after this date; nullable
+   * @param to stays starting before this date; nullable
+   */
+  public void validate(LocalDate from, LocalDate to) {
+    if (from != null && to != null && !from.isBefore(to)) {
+      throw new BadRequestException("from must be before to (to is exclusive checkout date).");
+    }
+  }
+
+  /**
+   * Writes all matching bookings, oldest first.
+   *
+   * @param from stays ending after this date; nullable
+   * @param to stays starting before this date; nullable
+   * @param status status; nullable for any
+   * @param apartmentId apartment id; nullable for any
+   * @param out target stream (not closed)
+   * @return number of bookings written
+   */
+  @Transactional(readOnly = true)
+  public long export(LocalDate from, LocalDate to, BookingStatus status, UUID apartmentId, OutputStream out) {
+    validate(from, to);
+    long count = 0;
+    try (Stream<Booking> bookings = bookingRepository.streamForExport(from, to, status, apartmentId);
+         JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+      json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      json.setPrettyPrinter(new MinimalPrettyPrinter(""));
+      Iterator<Booking> it = bookings.iterator();
+      while (it.hasNext()) {
+        Booking b = it.next();
+        json.writeObject(ApiMapper.toResponse(b));
+        json.writeRaw('\n');
+        entityManager.detach(b);
+        if (++count % FLUSH_EVERY == 0) {
+          json.flush();
+        }
+      }
+      json.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Booking export aborted after " + count + " rows", e);
+    }
+    return count;
+  }
+}
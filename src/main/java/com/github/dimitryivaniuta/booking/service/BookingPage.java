@@ -0,0 +1,13 @@
+package com.github.dimitryivaniuta.booking.service;
+
+import com.github.dimitryivaniuta.booking.repo.BookingSummary;
+import java.util.List;
+
+/**
+ * One keyset page of bookings.
+ *
+ * @param items bookings, newest first
+ * @param nextCursor cursor of the next page; null on the last page
+ */
+public record BookingPage(List<BookingSummary> items, String nextCursor) {
+}
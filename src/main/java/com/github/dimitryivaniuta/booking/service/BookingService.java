@@ -2,25 +2,37 @@ package com.github.dimitryivaniuta.booking.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.dimitryivaniuta.booking.api.dto.BookingHoldRequest;
+import com.github.dimitryivaniuta.booking.catalog.ApartmentCatalog;
 import com.github.dimitryivaniuta.booking.domain.Booking;
 import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import com.github.dimitryivaniuta.booking.events.BookingCancelled;
+import com.github.dimitryivaniuta.booking.events.BookingConfirmed;
+import com.github.dimitryivaniuta.booking.events.BookingEvent;
+import com.github.dimitryivaniuta.booking.events.BookingExpired;
+import com.github.dimitryivaniuta.booking.events.BookingHeld;
+import com.github.dimitryivaniuta.booking.outbox.OutboxFastPath;
 import com.github.dimitryivaniuta.booking.outbox.OutboxMessage;
+import com.github.dimitryivaniuta.booking.outbox.OutboxMessageSavedEvent;
 import com.github.dimitryivaniuta.booking.outbox.OutboxRepository;
-import com.github.dimitryivaniuta.booking.repo.ApartmentRepository;
 import com.github.dimitryivaniuta.booking.repo.BookingRepository;
+import com.github.dimitryivaniuta.booking.repo.BookingRepository.ExpiredHold;
+import com.github.dimitryivaniuta.booking.repo.BookingSummary;
 import com.github.dimitryivaniuta.booking.security.AuthenticatedUser;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.util.Map;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Application service for bookings.
@@ -29,20 +41,25 @@ import org.springframework.transaction.annotation.Transactional;
  * on (apartment_id, stay daterange) for non-cancelled/non-expired bookings (see Flyway migrations).</p>
  *
  * <p><b>p95/p99:</b> the write path is a short transaction (insert booking + insert outbox row),
- * with Kafka publish deferred to the outbox poller. Idempotency is backed by Redis to prevent duplicate work.</p>
+ * with Kafka publish done right after commit by {@link OutboxFastPath} (the outbox poller is the fallback).
+ * Idempotency is backed by Redis to prevent duplicate work.</p>
  */
 @Service
 @RequiredArgsConstructor
 public class BookingService {
 
   private static final String IDEMP_IN_PROGRESS = "IN_PROGRESS";
+  private static final String BOOKING_EVENTS_TOPIC = "booking-events";
+  private static final String BOOKING_AGGREGATE = "Booking";
 
-  private final ApartmentRepository apartmentRepository;
+  private final ApartmentCatalog apartmentCatalog;
   private final BookingRepository bookingRepository;
   private final OutboxRepository outboxRepository;
+  private final OutboxFastPath outboxFastPath;
   private final StringRedisTemplate redis;
   private final ObjectMapper objectMapper;
   private final ApplicationEventPublisher events;
+  private final TransactionTemplate transactionTemplate;
 
   @Value("${booking.holds.default-minutes:15}")
   private int defaultHoldMinutes;
@@ -62,7 +79,7 @@ public class BookingService {
   public boolean isAvailable(UUID apartmentId, LocalDate from, LocalDate to) {
     validateDates(from, to);
     requireApartmentExists(apartmentId);
-    return !bookingRepository.existsOverlap(apartmentId, from, to);
+    return !bookingRepository.existsOverlap(apartmentId, from, to, Instant.now());
   }
 
   /**
@@ -72,6 +89,11 @@ public class BookingService {
    * only one insert will succeed; the others fail with SQLSTATE 23P01 (exclusion violation),
    * mapped to {@code 409 CONFLICT}.</p>
    *
+   * <p>The exclusion constraint cannot see expiry times, so a hold past its deadline that the expiry job has not
+   * processed yet still blocks the dates. On an exclusion violation the insert is therefore retried once, in a
+   * new transaction that first expires the overlapping stale holds; only if there are none (or the retry
+   * conflicts again) is the conflict reported.</p>
+   *
    * <p>Idempotency is scoped by user to prevent cross-user key collisions.</p>
    *
    * @param user authenticated user
@@ -79,7 +101,6 @@ public class BookingService {
    * @param idempotencyKey optional idempotency key
    * @return created booking
    */
-  @Transactional
   public Booking createHold(AuthenticatedUser user, BookingHoldRequest req, String idempotencyKey) {
     validateDates(req.startDate(), req.endDate());
     requireApartmentExists(req.apartmentId());
@@ -90,24 +111,19 @@ public class BookingService {
           .orElseThrow(() -> new NotFoundException("Idempotency mapping points to missing booking: " + existing));
     }
 
-    Instant expiresAt = Instant.now().plus(Duration.ofMinutes(defaultHoldMinutes));
-    Booking booking = Booking.newHold(req.apartmentId(), user.userId(), req.startDate(), req.endDate(), expiresAt);
-
     try {
-      Booking saved = bookingRepository.saveAndFlush(booking);
-      publishOutbox(saved, "BookingHeld", Map.of(
-          "bookingId", saved.getId(),
-          "apartmentId", saved.getApartmentId(),
-          "userId", saved.getUserId().toString(),
-          "startDate", saved.getStartDate().toString(),
-          "endDate", saved.getEndDate().toString(),
-          "status", saved.getStatus().name(),
-          "expiresAt", saved.getExpiresAt().toString()
-      ));
+      Booking saved;
+      try {
+        saved = transactionTemplate.execute(status -> insertHold(user, req, false));
+      } catch (DataIntegrityViolationException e) {
+        if (!SqlStateUtil.isPgExclusionViolation(e)) {
+          throw e;
+        }
+        saved = transactionTemplate.execute(status -> insertHold(user, req, true));
+      }
       if (idempotencyKey != null) {
         finalizeIdempotencyKey(user.userId(), idempotencyKey, saved.getId());
       }
-      events.publishEvent(new BookingDataChangedEvent());
       return saved;
     } catch (DataIntegrityViolationException e) {
       if (SqlStateUtil.isPgExclusionViolation(e)) {
@@ -121,6 +137,24 @@ public class BookingService {
     }
   }
 
+  private Booking insertHold(AuthenticatedUser user, BookingHoldRequest req, boolean expireStale) {
+    if (expireStale) {
+      Instant now = Instant.now();
+      if (onHoldsExpired(bookingRepository.expireStaleOverlapping(
+          req.apartmentId(), req.startDate(), req.endDate(), now), now) == 0) {
+        throw new ConflictException("Apartment is already booked for the requested dates.");
+      }
+    }
+    Instant expiresAt = Instant.now().plus(Duration.ofMinutes(defaultHoldMinutes));
+    Booking booking = Booking.newHold(req.apartmentId(), user.userId(), req.startDate(), req.endDate(), expiresAt);
+    Booking saved = bookingRepository.saveAndFlush(booking);
+    publishOutbox(saved.getId(), new BookingHeld(saved.getId(), saved.getApartmentId(), saved.getUserId(),
+        saved.getStartDate(), saved.getEndDate(), saved.getStatus(), saved.getExpiresAt()));
+    events.publishEvent(new HoldPlacedEvent(saved.getId(), saved.getExpiresAt()));
+    events.publishEvent(new BookingDataChangedEvent());
+    return saved;
+  }
+
   /**
    * Confirms a hold booking (owner-or-admin).
    *
@@ -145,11 +179,7 @@ public class BookingService {
     }
     b.confirm();
     Booking saved = bookingRepository.save(b);
-    publishOutbox(saved, "BookingConfirmed", Map.of(
-        "bookingId", saved.getId(),
-        "paymentRef", paymentRef,
-        "status", saved.getStatus().name()
-    ));
+    publishOutbox(saved.getId(), new BookingConfirmed(saved.getId(), paymentRef, saved.getStatus()));
     events.publishEvent(new BookingDataChangedEvent());
     return saved;
   }
@@ -172,30 +202,41 @@ public class BookingService {
     }
     b.cancel();
     Booking saved = bookingRepository.save(b);
-    publishOutbox(saved, "BookingCancelled", Map.of(
-        "bookingId", saved.getId(),
-        "status", saved.getStatus().name()
-    ));
+    publishOutbox(saved.getId(), new BookingCancelled(saved.getId(), saved.getStatus()));
     events.publishEvent(new BookingDataChangedEvent());
     return saved;
   }
 
   /**
-   * Expires holds that passed their expiry time.
+   * Expires one chunk of holds that passed their expiry time.
    *
-   * <p>Used by a scheduled job. It does not require user authentication.</p>
+   * <p>Used by the fallback scan in {@link HoldExpiryScheduler}, which calls it repeatedly (one short transaction
+   * per chunk) until a chunk comes back short. It does not require user authentication.</p>
    *
+   * @param limit maximum holds to expire
    * @return number of expired holds
    */
   @Transactional
-  public int expireHolds() {
+  public int expireHoldsChunk(int limit) {
     Instant now = Instant.now();
-    int updated = bookingRepository.expireHolds(now);
-    if (updated > 0) {
-      publishOutbox(UUID.randomUUID(), "BookingHoldsExpired", Map.of("count", updated, "at", now.toString()));
-      events.publishEvent(new BookingDataChangedEvent());
+    return onHoldsExpired(bookingRepository.expireHoldsChunk(now, limit), now);
+  }
+
+  /**
+   * Expires the given holds if they are still holds and past their expiry time.
+   *
+   * <p>Used by {@link HoldExpiryEngine}. It does not require user authentication.</p>
+   *
+   * @param bookingIds candidate hold ids
+   * @return number of expired holds
+   */
+  @Transactional
+  public int expireHolds(Collection<UUID> bookingIds) {
+    if (bookingIds.isEmpty()) {
+      return 0;
     }
-    return updated;
+    Instant now = Instant.now();
+    return onHoldsExpired(bookingRepository.expireHoldsByIds(bookingIds, now), now);
   }
 
   /**
@@ -212,6 +253,63 @@ public class BookingService {
     return b;
   }
 
+  /**
+   * Lists the caller's own bookings, newest first, with keyset pagination.
+   *
+   * <p>Each page is one index range scan from the cursor position, so deep pages cost the same as the first.</p>
+   *
+   * @param user authenticated user
+   * @param status status filter; null for any
+   * @param cursor {@code nextCursor} of the previous page; null for the first page
+   * @param size page size (1..100)
+   * @return page of bookings with the cursor of the next one
+   */
+  @Transactional(readOnly = true)
+  public BookingPage listOwn(AuthenticatedUser user, BookingStatus status, String cursor, int size) {
+    if (user == null) {
+      throw new ForbiddenException("Not authenticated.");
+    }
+    int limit = Math.min(Math.max(1, size), 100);
+    // One extra row tells whether there is a next page without a count query.
+    PageRequest page = PageRequest.of(0, limit + 1);
+    List<BookingSummary> rows;
+    if (cursor == null || cursor.isBlank()) {
+      rows = bookingRepository.findFirstPageForUser(user.userId(), status, page);
+    } else {
+      BookingCursor after = BookingCursor.decode(cursor);
+      rows = bookingRepository.findPageForUserAfter(user.userId(), status, after.createdAt(), after.id(), page);
+    }
+
+    if (rows.size() <= limit) {
+      return new BookingPage(rows, null);
+    }
+    BookingSummary last = rows.get(limit - 1);
+    return new BookingPage(rows.subList(0, limit), new BookingCursor(last.createdAt(), last.id()).encode());
+  }
+
+  /** Writes one {@link BookingExpired} per hold, all in a single multi-row outbox insert. */
+  private int onHoldsExpired(List<ExpiredHold> expired, Instant now) {
+    if (expired.isEmpty()) {
+      return 0;
+    }
+    UUID[] aggregateIds = new UUID[expired.size()];
+    String[] payloads = new String[expired.size()];
+    try {
+      for (int i = 0; i < payloads.length; i++) {
+        ExpiredHold h = expired.get(i);
+        aggregateIds[i] = h.getId();
+        payloads[i] = objectMapper.writeValueAsString(new BookingExpired(h.getId(), h.getApartmentId(),
+            h.getUserId(), h.getStartDate(), h.getEndDate(), BookingStatus.EXPIRED, now));
+      }
+    } catch (Exception e) {
+      throw new BookingException("Failed to serialize outbox payload.", e);
+    }
+    outboxRepository.insertBatch(BOOKING_EVENTS_TOPIC, BOOKING_AGGREGATE, BookingExpired.class.getSimpleName(),
+        aggregateIds, payloads, now);
+    events.publishEvent(new BookingDataChangedEvent());
+    return payloads.length;
+  }
+
   private void ensureOwnerOrAdmin(AuthenticatedUser user, Booking booking) {
     if (user == null) {
       throw new ForbiddenException("Not authenticated.");
@@ -237,19 +335,17 @@ public class BookingService {
     if (apartmentId == null) {
       throw new BadRequestException("apartmentId is required.");
     }
-    if (!apartmentRepository.existsById(apartmentId)) {
+    if (!apartmentCatalog.exists(apartmentId)) {
       throw new NotFoundException("Apartment not found: " + apartmentId);
     }
   }
 
-  private void publishOutbox(Booking booking, String eventType, Map<String, Object> payload) {
-    publishOutbox(booking.getId(), eventType, payload);
-  }
-
-  private void publishOutbox(UUID aggregateId, String eventType, Map<String, Object> payload) {
+  private void publishOutbox(UUID aggregateId, BookingEvent event) {
     try {
-      String json = objectMapper.writeValueAsString(payload);
-      outboxRepository.save(new OutboxMessage("booking-events", "Booking", aggregateId, eventType, json));
+      String json = objectMapper.writeValueAsString(event);
+      OutboxMessage saved = outboxRepository.save(outboxFastPath.lease(
+          new OutboxMessage(BOOKING_EVENTS_TOPIC, BOOKING_AGGREGATE, aggregateId, event.eventType(), json)));
+      events.publishEvent(new OutboxMessageSavedEvent(saved));
     } catch (Exception e) {
       throw new BookingException("Failed to serialize outbox payload.", e);
     }
@@ -0,0 +1,226 @@
+package com.github.dimitryivaniuta.booking.service;
+
+import com.github.dimitryivaniuta.booking.repo.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Expires holds within about one tick of their deadline, on one node at a time.
+ *
+ * <p>The node holding the Redis leader lease keeps every hold due within {@code horizon-ms} in a
+ * {@link HoldTimingWheel}. The wheel is rebuilt from Postgres when leadership is acquired and topped up every
+ * {@code refill-ms} (holds created on other nodes arrive this way); holds created on this node are added right
+ * after commit via {@link HoldPlacedEvent}. Every tick, due holds are expired by id in batches of
+ * {@code batch-size}, so each transaction touches only a handful of rows.</p>
+ *
+ * <p>{@link HoldExpiryScheduler}'s bulk scan stays in place as the safety net for anything the wheel misses
+ * (leader crash before the lease runs out, failed batches, Redis outages).</p>
+ */
+@Slf4j
+@Component
+public class HoldExpiryEngine {
+
+  static final String LEADER_KEY = "booking:holds:expiry-leader";
+
+  /** KEYS[1]=lease; ARGV = token, lease ms. Extends the lease if this token holds it. */
+  private static final RedisScript<Long> RENEW = new DefaultRedisScript<>("""
+      if redis.call('GET', KEYS[1]) == ARGV[1] then
+        return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+      end
+      return 0
+      """, Long.class);
+
+  /** KEYS[1]=lease; ARGV = token. Deletes the lease if this token holds it. */
+  private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+      if redis.call('GET', KEYS[1]) == ARGV[1] then
+        return redis.call('DEL', KEYS[1])
+      end
+      return 0
+      """, Long.class);
+
+  private final BookingService bookingService;
+  private final BookingRepository bookingRepository;
+  private final StringRedisTemplate redis;
+  private final boolean enabled;
+  private final long tickMs;
+  private final long leaseMs;
+  private final long horizonMs;
+  private final long refillMs;
+  private final int batchSize;
+  private final String token = UUID.randomUUID().toString();
+
+  private final Queue<HoldPlacedEvent> placed = new ConcurrentLinkedQueue<>();
+  private final Counter expiredCounter;
+  private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread t = new Thread(r, "hold-expiry");
+    t.setDaemon(true);
+    return t;
+  });
+
+  // Confined to the executor thread.
+  private HoldTimingWheel wheel;
+  private long leaseRenewAt;
+  private long nextRefillAt;
+  private long refilledUntil;
+  private volatile boolean leader;
+
+  public HoldExpiryEngine(
+      BookingService bookingService,
+      BookingRepository bookingRepository,
+      StringRedisTemplate redis,
+      MeterRegistry registry,
+      @Value("${booking.holds.expiry.enabled:true}") boolean enabled,
+      @Value("${booking.holds.expiry.tick-ms:250}") long tickMs,
+      @Value("${booking.holds.expiry.lease-ms:10000}") long leaseMs,
+      @Value("${booking.holds.expiry.horizon-ms:120000}") long horizonMs,
+      @Value("${booking.holds.expiry.refill-ms:30000}") long refillMs,
+      @Value("${booking.holds.expiry.batch-size:100}") int batchSize
+  ) {
+    this.bookingService = bookingService;
+    this.bookingRepository = bookingRepository;
+    this.redis = redis;
+    this.enabled = enabled;
+    this.tickMs = Math.max(10, tickMs);
+    this.leaseMs = Math.max(3 * this.tickMs, leaseMs);
+    this.refillMs = Math.max(this.tickMs, refillMs);
+    this.horizonMs = Math.max(2 * this.refillMs, horizonMs);
+    this.batchSize = Math.max(1, batchSize);
+    this.expiredCounter = Counter.builder("booking.holds.expired")
+        .description("Holds expired by the timing wheel")
+        .register(registry);
+    Gauge.builder("booking.holds.expiry.leader", this, e -> e.leader ? 1 : 0)
+        .description("1 while this node runs hold expiry")
+        .register(registry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (enabled) {
+      executor.scheduleWithFixedDelay(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+    if (leader) {
+      try {
+        redis.execute(RELEASE, List.of(LEADER_KEY), token);
+      } catch (RuntimeException e) {
+        log.debug("Hold expiry lease release failed: {}", e.toString());
+      }
+    }
+  }
+
+  /**
+   * Schedules a hold created on this node (after its transaction commits).
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onHoldPlaced(HoldPlacedEvent event) {
+    if (leader && event.expiresAt() != null) {
+      placed.add(event);
+    }
+  }
+
+  private void tick() {
+    try {
+      long now = System.currentTimeMillis();
+      if (!holdLease(now)) {
+        return;
+      }
+      List<UUID> due = new ArrayList<>();
+      if (now >= nextRefillAt) {
+        refill(now, due);
+      }
+      for (HoldPlacedEvent e; (e = placed.poll()) != null; ) {
+        if (e.expiresAt().toEpochMilli() < refilledUntil) {
+          wheel.add(e.bookingId(), e.expiresAt().toEpochMilli(), due);
+        }
+      }
+      wheel.advanceTo(now, due);
+      expire(due);
+    } catch (RuntimeException e) {
+      log.warn("Hold expiry tick failed: {}", e.toString());
+    }
+  }
+
+  /** Acquires or renews the leader lease; (re)builds the wheel on acquisition. */
+  private boolean holdLease(long now) {
+    if (leader && now < leaseRenewAt) {
+      return true;
+    }
+    boolean held;
+    try {
+      held = leader
+          ? Long.valueOf(1).equals(redis.execute(RENEW, List.of(LEADER_KEY), token, String.valueOf(leaseMs)))
+          : Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(LEADER_KEY, token, Duration.ofMillis(leaseMs)));
+    } catch (RuntimeException e) {
+      log.debug("Hold expiry lease check failed: {}", e.toString());
+      held = false;
+    }
+    if (held && !leader) {
+      log.info("Hold expiry leadership acquired");
+      wheel = new HoldTimingWheel(tickMs, now);
+      nextRefillAt = now;
+      refilledUntil = now;
+    } else if (!held && leader) {
+      log.info("Hold expiry leadership lost");
+      wheel = null;
+      placed.clear();
+    }
+    leader = held;
+    // Renew at a third of the lease so one failed renewal still leaves time for another attempt.
+    leaseRenewAt = now + leaseMs / 3;
+    return held;
+  }
+
+  /**
+   * Loads holds due within the horizon; ids already in the wheel are ignored by it.
+   *
+   * <p>Only deadlines from one tick ago on are loaded, so the read stays bounded by the horizon: an overdue
+   * backlog (after an outage, or failed batches) is left to {@link HoldExpiryScheduler}'s chunked scan.</p>
+   */
+  private void refill(long now, List<UUID> due) {
+    long until = now + horizonMs;
+    for (BookingRepository.HoldDeadline h : bookingRepository.findHoldDeadlinesBetween(
+        Instant.ofEpochMilli(now - tickMs), Instant.ofEpochMilli(until))) {
+      wheel.add(h.getId(), h.getExpiresAt().toEpochMilli(), due);
+    }
+    refilledUntil = until;
+    nextRefillAt = now + refillMs;
+  }
+
+  private void expire(List<UUID> due) {
+    for (int from = 0; from < due.size(); from += batchSize) {
+      List<UUID> batch = due.subList(from, Math.min(due.size(), from + batchSize));
+      try {
+        expiredCounter.increment(bookingService.expireHolds(batch));
+      } catch (RuntimeException e) {
+        // Still a HOLD past its deadline: left to the fallback scan.
+        log.warn("Expiring {} holds failed: {}", batch.size(), e.toString());
+      }
+    }
+  }
+}
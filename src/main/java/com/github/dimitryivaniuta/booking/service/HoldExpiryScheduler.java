@@ -1,28 +1,67 @@
 package com.github.dimitryivaniuta.booking.service;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 /**
  * Periodically expires booking holds that have passed their expiry time.
+ *
+ * <p>Safety net only: holds are normally expired on time by {@link HoldExpiryEngine}. This scan catches
+ * whatever it missed (e.g. while no node held the expiry lease).</p>
+ *
+ * <p>Expiry runs in chunks of {@code chunk-size} holds, one short transaction each, with {@code pause-ms}
+ * between chunks and at most {@code max-chunks-per-run} per run, so a backlog after an outage is worked off
+ * gradually instead of in one long, lock-heavy update.</p>
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class HoldExpiryScheduler {
 
   private final BookingService bookingService;
+  private final int chunkSize;
+  private final int maxChunksPerRun;
+  private final long pauseMs;
+
+  public HoldExpiryScheduler(
+      BookingService bookingService,
+      @Value("${booking.holds.expiry-scan.chunk-size:500}") int chunkSize,
+      @Value("${booking.holds.expiry-scan.max-chunks-per-run:100}") int maxChunksPerRun,
+      @Value("${booking.holds.expiry-scan.pause-ms:50}") long pauseMs
+  ) {
+    this.bookingService = bookingService;
+    this.chunkSize = Math.max(1, chunkSize);
+    this.maxChunksPerRun = Math.max(1, maxChunksPerRun);
+    this.pauseMs = Math.max(0, pauseMs);
+  }
 
   /**
-   * Expires holds.
+   * Expires overdue holds, at most {@code max-chunks-per-run} chunks per run.
+   *
+   * @return holds expired in this run
    */
-  @Scheduled(fixedDelayString = "${booking.holds.expiry-scan-ms:10000}")
-  public void expireHolds() {
-    int expired = bookingService.expireHolds();
-    if (expired > 0) {
-      log.info("expiredHolds={}", expired);
+  @Scheduled(fixedDelayString = "${booking.holds.expiry-scan-ms:60000}")
+  public long expireHolds() {
+    long total = 0;
+    for (int i = 0; i < maxChunksPerRun; i++) {
+      int expired = bookingService.expireHoldsChunk(chunkSize);
+      total += expired;
+      if (expired < chunkSize) {
+        break;
+      }
+      if (pauseMs > 0) {
+        try {
+          Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+    }
+    if (total > 0) {
+      log.info("expiredHolds={}", total);
     }
+    return total;
   }
 }
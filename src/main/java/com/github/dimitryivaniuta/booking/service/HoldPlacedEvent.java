@@ -0,0 +1,13 @@
+package com.github.dimitryivaniuta.booking.service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Application event published when a hold is created; delivered after the transaction commits.
+ *
+ * @param bookingId hold id
+ * @param expiresAt hold expiry time
+ */
+public record HoldPlacedEvent(UUID bookingId, Instant expiresAt) {
+}
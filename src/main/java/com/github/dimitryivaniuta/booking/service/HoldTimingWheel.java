@@ -0,0 +1,123 @@
+package com.github.dimitryivaniuta.booking.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hierarchical timing wheel of hold deadlines (not thread-safe; owned by {@link HoldExpiryEngine}'s thread).
+ *
+ * <p>Four levels of 64 slots: level 0 slots are one tick wide, level {@code k} slots span {@code 64^k} ticks.
+ * A deadline is filed in the lowest level whose span covers it; whenever the level-0 cursor completes a level
+ * {@code k} period, that level's next slot is cascaded (re-filed one or more levels down). Adding and firing
+ * are O(1) per hold, independent of how many holds are pending, and nothing is scanned.</p>
+ *
+ * <p>Each hold is filed at most once ({@link #add} ignores ids already pending).</p>
+ */
+final class HoldTimingWheel {
+
+  private static final int BITS = 6;
+  private static final int SLOTS = 1 << BITS;
+  private static final int MASK = SLOTS - 1;
+  private static final int LEVELS = 4;
+
+  private final long tickMs;
+  @SuppressWarnings("unchecked")
+  private final List<UUID>[][] slots = new List[LEVELS][SLOTS];
+  /** Pending holds and their deadline tick. */
+  private final Map<UUID, Long> deadlines = new HashMap<>();
+  /** Deadlines beyond the top level's span (about 48 days at 250 ms ticks); re-filed on every top-level cascade. */
+  private final List<UUID> overflow = new ArrayList<>();
+  private long currentTick;
+
+  /**
+   * @param tickMs tick length in milliseconds (expiry resolution)
+   * @param nowMs current time, epoch millis
+   */
+  HoldTimingWheel(long tickMs, long nowMs) {
+    this.tickMs = Math.max(1, tickMs);
+    this.currentTick = nowMs / this.tickMs;
+    for (List<UUID>[] level : slots) {
+      for (int i = 0; i < SLOTS; i++) {
+        level[i] = new ArrayList<>();
+      }
+    }
+  }
+
+  /**
+   * Files a hold deadline.
+   *
+   * @param bookingId hold id
+   * @param deadlineMs expiry time, epoch millis
+   * @param due receives the id if the deadline is not in the future
+   */
+  void add(UUID bookingId, long deadlineMs, List<UUID> due) {
+    if (deadlines.containsKey(bookingId)) {
+      return;
+    }
+    // Round up: a hold fires on the first tick at or after its deadline, never before.
+    long tick = Math.floorDiv(deadlineMs + tickMs - 1, tickMs);
+    deadlines.put(bookingId, tick);
+    file(bookingId, tick, due);
+  }
+
+  /**
+   * Moves the wheel forward to {@code nowMs}.
+   *
+   * @param nowMs current time, epoch millis
+   * @param due receives every hold whose deadline has been reached
+   */
+  void advanceTo(long nowMs, List<UUID> due) {
+    long target = nowMs / tickMs;
+    while (currentTick < target) {
+      currentTick++;
+      for (int level = LEVELS - 1; level >= 1; level--) {
+        if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+          cascade(level, due);
+        }
+      }
+      List<UUID> slot = slots[0][(int) (currentTick & MASK)];
+      for (UUID id : slot) {
+        deadlines.remove(id);
+        due.add(id);
+      }
+      slot.clear();
+    }
+  }
+
+  /** @return number of pending holds */
+  int size() {
+    return deadlines.size();
+  }
+
+  private void cascade(int level, List<UUID> due) {
+    List<UUID> slot = slots[level][(int) ((currentTick >>> (BITS * level)) & MASK)];
+    List<UUID> moved = new ArrayList<>(slot);
+    slot.clear();
+    if (level == LEVELS - 1) {
+      moved.addAll(overflow);
+      overflow.clear();
+    }
+    for (UUID id : moved) {
+      file(id, deadlines.get(id), due);
+    }
+  }
+
+  private void file(UUID id, long tick, List<UUID> due) {
+    long delta = tick - currentTick;
+    if (delta <= 0) {
+      deadlines.remove(id);
+      due.add(id);
+      return;
+    }
+    for (int level = 0; level < LEVELS; level++) {
+      if (delta < 1L << (BITS * (level + 1))) {
+        slots[level][(int) ((tick >>> (BITS * level)) & MASK)].add(id);
+        return;
+      }
+    }
+    overflow.add(id);
+  }
+}
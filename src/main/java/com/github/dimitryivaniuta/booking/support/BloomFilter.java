@@ -0,0 +1,94 @@
+package com.github.dimitryivaniuta.booking.support;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe bloom filter over strings.
+ *
+ * <p>Never returns a false negative; false positives are bounded by the configured probability as long as
+ * the number of insertions stays near {@code expectedInsertions}. Bits are set with CAS so concurrent
+ * writers and lock-free readers are safe.</p>
+ */
+public final class BloomFilter {
+
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int hashFunctions;
+
+  /**
+   * Creates a filter sized for the given load.
+   *
+   * @param expectedInsertions expected number of elements
+   * @param falsePositiveRate target false-positive probability (0..1)
+   */
+  public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+    long n = Math.max(1, expectedInsertions);
+    double p = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+    long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+    m = Math.max(64, m);
+    int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64);
+    this.bits = new AtomicLongArray(words);
+    this.bitCount = (long) words * 64;
+    this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+  }
+
+  /** Adds a value to the filter. */
+  public void put(String value) {
+    long h = hash(value);
+    int h1 = (int) h;
+    int h2 = (int) (h >>> 32);
+    for (int i = 1; i <= hashFunctions; i++) {
+      setBit(index(h1 + i * h2));
+    }
+  }
+
+  /**
+   * @param value value
+   * @return false if the value was definitely never added; true if it might have been
+   */
+  public boolean mightContain(String value) {
+    long h = hash(value);
+    int h1 = (int) h;
+    int h2 = (int) (h >>> 32);
+    for (int i = 1; i <= hashFunctions; i++) {
+      long idx = index(h1 + i * h2);
+      if ((bits.get((int) (idx >>> 6)) & (1L << idx)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private long index(int combined) {
+    return (combined & Integer.MAX_VALUE) % bitCount;
+  }
+
+  private void setBit(long idx) {
+    int word = (int) (idx >>> 6);
+    long mask = 1L << idx;
+    long cur;
+    do {
+      cur = bits.get(word);
+      if ((cur & mask) != 0) {
+        return;
+      }
+    } while (!bits.compareAndSet(word, cur, cur | mask));
+  }
+
+  /** 64-bit FNV-1a followed by a murmur3 finalizer for better bit dispersion. */
+  private static long hash(String value) {
+    byte[] data = value.getBytes(StandardCharsets.UTF_8);
+    long h = 0xcbf29ce484222325L;
+    for (byte b : data) {
+      h ^= (b & 0xff);
+      h *= 0x100000001b3L;
+    }
+    h ^= (h >>> 33);
+    h *= 0xff51afd7ed558ccdL;
+    h ^= (h >>> 33);
+    h *= 0xc4ceb93fe53b90c1L;
+    h ^= (h >>> 33);
+    return h;
+  }
+}
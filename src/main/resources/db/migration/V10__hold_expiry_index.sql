@@ -0,0 +1,2 @@
+-- Holds by deadline: feeds the timing-wheel expiry (upcoming holds) and keeps the fallback bulk scan cheap.
+CREATE INDEX IF NOT EXISTS idx_bookings_hold_expires_at ON bookings(expires_at) WHERE status = 'HOLD';
@@ -0,0 +1,14 @@
+-- Optional apartment location (WGS84 degrees) for map / radius search.
+ALTER TABLE apartments
+  ADD COLUMN IF NOT EXISTS latitude double precision NULL,
+  ADD COLUMN IF NOT EXISTS longitude double precision NULL;
+
+ALTER TABLE apartments
+  ADD CONSTRAINT apartments_location_valid CHECK (
+    (latitude IS NULL AND longitude IS NULL)
+    OR (latitude BETWEEN -90 AND 90 AND longitude BETWEEN -180 AND 180)
+  );
+
+-- Serves `point(longitude, latitude) <@ box(...)` in geo availability search.
+CREATE INDEX IF NOT EXISTS idx_apartments_location ON apartments USING gist (point(longitude, latitude))
+  WHERE latitude IS NOT NULL;
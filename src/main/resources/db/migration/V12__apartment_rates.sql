@@ -0,0 +1,18 @@
+-- Pricing: a base nightly rate per apartment plus seasonal overrides for date ranges.
+ALTER TABLE apartments
+  ADD COLUMN IF NOT EXISTS nightly_rate numeric(12,2) NULL CHECK (nightly_rate >= 0);
+
+CREATE TABLE IF NOT EXISTS apartment_rates (
+  id uuid PRIMARY KEY,
+  apartment_id uuid NOT NULL REFERENCES apartments(id),
+  start_date date NOT NULL,
+  end_date date NOT NULL,
+  nightly_rate numeric(12,2) NOT NULL CHECK (nightly_rate >= 0),
+  created_at timestamptz NOT NULL,
+  CHECK (start_date < end_date),
+  -- At most one override per night; '[)' makes end exclusive like bookings.
+  CONSTRAINT apartment_rates_no_overlap EXCLUDE USING gist (
+    apartment_id WITH =,
+    daterange(start_date, end_date, '[)') WITH &&
+  )
+);
@@ -0,0 +1,2 @@
+-- "My bookings" listing: newest first with keyset pagination on (created_at desc, id).
+CREATE INDEX IF NOT EXISTS idx_bookings_user_created ON bookings(user_id, created_at DESC, id);
@@ -0,0 +1,2 @@
+-- Retention purge: finds published rows past the cutoff without walking retained rows or dead tuples.
+CREATE INDEX IF NOT EXISTS idx_outbox_published_at ON outbox(published_at) WHERE published_at IS NOT NULL;
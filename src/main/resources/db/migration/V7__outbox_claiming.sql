@@ -0,0 +1,9 @@
+-- Lease-based outbox claiming so several app instances can publish without duplicating work.
+-- A row is owned by claimed_by until claimed_until; expired leases are reclaimed by any node.
+ALTER TABLE outbox
+  ADD COLUMN IF NOT EXISTS claimed_by varchar(64) NULL,
+  ADD COLUMN IF NOT EXISTS claimed_until timestamptz NULL;
+
+-- Supports the "no earlier in-flight row for this aggregate" check that preserves per-aggregate order.
+CREATE INDEX IF NOT EXISTS idx_outbox_unpublished_aggregate
+  ON outbox(aggregate_id, id) WHERE published_at IS NULL;
@@ -0,0 +1,14 @@
+-- Wake outbox publishers as soon as new rows commit instead of waiting for the next poll.
+-- Statement-level with a constant payload: Postgres folds duplicate notifications within a transaction,
+-- so a multi-row insert (or several inserts in one transaction) costs one NOTIFY, delivered on commit only.
+CREATE OR REPLACE FUNCTION outbox_notify() RETURNS trigger AS $$
+BEGIN
+  PERFORM pg_notify('outbox_new', '');
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_outbox_notify ON outbox;
+CREATE TRIGGER trg_outbox_notify
+  AFTER INSERT ON outbox
+  FOR EACH STATEMENT EXECUTE FUNCTION outbox_notify();
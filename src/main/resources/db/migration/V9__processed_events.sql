@@ -0,0 +1,9 @@
+-- Durable consumer-side deduplication (booking.events.dedup.mode=postgres): one row per (consumer, outbox id).
+CREATE TABLE IF NOT EXISTS processed_events (
+  consumer      varchar(64) NOT NULL,
+  event_id      bigint NOT NULL,
+  processed_at  timestamptz NOT NULL DEFAULT now(),
+  PRIMARY KEY (consumer, event_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_processed_events_processed_at ON processed_events(processed_at);
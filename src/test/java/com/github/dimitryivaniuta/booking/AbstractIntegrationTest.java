@@ -1,7 +1,18 @@
 package com.github.dimitryivaniuta.booking;
 
+import com.github.dimitryivaniuta.booking.api.dto.ApartmentCreateRequest;
+import com.github.dimitryivaniuta.booking.api.dto.ApartmentResponse;
+import com.github.dimitryivaniuta.booking.api.dto.BookingHoldRequest;
+import com.github.dimitryivaniuta.booking.api.dto.BookingResponse;
+import java.time.LocalDate;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeAll;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.containers.KafkaContainer;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -11,6 +22,8 @@ import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import com.redis.testcontainers.RedisContainer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 /**
  * Base class for integration tests backed by Testcontainers.
  */
@@ -54,4 +67,34 @@ public abstract class AbstractIntegrationTest {
     r.add("booking.holds.expiry-scan-ms", () -> "200");
     r.add("booking.holds.default-minutes", () -> "1");
   }
+
+  /**
+   * Creates an apartment for two guests as the seeded admin.
+   *
+   * @return apartment id
+   */
+  protected static UUID createApartment(TestRestTemplate rest, String name, String city) {
+    HttpHeaders adminH = TestAuth.loginHeaders(rest, "admin@local.test", "AdminPassword123!", "it-admin");
+    ResponseEntity<ApartmentResponse> r = rest.postForEntity("/api/apartments",
+        new HttpEntity<>(new ApartmentCreateRequest(name, city, 2), adminH), ApartmentResponse.class);
+    assertThat(r.getStatusCode()).isEqualTo(HttpStatus.OK);
+    return r.getBody().id();
+  }
+
+  /**
+   * Places a hold and asserts it succeeded.
+   *
+   * @param auth headers of the booking user (not modified)
+   * @return the hold
+   */
+  protected static BookingResponse hold(TestRestTemplate rest, HttpHeaders auth, UUID apartmentId, LocalDate from,
+                                        LocalDate to, String idempotencyKey) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.addAll(auth);
+    headers.add("Idempotency-Key", idempotencyKey);
+    ResponseEntity<BookingResponse> r = rest.postForEntity("/api/bookings/hold",
+        new HttpEntity<>(new BookingHoldRequest(apartmentId, from, to), headers), BookingResponse.class);
+    assertThat(r.getStatusCode()).isEqualTo(HttpStatus.OK);
+    return r.getBody();
+  }
 }
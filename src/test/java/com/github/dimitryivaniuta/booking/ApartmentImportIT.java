@@ -0,0 +1,81 @@
+package com.github.dimitryivaniuta.booking;
+
+import com.github.dimitryivaniuta.booking.api.dto.ApartmentImportResponse;
+import com.github.dimitryivaniuta.booking.api.dto.ImportRowError;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies {@code POST /api/apartments/import} end to end for CSV and NDJSON uploads.
+ */
+public class ApartmentImportIT extends AbstractIntegrationTest {
+
+  @Autowired
+  TestRestTemplate rest;
+
+  @Test
+  void csvImport_insertsValidRows_andMakesThemSearchable() {
+    ResponseEntity<ApartmentImportResponse> r = upload(TestAuth.loginHeaders(rest, "admin@local.test",
+        "AdminPassword123!", "it-admin"), MediaType.parseMediaType("text/csv"), """
+        name,city,capacity,latitude,longitude,nightlyRate
+        "Csv Loft, Old Town",Olsztyn,2,53.77,20.48,120.00
+        Csv Studio,Olsztyn,1,,,
+        Csv Broken,Olsztyn,0,,,
+        """, ApartmentImportResponse.class);
+
+    assertThat(r.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(r.getBody().imported()).isEqualTo(2);
+    assertThat(r.getBody().errors()).extracting(ImportRowError::line).containsExactly(4L);
+
+    ResponseEntity<String> search = rest.getForEntity(
+        "/api/availability/search?city=olsztyn&from=2026-05-01&to=2026-05-03", String.class);
+    assertThat(search.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(search.getBody()).contains("Csv Loft, Old Town", "Csv Studio").doesNotContain("Csv Broken");
+  }
+
+  @Test
+  void ndjsonImport_insertsValidRows() {
+    ResponseEntity<ApartmentImportResponse> r = upload(TestAuth.loginHeaders(rest, "admin@local.test",
+        "AdminPassword123!", "it-admin"), MediaType.APPLICATION_NDJSON, """
+        {"name":"Json Loft","city":"Elblag","capacity":3,"nightlyRate":95.50}
+        {"name":"Json Broken","city":"Elblag"
+        {"name":"Json Studio","city":"Elblag","capacity":1}
+        """, ApartmentImportResponse.class);
+
+    assertThat(r.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(r.getBody().imported()).isEqualTo(2);
+    assertThat(r.getBody().failed()).isEqualTo(1);
+    assertThat(r.getBody().errors()).extracting(ImportRowError::line).containsExactly(2L);
+
+    ResponseEntity<String> search = rest.getForEntity(
+        "/api/availability/search?city=Elblag&from=2026-05-01&to=2026-05-03", String.class);
+    assertThat(search.getBody()).contains("Json Loft", "Json Studio");
+  }
+
+  @Test
+  void badCsvHeader_is400_andNonAdmin_is403() {
+    HttpHeaders adminH = TestAuth.loginHeaders(rest, "admin@local.test", "AdminPassword123!", "it-admin");
+    HttpHeaders userH = TestAuth.loginHeaders(rest, "user1@local.test", "UserPassword123!", "it-user");
+    MediaType csv = MediaType.parseMediaType("text/csv");
+
+    assertThat(upload(adminH, csv, "name,city\nX,Y\n", String.class).getStatusCode())
+        .isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(upload(userH, csv, "name,city,capacity\nX,Y,2\n", String.class).getStatusCode())
+        .isEqualTo(HttpStatus.FORBIDDEN);
+  }
+
+  private <T> ResponseEntity<T> upload(HttpHeaders auth, MediaType contentType, String body, Class<T> type) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.addAll(auth);
+    headers.setContentType(contentType);
+    return rest.postForEntity("/api/apartments/import", new HttpEntity<>(body, headers), type);
+  }
+}
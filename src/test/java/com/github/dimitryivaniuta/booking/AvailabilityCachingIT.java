@@ -4,8 +4,10 @@ import com.github.dimitryivaniuta.booking.api.dto.ApartmentCreateRequest;
 import com.github.dimitryivaniuta.booking.domain.BookingStatus;
 import com.github.dimitryivaniuta.booking.repo.ApartmentRepository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.SpyBean;
@@ -48,15 +50,20 @@ public class AvailabilityCachingIT extends AbstractIntegrationTest {
     assertThat(r1.getBody()).contains(apartmentId.toString());
     assertThat(r2.getBody()).contains(apartmentId.toString());
 
-    // Repository method should be invoked once thanks to cache.
-    Mockito.verify(apartmentRepository, Mockito.times(1)).searchAvailable(
-        eq("Gdansk"),
-        eq(2),
+    // The catalog is loaded, so the city/capacity search goes through the candidate-id query, once thanks to cache.
+    ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.captor();
+    Mockito.verify(apartmentRepository, Mockito.times(1)).searchAvailableAmong(
+        ids.capture(),
         eq(LocalDate.of(2026, 2, 1)),
         eq(LocalDate.of(2026, 2, 5)),
         eq(BookingStatus.CANCELLED),
         eq(BookingStatus.EXPIRED),
+        eq(BookingStatus.HOLD),
+        any(),
         any()
     );
+    assertThat(ids.getValue()).contains(apartmentId);
+    Mockito.verify(apartmentRepository, Mockito.never()).searchAvailable(
+        any(), any(), any(), any(), any(), any(), any(), any(), any());
   }
 }
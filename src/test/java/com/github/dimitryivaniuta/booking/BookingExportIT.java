@@ -0,0 +1,94 @@
+package com.github.dimitryivaniuta.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dimitryivaniuta.booking.api.dto.BookingResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies {@code GET /api/bookings/export}: filters, NDJSON framing and admin-only access.
+ */
+public class BookingExportIT extends AbstractIntegrationTest {
+
+  @Autowired
+  TestRestTemplate rest;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @Test
+  void export_appliesFilters_andWritesOneJsonObjectPerLine() throws Exception {
+    HttpHeaders adminH = TestAuth.loginHeaders(rest, "admin@local.test", "AdminPassword123!", "it-admin");
+    HttpHeaders userH = TestAuth.loginHeaders(rest, "user1@local.test", "UserPassword123!", "it-export");
+    UUID apartment = createApartment(rest, "Export Loft", "Lublin");
+    UUID other = createApartment(rest, "Export Studio", "Lublin");
+    BookingResponse early = hold(rest, userH, apartment, LocalDate.of(2026, 12, 1),
+        LocalDate.of(2026, 12, 3), "it-export-1");
+    BookingResponse late = hold(rest, userH, apartment, LocalDate.of(2026, 12, 10),
+        LocalDate.of(2026, 12, 12), "it-export-2");
+    BookingResponse elsewhere = hold(rest, userH, other, LocalDate.of(2026, 12, 1),
+        LocalDate.of(2026, 12, 3), "it-export-3");
+    assertThat(rest.postForEntity("/api/bookings/" + late.id() + "/cancel", new HttpEntity<>(userH), String.class)
+        .getStatusCode()).isEqualTo(HttpStatus.OK);
+
+    ResponseEntity<String> all = export(adminH, "apartmentId=" + apartment);
+    assertThat(all.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(all.getHeaders().getContentType().isCompatibleWith(MediaType.APPLICATION_NDJSON)).isTrue();
+    assertThat(all.getBody()).endsWith("\n");
+    // Oldest first.
+    assertThat(ids(all)).containsExactly(early.id(), late.id());
+
+    assertThat(ids(export(adminH, "apartmentId=" + apartment + "&status=cancelled"))).containsExactly(late.id());
+    assertThat(ids(export(adminH, "apartmentId=" + apartment + "&from=2026-12-05&to=2026-12-20")))
+        .containsExactly(late.id());
+    // Check-out is exclusive: a stay ending on `from` is not included.
+    assertThat(ids(export(adminH, "apartmentId=" + apartment + "&from=2026-12-03"))).containsExactly(late.id());
+    assertThat(ids(export(adminH, "apartmentId=" + apartment + "&to=2026-12-10"))).containsExactly(early.id());
+    assertThat(ids(export(adminH, "from=2026-12-01&to=2026-12-02")))
+        .contains(early.id(), elsewhere.id())
+        .doesNotContain(late.id());
+    assertThat(export(adminH, "apartmentId=" + UUID.randomUUID()).getBody()).isNullOrEmpty();
+  }
+
+  @Test
+  void export_rejectsBadParams_andNonAdmins() {
+    HttpHeaders adminH = TestAuth.loginHeaders(rest, "admin@local.test", "AdminPassword123!", "it-admin");
+    HttpHeaders userH = TestAuth.loginHeaders(rest, "user1@local.test", "UserPassword123!", "it-export");
+
+    assertThat(export(adminH, "from=2026-12-10&to=2026-12-10").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(export(adminH, "status=PAID").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(export(userH, "").getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    assertThat(rest.getForEntity("/api/bookings/export", String.class).getStatusCode())
+        .isEqualTo(HttpStatus.UNAUTHORIZED);
+  }
+
+  private ResponseEntity<String> export(HttpHeaders headers, String query) {
+    return rest.exchange("/api/bookings/export?" + query, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+  }
+
+  /** Parses every line separately, so a missing or extra line break fails the test. */
+  private List<UUID> ids(ResponseEntity<String> response) throws Exception {
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    List<UUID> ids = new ArrayList<>();
+    String body = response.getBody() == null ? "" : response.getBody();
+    for (String line : body.split("\n")) {
+      if (!line.isEmpty()) {
+        ids.add(objectMapper.readValue(line, BookingResponse.class).id());
+      }
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,128 @@
+package com.github.dimitryivaniuta.booking;
+
+import com.github.dimitryivaniuta.booking.api.dto.BookingListResponse;
+import com.github.dimitryivaniuta.booking.api.dto.BookingResponse;
+import com.github.dimitryivaniuta.booking.domain.Booking;
+import com.github.dimitryivaniuta.booking.repo.BookingRepository;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies keyset pagination of {@code GET /api/bookings}: ties on {@code created_at}, the status filter,
+ * cursor validation and that users only see their own bookings.
+ */
+public class BookingListingIT extends AbstractIntegrationTest {
+
+  /** Older than anything other tests create, so the tied bookings are the last rows of user1's listing. */
+  private static final Instant TIED_CREATED_AT = Instant.parse("2020-01-01T00:00:00Z");
+
+  @Autowired
+  TestRestTemplate rest;
+
+  @Autowired
+  BookingRepository bookingRepository;
+
+  @Test
+  void pagesThroughTiedCreatedAt_withoutGapsOrDuplicates() {
+    UUID apartmentId = createApartment(rest, "List Loft", "Torun");
+    HttpHeaders user1 = TestAuth.loginHeaders(rest, "user1@local.test", "UserPassword123!", "it-list");
+    List<UUID> tied = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      LocalDate from = LocalDate.of(2026, 9, 1).plusDays(3L * i);
+      tied.add(hold(rest, user1, apartmentId, from, from.plusDays(2), "it-list-" + i).id());
+    }
+    for (UUID id : tied) {
+      Booking b = bookingRepository.findById(id).orElseThrow();
+      b.setCreatedAt(TIED_CREATED_AT);
+      bookingRepository.save(b);
+    }
+
+    List<UUID> seen = new ArrayList<>();
+    String cursor = null;
+    for (int pages = 0; pages < 500; pages++) {
+      BookingListResponse page = list(user1, "size=2" + (cursor == null ? "" : "&cursor=" + cursor));
+      assertThat(page.items()).hasSizeLessThanOrEqualTo(2);
+      page.items().forEach(b -> seen.add(b.id()));
+      cursor = page.nextCursor();
+      if (cursor == null) {
+        break;
+      }
+    }
+
+    assertThat(cursor).isNull();
+    assertThat(seen).doesNotHaveDuplicates();
+    // Same created_at: ordered by id, at the very end.
+    List<UUID> expected = tied.stream().sorted().toList();
+    assertThat(seen.subList(seen.size() - expected.size(), seen.size())).containsExactlyElementsOf(expected);
+  }
+
+  @Test
+  void statusFilter_returnsOnlyThatStatus() {
+    UUID apartmentId = createApartment(rest, "Filter Loft", "Torun");
+    HttpHeaders user1 = TestAuth.loginHeaders(rest, "user1@local.test", "UserPassword123!", "it-list");
+    BookingResponse kept = hold(rest, user1, apartmentId, LocalDate.of(2026, 10, 1),
+        LocalDate.of(2026, 10, 3), "it-list-kept");
+    BookingResponse cancelled = hold(rest, user1, apartmentId, LocalDate.of(2026, 10, 5),
+        LocalDate.of(2026, 10, 7), "it-list-cancelled");
+    ResponseEntity<String> cancel = rest.postForEntity("/api/bookings/" + cancelled.id() + "/cancel",
+        new HttpEntity<>(user1), String.class);
+    assertThat(cancel.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+    BookingListResponse page = list(user1, "status=CANCELLED&size=100");
+
+    assertThat(page.items()).extracting(BookingResponse::id).contains(cancelled.id()).doesNotContain(kept.id());
+    assertThat(page.items()).allSatisfy(b -> assertThat(b.status()).isEqualTo("CANCELLED"));
+  }
+
+  @Test
+  void invalidCursorOrStatus_is400() {
+    HttpHeaders user1 = TestAuth.loginHeaders(rest, "user1@local.test", "UserPassword123!", "it-list");
+
+    ResponseEntity<String> badCursor = rest.exchange("/api/bookings?cursor=not-a-cursor", HttpMethod.GET,
+        new HttpEntity<>(user1), String.class);
+    ResponseEntity<String> badStatus = rest.exchange("/api/bookings?status=PAID", HttpMethod.GET,
+        new HttpEntity<>(user1), String.class);
+
+    assertThat(badCursor.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(badStatus.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+  }
+
+  @Test
+  void usersOnlySeeTheirOwnBookings() {
+    UUID apartmentId = createApartment(rest, "Own Loft", "Torun");
+    HttpHeaders user1 = TestAuth.loginHeaders(rest, "user1@local.test", "UserPassword123!", "it-list");
+    HttpHeaders user2 = TestAuth.loginHeaders(rest, "user2@local.test", "UserPassword123!", "it-list");
+    BookingResponse mine = hold(rest, user1, apartmentId, LocalDate.of(2026, 11, 1),
+        LocalDate.of(2026, 11, 3), "it-list-own-1");
+    BookingResponse theirs = hold(rest, user2, apartmentId, LocalDate.of(2026, 11, 5),
+        LocalDate.of(2026, 11, 7), "it-list-own-2");
+
+    BookingListResponse page1 = list(user1, "size=100");
+    BookingListResponse page2 = list(user2, "size=100");
+
+    assertThat(page1.items()).extracting(BookingResponse::id).contains(mine.id()).doesNotContain(theirs.id());
+    assertThat(page2.items()).extracting(BookingResponse::id).contains(theirs.id()).doesNotContain(mine.id());
+    assertThat(page1.items()).extracting(BookingResponse::userId).containsOnly(mine.userId());
+    assertThat(page2.items()).extracting(BookingResponse::userId).containsOnly(theirs.userId());
+  }
+
+  private BookingListResponse list(HttpHeaders headers, String query) {
+    ResponseEntity<BookingListResponse> r = rest.exchange("/api/bookings?" + query, HttpMethod.GET,
+        new HttpEntity<>(headers), BookingListResponse.class);
+    assertThat(r.getStatusCode()).isEqualTo(HttpStatus.OK);
+    return r.getBody();
+  }
+}
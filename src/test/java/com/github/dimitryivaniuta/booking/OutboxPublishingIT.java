@@ -41,9 +41,7 @@ public class OutboxPublishingIT extends AbstractIntegrationTest {
     userH.add("Idempotency-Key", "idem-publish-1");
     rest.postForEntity("/api/bookings/hold", new HttpEntity<>(req, userH), String.class);
 
-    Awaitility.await().atMost(ofSeconds(15)).untilAsserted(() -> {
-      long unpublished = outboxRepository.findNextBatch(1000).size();
-      assertThat(unpublished).isEqualTo(0);
-    });
+    Awaitility.await().atMost(ofSeconds(15))
+        .untilAsserted(() -> assertThat(outboxRepository.countUnpublished()).isZero());
   }
 }
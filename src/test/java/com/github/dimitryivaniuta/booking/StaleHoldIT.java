@@ -0,0 +1,85 @@
+package com.github.dimitryivaniuta.booking;
+
+import com.github.dimitryivaniuta.booking.api.dto.AvailabilityResponse;
+import com.github.dimitryivaniuta.booking.api.dto.BookingHoldRequest;
+import com.github.dimitryivaniuta.booking.api.dto.BookingResponse;
+import com.github.dimitryivaniuta.booking.domain.Booking;
+import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import com.github.dimitryivaniuta.booking.repo.BookingRepository;
+import com.github.dimitryivaniuta.booking.service.HoldExpiryScheduler;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that a hold past its deadline which no expiry job has processed yet (still {@code HOLD}) does not
+ * block availability reads, and that a new hold on the same dates succeeds by expiring it.
+ *
+ * <p>Both expiry paths are switched off so the overdue hold stays in {@code HOLD} for the whole test.</p>
+ */
+@TestPropertySource(properties = "booking.holds.expiry.enabled=false")
+public class StaleHoldIT extends AbstractIntegrationTest {
+
+  @Autowired
+  TestRestTemplate rest;
+
+  @Autowired
+  BookingRepository bookingRepository;
+
+  @MockitoBean
+  HoldExpiryScheduler holdExpiryScheduler;
+
+  @Test
+  void overdueHold_isFreeForReads_andReplacedByNewHold() {
+    UUID apartmentId = createApartment(rest, "Stale Loft", "Sopot");
+    LocalDate from = LocalDate.of(2026, 6, 10);
+    LocalDate to = LocalDate.of(2026, 6, 13);
+
+    BookingResponse first = hold(rest, login("user1@local.test"), apartmentId, from, to, "it-stale-1");
+    Booking stale = bookingRepository.findById(first.id()).orElseThrow();
+    stale.setExpiresAt(Instant.now().minusSeconds(60));
+    bookingRepository.save(stale);
+
+    ResponseEntity<AvailabilityResponse> availability = rest.getForEntity(
+        "/api/apartments/" + apartmentId + "/availability?from=" + from + "&to=" + to, AvailabilityResponse.class);
+    assertThat(availability.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(availability.getBody().available()).isTrue();
+
+    ResponseEntity<String> search = rest.getForEntity(
+        "/api/availability/search?city=Sopot&from=" + from + "&to=" + to, String.class);
+    assertThat(search.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(search.getBody()).contains(apartmentId.toString());
+
+    // The insert hits the exclusion constraint, the retry expires the overdue hold and succeeds.
+    BookingResponse second = hold(rest, login("user2@local.test"), apartmentId, from, to, "it-stale-2");
+    assertThat(second.status()).isEqualTo(BookingStatus.HOLD.name());
+    assertThat(bookingRepository.findById(first.id()).orElseThrow().getStatus()).isEqualTo(BookingStatus.EXPIRED);
+  }
+
+  @Test
+  void liveHold_stillConflicts() {
+    UUID apartmentId = createApartment(rest, "Busy Loft", "Sopot");
+    LocalDate from = LocalDate.of(2026, 7, 1);
+    LocalDate to = LocalDate.of(2026, 7, 4);
+    hold(rest, login("user1@local.test"), apartmentId, from, to, "it-live-1");
+
+    ResponseEntity<String> r = rest.postForEntity("/api/bookings/hold",
+        new HttpEntity<>(new BookingHoldRequest(apartmentId, from, to), login("user2@local.test")), String.class);
+    assertThat(r.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+  }
+
+  private HttpHeaders login(String email) {
+    return TestAuth.loginHeaders(rest, email, "UserPassword123!", "it-stale");
+  }
+}
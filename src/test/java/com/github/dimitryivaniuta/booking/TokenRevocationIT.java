@@ -0,0 +1,41 @@
+package com.github.dimitryivaniuta.booking;
+
+import java.util.UUID;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static java.time.Duration.ofSeconds;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that revoked access tokens are rejected once the revocation has propagated.
+ */
+public class TokenRevocationIT extends AbstractIntegrationTest {
+
+  @Autowired
+  TestRestTemplate rest;
+
+  @Test
+  void logout_revokesAccessToken() {
+    var userH = TestAuth.loginHeaders(rest, "user2@local.test", "UserPassword123!", "it-revoke");
+    String url = "/api/bookings/" + UUID.randomUUID();
+
+    ResponseEntity<String> before = rest.exchange(url, HttpMethod.GET, new HttpEntity<>(userH), String.class);
+    assertThat(before.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+    ResponseEntity<Void> logout = rest.exchange("/api/auth/logout", HttpMethod.POST, new HttpEntity<>(userH), Void.class);
+    assertThat(logout.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+    Awaitility.await().atMost(ofSeconds(5)).untilAsserted(() -> {
+      ResponseEntity<String> after = rest.exchange(url, HttpMethod.GET, new HttpEntity<>(userH), String.class);
+      assertThat(after.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+      assertThat(after.getBody()).contains("Token revoked");
+    });
+  }
+}
@@ -0,0 +1,139 @@
+package com.github.dimitryivaniuta.booking.catalog;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the city/capacity index and incremental updates of {@link CatalogSnapshot}.
+ */
+class CatalogSnapshotTest {
+
+  private static final Comparator<ApartmentInfo> BY_CAPACITY =
+      Comparator.comparingInt(ApartmentInfo::capacity).thenComparing(ApartmentInfo::id);
+
+  @Test
+  void candidates_foldCityCase() {
+    ApartmentInfo a = apartment("Gdansk", 2);
+    ApartmentInfo b = apartment("GDANSK", 3);
+    ApartmentInfo c = apartment("Sopot", 2);
+    CatalogSnapshot snapshot = new CatalogSnapshot(List.of(a, b, c));
+
+    assertThat(snapshot.candidates("gdansk", null)).containsExactlyInAnyOrder(a, b);
+    assertThat(snapshot.candidates("GdAnSk", null)).containsExactlyInAnyOrder(a, b);
+    assertThat(snapshot.candidates("SOPOT", null)).containsExactly(c);
+  }
+
+  @Test
+  void candidates_capacityBoundaryIsInclusive() {
+    ApartmentInfo two = apartment("Gdansk", 2);
+    ApartmentInfo threeA = apartment("Gdansk", 3);
+    ApartmentInfo threeB = apartment("Gdansk", 3);
+    ApartmentInfo five = apartment("Gdansk", 5);
+    CatalogSnapshot snapshot = new CatalogSnapshot(List.of(five, threeB, two, threeA));
+
+    assertThat(snapshot.candidates("Gdansk", 3)).containsExactlyElementsOf(
+        sorted(List.of(threeA, threeB, five)));
+    assertThat(snapshot.candidates("Gdansk", 2)).hasSize(4);
+    assertThat(snapshot.candidates("Gdansk", 1)).hasSize(4);
+    assertThat(snapshot.candidates("Gdansk", 4)).containsExactly(five);
+    assertThat(snapshot.candidates("Gdansk", 5)).containsExactly(five);
+    assertThat(snapshot.candidates("Gdansk", 6)).isEmpty();
+  }
+
+  @Test
+  void candidates_unknownCity_isEmpty() {
+    CatalogSnapshot snapshot = new CatalogSnapshot(List.of(apartment("Gdansk", 2)));
+
+    assertThat(snapshot.candidates("Warsaw", null)).isEmpty();
+    assertThat(snapshot.candidates("Warsaw", 1)).isEmpty();
+    assertThat(CatalogSnapshot.EMPTY.candidates("Gdansk", null)).isEmpty();
+    assertThat(CatalogSnapshot.EMPTY.candidates(null, null)).isEmpty();
+  }
+
+  @Test
+  void candidates_matchSqlFilter() {
+    // Same predicate as ApartmentRepository.searchAvailable without the booking check:
+    // (:city is null or lower(city) = lower(:city)) and (:minCapacity is null or capacity >= :minCapacity).
+    Random random = new Random(42);
+    String[] cities = {"Gdansk", "gdansk", "Sopot", "SOPOT", "Gdynia", "Krakow"};
+    List<ApartmentInfo> apartments = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      apartments.add(apartment(cities[random.nextInt(cities.length)], 1 + random.nextInt(8)));
+    }
+    CatalogSnapshot snapshot = new CatalogSnapshot(apartments);
+
+    String[] queries = {null, "gdansk", "Sopot", "GDYNIA", "krakow", "Warsaw"};
+    Integer[] capacities = {null, 0, 1, 4, 8, 9};
+    for (String city : queries) {
+      for (Integer minCapacity : capacities) {
+        List<ApartmentInfo> expected = sorted(apartments.stream()
+            .filter(a -> city == null || a.city().toLowerCase(Locale.ROOT).equals(city.toLowerCase(Locale.ROOT)))
+            .filter(a -> minCapacity == null || a.capacity() >= minCapacity)
+            .toList());
+        assertThat(snapshot.candidates(city, minCapacity))
+            .as("city=%s, minCapacity=%s", city, minCapacity)
+            .containsExactlyElementsOf(expected);
+      }
+    }
+  }
+
+  @Test
+  void with_matchesFullRebuild() {
+    // Inserts, capacity changes, city changes (including to a new city) and moves on, off and across the grid.
+    Random random = new Random(7);
+    String[] cities = {"Gdansk", "GDANSK", "Sopot", "Gdynia"};
+    Map<UUID, ApartmentInfo> current = new LinkedHashMap<>();
+    CatalogSnapshot incremental = CatalogSnapshot.EMPTY;
+    for (int step = 0; step < 400; step++) {
+      UUID id = current.isEmpty() || random.nextInt(3) == 0
+          ? UUID.randomUUID()
+          : new ArrayList<>(current.keySet()).get(random.nextInt(current.size()));
+      String city = step % 50 == 49 ? "City" + step : cities[random.nextInt(cities.length)];
+      boolean located = random.nextBoolean();
+      ApartmentInfo a = new ApartmentInfo(id, "Apartment", city, 1 + random.nextInt(6), Instant.EPOCH,
+          located ? 54.3 + random.nextDouble() * 0.3 : null, located ? 18.5 + random.nextDouble() * 0.3 : null,
+          RateTable.UNPRICED);
+      current.put(id, a);
+      incremental = incremental.with(a);
+    }
+    CatalogSnapshot rebuilt = new CatalogSnapshot(current.values());
+
+    assertThat(incremental.size()).isEqualTo(rebuilt.size());
+    for (UUID id : current.keySet()) {
+      assertThat(incremental.get(id)).isEqualTo(rebuilt.get(id));
+    }
+    for (String city : List.of("gdansk", "Sopot", "GDYNIA", "city49", "city399", "Warsaw")) {
+      for (Integer minCapacity : new Integer[] {null, 1, 3, 6, 7}) {
+        assertThat(incremental.candidates(city, minCapacity))
+            .as("city=%s, minCapacity=%s", city, minCapacity)
+            .containsExactlyElementsOf(rebuilt.candidates(city, minCapacity));
+      }
+    }
+    assertThat(incremental.candidates(null, 2)).containsExactlyElementsOf(rebuilt.candidates(null, 2));
+    for (GeoArea area : List.of(GeoArea.box(54.3, 18.5, 54.6, 18.8), GeoArea.box(54.4, 18.6, 54.45, 18.65),
+        GeoArea.box(-90, -180, 90, 180), GeoArea.circle(54.45, 18.65, 5_000))) {
+      assertThat(incremental.within(area, 2)).containsExactlyElementsOf(rebuilt.within(area, 2));
+    }
+  }
+
+  private static List<ApartmentInfo> sorted(List<ApartmentInfo> apartments) {
+    List<ApartmentInfo> copy = new ArrayList<>(apartments);
+    copy.sort(BY_CAPACITY);
+    return copy;
+  }
+
+  private static ApartmentInfo apartment(String city, int capacity) {
+    return new ApartmentInfo(UUID.randomUUID(), "Apartment", city, capacity, Instant.EPOCH, null, null,
+        RateTable.UNPRICED);
+  }
+}
@@ -0,0 +1,104 @@
+package com.github.dimitryivaniuta.booking.catalog;
+
+import com.github.dimitryivaniuta.booking.domain.ApartmentRate;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RateTable} stay totals.
+ */
+class RateTableTest {
+
+  private static final UUID APARTMENT = UUID.randomUUID();
+  private static final LocalDate SUMMER_START = LocalDate.of(2026, 7, 1);
+  private static final LocalDate SUMMER_END = LocalDate.of(2026, 7, 11);
+  private static final LocalDate AUTUMN_START = LocalDate.of(2026, 10, 1);
+  private static final LocalDate AUTUMN_END = LocalDate.of(2026, 10, 4);
+
+  private final List<ApartmentRate> seasons = List.of(
+      new ApartmentRate(APARTMENT, SUMMER_START, SUMMER_END, new BigDecimal("150.00")),
+      new ApartmentRate(APARTMENT, AUTUMN_START, AUTUMN_END, new BigDecimal("80.50")));
+  private final RateTable rates = RateTable.of(new BigDecimal("100.00"), seasons);
+
+  @Test
+  void stayBeforeAndAfterSeasons_usesBaseRate() {
+    assertThat(rates.totalCents(LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 4))).isEqualTo(30_000);
+    assertThat(rates.totalCents(LocalDate.of(2026, 6, 28), SUMMER_START)).isEqualTo(30_000);
+    assertThat(rates.totalCents(AUTUMN_END, LocalDate.of(2026, 10, 6))).isEqualTo(20_000);
+    assertThat(rates.totalCents(LocalDate.of(2027, 1, 1), LocalDate.of(2027, 1, 2))).isEqualTo(10_000);
+  }
+
+  @Test
+  void stayInsideSeason_usesSeasonRate() {
+    assertThat(rates.totalCents(SUMMER_START, SUMMER_END)).isEqualTo(150_000);
+    assertThat(rates.totalCents(LocalDate.of(2026, 7, 3), LocalDate.of(2026, 7, 5))).isEqualTo(30_000);
+    assertThat(rates.totalCents(AUTUMN_START, AUTUMN_END)).isEqualTo(24_150);
+  }
+
+  @Test
+  void stayStraddlingSeasonEdges_mixesRates() {
+    // Two base nights, then two summer nights.
+    assertThat(rates.totalCents(LocalDate.of(2026, 6, 29), LocalDate.of(2026, 7, 3))).isEqualTo(50_000);
+    // Two summer nights, then one base night.
+    assertThat(rates.totalCents(LocalDate.of(2026, 7, 9), LocalDate.of(2026, 7, 12))).isEqualTo(40_000);
+    // Across both seasons and the base-rate gap between them.
+    assertThat(rates.totalCents(LocalDate.of(2026, 6, 30), LocalDate.of(2026, 10, 5)))
+        .isEqualTo(referenceCents(LocalDate.of(2026, 6, 30), LocalDate.of(2026, 10, 5)));
+  }
+
+  @Test
+  void everyStayInAndAroundTheSpan_matchesNightByNightSum() {
+    LocalDate first = LocalDate.of(2026, 6, 25);
+    LocalDate last = LocalDate.of(2026, 10, 10);
+    for (LocalDate from = first; from.isBefore(last); from = from.plusDays(1)) {
+      for (LocalDate to = from.plusDays(1); !to.isAfter(last); to = to.plusDays(7)) {
+        assertThat(rates.totalCents(from, to)).as("%s..%s", from, to).isEqualTo(referenceCents(from, to));
+      }
+    }
+  }
+
+  @Test
+  void totalAndBaseRate_areInCurrencyUnits() {
+    assertThat(rates.priced()).isTrue();
+    assertThat(rates.baseRate()).isEqualByComparingTo("100.00");
+    assertThat(rates.total(AUTUMN_START, AUTUMN_END)).isEqualByComparingTo("241.50");
+    assertThat(RateTable.cents(new BigDecimal("10.005"))).isEqualTo(1001);
+  }
+
+  @Test
+  void noBaseRate_isUnpriced_evenWithSeasons() {
+    RateTable unpriced = RateTable.of(null, seasons);
+
+    assertThat(unpriced).isSameAs(RateTable.UNPRICED);
+    assertThat(unpriced.priced()).isFalse();
+    assertThat(unpriced.baseRate()).isNull();
+    assertThat(unpriced.totalCents(SUMMER_START, SUMMER_END)).isEqualTo(-1);
+    assertThat(unpriced.total(SUMMER_START, SUMMER_END)).isNull();
+  }
+
+  @Test
+  void noSeasons_usesBaseRateEverywhere() {
+    RateTable flat = RateTable.of(new BigDecimal("99.99"), List.of());
+
+    assertThat(flat.totalCents(SUMMER_START, SUMMER_END)).isEqualTo(99_990);
+  }
+
+  private long referenceCents(LocalDate from, LocalDate to) {
+    long total = 0;
+    for (LocalDate night = from; night.isBefore(to); night = night.plusDays(1)) {
+      long cents = 10_000;
+      for (ApartmentRate s : seasons) {
+        if (!night.isBefore(s.getStartDate()) && night.isBefore(s.getEndDate())) {
+          cents = RateTable.cents(s.getNightlyRate());
+        }
+      }
+      total += cents;
+    }
+    return total;
+  }
+}
@@ -0,0 +1,88 @@
+package com.github.dimitryivaniuta.booking.events;
+
+import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link BookingEventCodec}.
+ */
+class BookingEventCodecTest {
+
+  private static final Instant AT = Instant.ofEpochMilli(1_767_225_600_123L);
+
+  static Stream<BookingEvent> events() {
+    UUID booking = UUID.randomUUID();
+    UUID apartment = UUID.randomUUID();
+    UUID user = UUID.randomUUID();
+    return Stream.of(
+        new BookingHeld(booking, apartment, user, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 4),
+            BookingStatus.HOLD, AT),
+        // Dates before the epoch (negative epoch days) and an instant before it.
+        new BookingHeld(booking, apartment, user, LocalDate.of(1969, 12, 30), LocalDate.of(1970, 1, 2),
+            BookingStatus.HOLD, Instant.ofEpochMilli(-5)),
+        new BookingConfirmed(booking, "pay-é€-1", BookingStatus.CONFIRMED),
+        new BookingConfirmed(booking, null, BookingStatus.CONFIRMED),
+        new BookingConfirmed(booking, "", BookingStatus.CONFIRMED),
+        new BookingCancelled(booking, BookingStatus.CANCELLED),
+        new BookingExpired(booking, apartment, user, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 4, 30),
+            BookingStatus.EXPIRED, AT),
+        new BookingHoldsExpired(3, AT, List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID())),
+        new BookingHoldsExpired(0, AT, List.of())
+    );
+  }
+
+  @ParameterizedTest
+  @MethodSource("events")
+  void roundTrip(BookingEvent event) {
+    byte[] body = BookingEventCodec.encode(event);
+
+    assertThat(body[0]).isEqualTo(BookingEventCodec.VERSION);
+    assertThat(BookingEventCodec.decode(event.eventType(), body)).isEqualTo(event);
+  }
+
+  @Test
+  void decodesV1HoldsExpired_withoutIds() {
+    // v1 had no id list: version, count, at. That is a v2 body with an empty list minus its trailing count byte.
+    byte[] v2 = BookingEventCodec.encode(new BookingHoldsExpired(7, AT, List.of()));
+    byte[] v1 = Arrays.copyOf(v2, v2.length - 1);
+    v1[0] = 1;
+
+    BookingEvent decoded = BookingEventCodec.decode("BookingHoldsExpired", v1);
+
+    assertThat(decoded).isEqualTo(new BookingHoldsExpired(7, AT, List.of()));
+  }
+
+  @Test
+  void dropsSubMillisecondPrecision() {
+    Instant precise = AT.plusNanos(456_789);
+    BookingEvent decoded = BookingEventCodec.decode("BookingHoldsExpired",
+        BookingEventCodec.encode(new BookingHoldsExpired(1, precise, List.of())));
+
+    assertThat(((BookingHoldsExpired) decoded).at()).isEqualTo(AT);
+  }
+
+  @Test
+  void rejectsUnknownVersionTypeAndTruncatedBody() {
+    byte[] body = BookingEventCodec.encode(new BookingCancelled(UUID.randomUUID(), BookingStatus.CANCELLED));
+
+    byte[] future = body.clone();
+    future[0] = (byte) (BookingEventCodec.VERSION + 1);
+    assertThatThrownBy(() -> BookingEventCodec.decode("BookingCancelled", future))
+        .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("version");
+    assertThatThrownBy(() -> BookingEventCodec.decode("BookingPaid", body))
+        .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("type");
+    assertThatThrownBy(() -> BookingEventCodec.decode("BookingCancelled", Arrays.copyOf(body, body.length - 1)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
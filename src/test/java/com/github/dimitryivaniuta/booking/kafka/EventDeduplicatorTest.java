@@ -0,0 +1,147 @@
+package com.github.dimitryivaniuta.booking.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link EventDeduplicator}. Time is driven by a fake ticker; windows are 600 s exact, 1 h bloom.
+ */
+class EventDeduplicatorTest {
+
+  private static final String CONSUMER = "availability-projection";
+
+  private final ProcessedEventRepository repository = mock(ProcessedEventRepository.class);
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+  private final AtomicLong nanos = new AtomicLong();
+
+  @Test
+  void exactWindow_catchesDuplicate() {
+    EventDeduplicator dedup = dedup("memory");
+    dedup.markProcessed(CONSUMER, 1);
+
+    assertThat(dedup.alreadyProcessed(CONSUMER, List.of(1L, 2L))).containsExactly(1L);
+    assertThat(dedup.recentlyProcessed(CONSUMER, 1)).isTrue();
+    assertThat(dedup.recentlyProcessed(CONSUMER, 2)).isFalse();
+    assertThat(duplicates("exact")).isEqualTo(1);
+    // Consumers are independent.
+    assertThat(dedup.alreadyProcessed("other", List.of(1L))).isEmpty();
+  }
+
+  @Test
+  void bloomFilter_catchesDuplicate_afterExactWindowExpires() {
+    EventDeduplicator dedup = dedup("memory");
+    dedup.markProcessed(CONSUMER, 1);
+
+    advance(Duration.ofSeconds(601));
+
+    assertThat(dedup.recentlyProcessed(CONSUMER, 1)).isFalse();
+    assertThat(dedup.alreadyProcessed(CONSUMER, List.of(1L, 2L))).containsExactly(1L);
+    assertThat(duplicates("bloom")).isEqualTo(1);
+    assertThat(duplicates("exact")).isZero();
+  }
+
+  @Test
+  void bloomFilters_rotate_afterBloomWindow() {
+    EventDeduplicator dedup = dedup("memory");
+    dedup.markProcessed(CONSUMER, 1);
+
+    // One rotation: the id moves to the previous filter and is still known.
+    advance(Duration.ofMinutes(61));
+    assertThat(dedup.alreadyProcessed(CONSUMER, List.of(1L))).containsExactly(1L);
+    dedup.markProcessed(CONSUMER, 2);
+
+    // Second rotation: the first id's filter is dropped, the second id's becomes the previous one.
+    advance(Duration.ofMinutes(61));
+    assertThat(dedup.alreadyProcessed(CONSUMER, List.of(1L, 2L))).containsExactly(2L);
+  }
+
+  @Test
+  void postgresMode_looksUpUnknownIdsOncePerBatch_andIgnoresBloomFilter() {
+    when(repository.findProcessed(CONSUMER, List.of(2L, 3L, 4L))).thenReturn(List.of(3L));
+    EventDeduplicator dedup = dedup("postgres");
+    dedup.markProcessed(CONSUMER, 1);
+
+    assertThat(dedup.alreadyProcessed(CONSUMER, List.of(1L, 2L, 3L, 4L))).containsExactlyInAnyOrder(1L, 3L);
+    verify(repository).findProcessed(CONSUMER, List.of(2L, 3L, 4L));
+    assertThat(duplicates("exact")).isEqualTo(1);
+    assertThat(duplicates("postgres")).isEqualTo(1);
+
+    // Past the exact window the table decides, not the local filter.
+    advance(Duration.ofSeconds(601));
+    when(repository.findProcessed(CONSUMER, List.of(1L))).thenReturn(List.of());
+    assertThat(dedup.alreadyProcessed(CONSUMER, List.of(1L))).isEmpty();
+  }
+
+  @Test
+  void postgresMode_exactHitsOnly_skipLookup() {
+    EventDeduplicator dedup = dedup("postgres");
+    dedup.markProcessed(CONSUMER, 1);
+
+    assertThat(dedup.alreadyProcessed(CONSUMER, List.of(1L))).containsExactly(1L);
+    verify(repository, never()).findProcessed(anyString(), anyCollection());
+  }
+
+  @Test
+  void postgresMode_flushWritesPendingMarksInOneCall() {
+    EventDeduplicator dedup = dedup("postgres");
+    dedup.markProcessed(CONSUMER, 1);
+    dedup.markProcessed(CONSUMER, 2);
+    dedup.markProcessed(CONSUMER, 3);
+
+    dedup.flush(CONSUMER);
+    dedup.flush(CONSUMER);
+
+    verify(repository).markProcessed(CONSUMER, new Long[] {1L, 2L, 3L});
+  }
+
+  @Test
+  void postgresMode_failedFlush_isSwallowed_andMemoryStillKnowsIds() {
+    when(repository.markProcessed(anyString(), any())).thenThrow(new DataAccessResourceFailureException("down"));
+    EventDeduplicator dedup = dedup("postgres");
+    dedup.markProcessed(CONSUMER, 1);
+
+    dedup.flush(CONSUMER);
+
+    assertThat(dedup.recentlyProcessed(CONSUMER, 1)).isTrue();
+  }
+
+  @Test
+  void memoryMode_neverTouchesRepository() {
+    EventDeduplicator dedup = dedup("memory");
+    dedup.markProcessed(CONSUMER, 1);
+
+    dedup.alreadyProcessed(CONSUMER, List.of(1L, 2L));
+    dedup.flush(CONSUMER);
+    dedup.purgeExpired();
+
+    verifyNoInteractions(repository);
+  }
+
+  private EventDeduplicator dedup(String mode) {
+    return new EventDeduplicator(repository, registry, mode, 600, 10_000, 1, 10_000, 0.000001, 72, nanos::get);
+  }
+
+  private void advance(Duration d) {
+    nanos.addAndGet(d.toNanos());
+  }
+
+  private double duplicates(String source) {
+    var counter = registry.find("booking.events.dedup.duplicates").tag("source", source).counter();
+    return counter == null ? 0 : counter.count();
+  }
+}
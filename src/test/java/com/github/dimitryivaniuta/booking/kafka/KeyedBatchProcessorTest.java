@@ -0,0 +1,128 @@
+package com.github.dimitryivaniuta.booking.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+/**
+ * Unit tests for per-key ordering and failure reporting of {@link KeyedBatchProcessor}.
+ */
+class KeyedBatchProcessorTest {
+
+  private static final String TOPIC = "booking-events";
+
+  private final KeyedBatchProcessor processor = new KeyedBatchProcessor(new SimpleMeterRegistry());
+  /** Offsets handled, per key, in handling order. */
+  private final Map<String, List<Long>> handled = new ConcurrentHashMap<>();
+
+  @AfterEach
+  void tearDown() {
+    processor.shutdown();
+  }
+
+  @Test
+  void success_handlesEveryRecordOnce_inOffsetOrderPerKey() {
+    List<ConsumerRecord<String, String>> batch = interleaved(0, 30, "a", "b", "c");
+
+    processor.process(batch, null, r -> record(r));
+
+    assertThat(handled).containsOnlyKeys("0/a", "0/b", "0/c");
+    handled.values().forEach(offsets -> assertThat(offsets).hasSize(10).isSorted());
+  }
+
+  @Test
+  void middleGroupFails_exceptionNamesIt_andPrefixBeforeItWasHandled() {
+    // Offsets 0..8: a b c a b c a b c. Key b fails on offset 4 (index 4), so index 0..3 is the committed prefix.
+    List<ConsumerRecord<String, String>> batch = interleaved(0, 9, "a", "b", "c");
+
+    BatchListenerFailedException e = catchThrowableOfType(BatchListenerFailedException.class,
+        () -> processor.process(batch, null, r -> {
+          record(r);
+          if (r.offset() == 4) {
+            throw new IllegalStateException("boom");
+          }
+        }));
+
+    assertThat(e.getIndex()).isEqualTo(4);
+    assertThat(e.getCause()).hasMessage("boom");
+    assertThat(e.getMessage()).contains(TOPIC + "-0@4");
+    Set<Long> done = allHandled();
+    for (int i = 0; i < e.getIndex(); i++) {
+      assertThat(done).as("prefix record %d", i).contains(batch.get(i).offset());
+    }
+    // The failed key stops; the other keys run to the end of the batch.
+    assertThat(handled.get("0/b")).containsExactly(1L, 4L);
+    assertThat(handled.get("0/a")).containsExactly(0L, 3L, 6L);
+    assertThat(handled.get("0/c")).containsExactly(2L, 5L, 8L);
+  }
+
+  @Test
+  void severalGroupsFail_earliestIndexWins() {
+    List<ConsumerRecord<String, String>> batch = interleaved(0, 9, "a", "b", "c");
+
+    assertThatThrownBy(() -> processor.process(batch, null, r -> {
+      record(r);
+      if (r.offset() == 8 || r.offset() == 4) {
+        throw new IllegalStateException("boom@" + r.offset());
+      }
+    }))
+        .isInstanceOfSatisfying(BatchListenerFailedException.class, e -> {
+          assertThat(e.getIndex()).isEqualTo(4);
+          assertThat(e.getCause()).hasMessage("boom@4");
+        });
+  }
+
+  @Test
+  void sameKeyOnTwoPartitions_isTwoGroups_andIndexIsBatchPosition() {
+    List<ConsumerRecord<String, String>> batch = new ArrayList<>();
+    batch.addAll(interleaved(0, 3, "a"));
+    batch.addAll(interleaved(1, 3, "a"));
+
+    BatchListenerFailedException e = catchThrowableOfType(BatchListenerFailedException.class,
+        () -> processor.process(batch, null, r -> {
+          record(r);
+          if (r.partition() == 1 && r.offset() == 1) {
+            throw new IllegalStateException("boom");
+          }
+        }));
+
+    assertThat(e.getIndex()).isEqualTo(4);
+    assertThat(handled.get("0/a")).containsExactly(0L, 1L, 2L);
+    assertThat(handled.get("1/a")).containsExactly(0L, 1L);
+  }
+
+  private void record(ConsumerRecord<String, String> r) {
+    handled.computeIfAbsent(r.partition() + "/" + r.key(), k -> new CopyOnWriteArrayList<>()).add(r.offset());
+  }
+
+  private Set<Long> allHandled() {
+    Set<Long> all = ConcurrentHashMap.newKeySet();
+    handled.forEach((k, v) -> {
+      if (k.startsWith("0/")) {
+        all.addAll(v);
+      }
+    });
+    return all;
+  }
+
+  /** Records with offsets {@code 0..count-1} of one partition, keys assigned round-robin. */
+  private static List<ConsumerRecord<String, String>> interleaved(int partition, int count, String... keys) {
+    List<ConsumerRecord<String, String>> records = new ArrayList<>(count);
+    for (int offset = 0; offset < count; offset++) {
+      records.add(new ConsumerRecord<>(TOPIC, partition, offset, keys[offset % keys.length], "v" + offset));
+    }
+    return records;
+  }
+}
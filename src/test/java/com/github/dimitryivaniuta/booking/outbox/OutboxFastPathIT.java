@@ -0,0 +1,124 @@
+package com.github.dimitryivaniuta.booking.outbox;
+
+import com.github.dimitryivaniuta.booking.AbstractIntegrationTest;
+import com.github.dimitryivaniuta.booking.TestAuth;
+import com.github.dimitryivaniuta.booking.api.dto.BookingResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import static java.time.Duration.ofSeconds;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Verifies the hand-off between the outbox fast path and the poller when a send fails or sends pile up.
+ *
+ * <p>The grace period is far longer than the waits below, so a row leased by the fast path can only reach the
+ * poller early by being released.</p>
+ */
+@TestPropertySource(properties = {
+    "booking.outbox.fast-path.grace-ms=60000",
+    "booking.outbox.fast-path.max-pending=2"
+})
+public class OutboxFastPathIT extends AbstractIntegrationTest {
+
+  @Autowired
+  TestRestTemplate rest;
+
+  @Autowired
+  OutboxRepository outboxRepository;
+
+  @Autowired
+  OutboxClaimer claimer;
+
+  @MockitoSpyBean
+  OutboxPublisher publisher;
+
+  @Test
+  void failedSend_isReleasedToPoller() {
+    UUID apartmentId = createApartment(rest, "Fast Fail Loft", "Gdynia");
+    doReturn(CompletableFuture.failedFuture(new IllegalStateException("kafka down")))
+        .doCallRealMethod()
+        .when(publisher).send(any());
+
+    BookingResponse booking = hold(apartmentId, "it-fast-fail");
+
+    Awaitility.await().atMost(ofSeconds(15)).untilAsserted(() ->
+        assertThat(rows(booking.id())).singleElement()
+            .satisfies(m -> assertThat(m.getPublishedAt()).isNotNull()));
+    verify(publisher, atLeast(2)).send(any());
+  }
+
+  @Test
+  void pendingAtLimit_andAggregateWithUnpublishedRow_goToPoller() {
+    UUID firstApartment = createApartment(rest, "Fast Slow Loft", "Gdynia");
+    UUID secondApartment = createApartment(rest, "Fast Slower Loft", "Gdynia");
+    UUID thirdApartment = createApartment(rest, "Fast Spill Loft", "Gdynia");
+    CompletableFuture<Object> firstSend = new CompletableFuture<>();
+    CompletableFuture<Object> secondSend = new CompletableFuture<>();
+    doReturn(firstSend).doReturn(secondSend).doCallRealMethod().when(publisher).send(any());
+
+    // Both leased by the fast path; their sends hang, so two sends are pending (= max-pending).
+    BookingResponse first = hold(firstApartment, "it-fast-slow-1");
+    BookingResponse second = hold(secondApartment, "it-fast-slow-2");
+    Awaitility.await().atMost(ofSeconds(5)).untilAsserted(() -> verify(publisher, atLeast(2)).send(any()));
+    assertThat(rows(first.id()).get(0).getClaimedBy()).isEqualTo(claimer.nodeId());
+    assertThat(rows(second.id()).get(0).getClaimedBy()).isEqualTo(claimer.nodeId());
+
+    // Over the limit: written unleased and published by the poller.
+    BookingResponse third = hold(thirdApartment, "it-fast-spill");
+    Awaitility.await().atMost(ofSeconds(15)).untilAsserted(() ->
+        assertThat(rows(third.id())).singleElement()
+            .satisfies(m -> assertThat(m.getPublishedAt()).isNotNull()));
+
+    // Back under the limit, but the first booking still has a row in flight: its next row is not leased and
+    // the poller does not overtake the leased one.
+    secondSend.complete(null);
+    Awaitility.await().atMost(ofSeconds(5)).untilAsserted(() ->
+        assertThat(rows(second.id()).get(0).getPublishedAt()).isNotNull());
+    var userH = TestAuth.loginHeaders(rest, "user1@local.test", "UserPassword123!", "it-fast");
+    ResponseEntity<String> cancel = rest.postForEntity("/api/bookings/" + first.id() + "/cancel",
+        new HttpEntity<>(userH), String.class);
+    assertThat(cancel.getStatusCode()).isEqualTo(HttpStatus.OK);
+    List<OutboxMessage> firstRows = rows(first.id());
+    assertThat(firstRows).hasSize(2);
+    assertThat(firstRows.get(1).getClaimedBy()).isNull();
+    assertThat(firstRows).allSatisfy(m -> assertThat(m.getPublishedAt()).isNull());
+
+    // The failed send releases the first row; the poller then publishes both, in order.
+    firstSend.completeExceptionally(new IllegalStateException("kafka down"));
+    Awaitility.await().atMost(ofSeconds(15)).untilAsserted(() ->
+        assertThat(rows(first.id())).allSatisfy(m -> assertThat(m.getPublishedAt()).isNotNull()));
+    List<OutboxMessage> published = rows(first.id());
+    assertThat(published.get(0).getPublishedAt()).isBeforeOrEqualTo(published.get(1).getPublishedAt());
+  }
+
+  private List<OutboxMessage> rows(UUID aggregateId) {
+    return outboxRepository.findAll().stream()
+        .filter(m -> aggregateId.equals(m.getAggregateId()))
+        .sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+        .toList();
+  }
+
+  private BookingResponse hold(UUID apartmentId, String idempotencyKey) {
+    LocalDate from = LocalDate.of(2026, 8, 10);
+    HttpHeaders userH = TestAuth.loginHeaders(rest, "user1@local.test", "UserPassword123!", "it-fast");
+    return hold(rest, userH, apartmentId, from, from.plusDays(2), idempotencyKey);
+  }
+}
@@ -0,0 +1,210 @@
+package com.github.dimitryivaniuta.booking.projection;
+
+import com.github.dimitryivaniuta.booking.domain.BookingStatus;
+import com.github.dimitryivaniuta.booking.events.BookingCancelled;
+import com.github.dimitryivaniuta.booking.events.BookingConfirmed;
+import com.github.dimitryivaniuta.booking.events.BookingExpired;
+import com.github.dimitryivaniuta.booking.events.BookingHeld;
+import com.github.dimitryivaniuta.booking.events.BookingHoldsExpired;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AvailabilityProjection}.
+ */
+class AvailabilityProjectionTest {
+
+  private static final LocalDate D = LocalDate.of(2026, 3, 1);
+  private static final UUID APARTMENT = UUID.randomUUID();
+
+  private final AvailabilityProjection projection = new AvailabilityProjection();
+
+  @Test
+  void apply_isIdempotent() {
+    BookingHeld held = held(UUID.randomUUID(), APARTMENT, 0, 3);
+
+    projection.apply(held);
+    projection.apply(held);
+    projection.apply(new BookingConfirmed(held.bookingId(), "pay-1", BookingStatus.CONFIRMED));
+    projection.apply(new BookingConfirmed(held.bookingId(), "pay-1", BookingStatus.CONFIRMED));
+
+    assertThat(projection.size()).isEqualTo(1);
+    assertThat(projection.isOccupied(APARTMENT, D, D.plusDays(1))).isTrue();
+
+    BookingCancelled cancelled = new BookingCancelled(held.bookingId(), BookingStatus.CANCELLED);
+    projection.apply(cancelled);
+    projection.apply(cancelled);
+
+    assertThat(projection.size()).isZero();
+    assertThat(projection.isOccupied(APARTMENT, D, D.plusDays(3))).isFalse();
+  }
+
+  @Test
+  void apply_removesExpiredHolds_fromBothExpiryEvents() {
+    BookingHeld a = held(UUID.randomUUID(), APARTMENT, 0, 2);
+    BookingHeld b = held(UUID.randomUUID(), APARTMENT, 5, 7);
+    projection.apply(a);
+    projection.apply(b);
+
+    projection.apply(new BookingExpired(a.bookingId(), APARTMENT, a.userId(), a.startDate(), a.endDate(),
+        BookingStatus.EXPIRED, Instant.now()));
+    projection.apply(new BookingHoldsExpired(1, Instant.now(), List.of(b.bookingId())));
+
+    assertThat(projection.size()).isZero();
+    assertThat(projection.occupied(D, D.plusDays(10))).isEmpty();
+  }
+
+  @Test
+  void overlaps_usesCheckoutIsExclusive() {
+    projection.apply(held(UUID.randomUUID(), APARTMENT, 2, 4));
+
+    assertThat(projection.isOccupied(APARTMENT, D, D.plusDays(2))).isFalse();
+    assertThat(projection.isOccupied(APARTMENT, D.plusDays(4), D.plusDays(6))).isFalse();
+    assertThat(projection.isOccupied(APARTMENT, D.plusDays(3), D.plusDays(4))).isTrue();
+    assertThat(projection.isOccupied(APARTMENT, D, D.plusDays(10))).isTrue();
+  }
+
+  @Test
+  void overlaps_seesLongStayThatStartedBeforeLaterShortOnes() {
+    // [0, 30) starts first; [10, 11) and [20, 21) start later but end earlier. A query for [25, 26) has
+    // [20, 21) as the last stay starting before it, so only the running max check-out reveals [0, 30).
+    projection.apply(held(UUID.randomUUID(), APARTMENT, 0, 30));
+    projection.apply(held(UUID.randomUUID(), APARTMENT, 10, 11));
+    projection.apply(held(UUID.randomUUID(), APARTMENT, 20, 21));
+
+    assertThat(projection.isOccupied(APARTMENT, D.plusDays(25), D.plusDays(26))).isTrue();
+    assertThat(projection.isOccupied(APARTMENT, D.plusDays(30), D.plusDays(31))).isFalse();
+  }
+
+  @Test
+  void occupied_listsOnlyOverlappingApartments() {
+    UUID other = UUID.randomUUID();
+    projection.apply(held(UUID.randomUUID(), APARTMENT, 0, 3));
+    projection.apply(held(UUID.randomUUID(), other, 5, 8));
+
+    assertThat(projection.occupied(D.plusDays(1), D.plusDays(2))).containsExactly(APARTMENT);
+    assertThat(projection.occupied(D.plusDays(2), D.plusDays(6))).containsExactlyInAnyOrder(APARTMENT, other);
+    assertThat(projection.occupied(D.plusDays(3), D.plusDays(5))).isEmpty();
+  }
+
+  @Test
+  void put_movingStayToAnotherApartment_freesTheOldOne() {
+    UUID bookingId = UUID.randomUUID();
+    UUID other = UUID.randomUUID();
+    projection.put(new AvailabilityProjection.Stay(bookingId, APARTMENT, D.toEpochDay(), D.plusDays(2).toEpochDay(),
+        AvailabilityProjection.Stay.NO_EXPIRY));
+    projection.put(new AvailabilityProjection.Stay(bookingId, other, D.toEpochDay(), D.plusDays(2).toEpochDay(),
+        AvailabilityProjection.Stay.NO_EXPIRY));
+
+    assertThat(projection.isOccupied(APARTMENT, D, D.plusDays(2))).isFalse();
+    assertThat(projection.isOccupied(other, D, D.plusDays(2))).isTrue();
+  }
+
+  @Test
+  void snapshot_roundTrip() throws IOException {
+    UUID other = UUID.randomUUID();
+    projection.apply(held(UUID.randomUUID(), APARTMENT, 0, 30));
+    projection.apply(held(UUID.randomUUID(), APARTMENT, 10, 11));
+    projection.apply(held(UUID.randomUUID(), other, 40, 45));
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      projection.writeTo(out);
+    }
+    AvailabilityProjection restored = new AvailabilityProjection();
+    restored.apply(held(UUID.randomUUID(), UUID.randomUUID(), 0, 1)); // replaced by readFrom
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      restored.readFrom(in);
+    }
+
+    assertThat(restored.size()).isEqualTo(3);
+    for (LocalDate day = D.minusDays(2); day.isBefore(D.plusDays(50)); day = day.plusDays(1)) {
+      assertThat(restored.occupied(day, day.plusDays(1))).isEqualTo(projection.occupied(day, day.plusDays(1)));
+    }
+  }
+
+  @Test
+  void overdueHold_isIgnored_untilItsExpiryEventArrives() {
+    Instant deadline = Instant.now().plusSeconds(60);
+    projection.apply(new BookingHeld(UUID.randomUUID(), APARTMENT, UUID.randomUUID(), D, D.plusDays(3),
+        BookingStatus.HOLD, deadline));
+    long before = deadline.toEpochMilli();
+    long after = before + 1;
+
+    assertThat(projection.isOccupied(APARTMENT, D, D.plusDays(1), before)).isTrue();
+    assertThat(projection.isOccupied(APARTMENT, D, D.plusDays(1), after)).isFalse();
+    assertThat(projection.occupied(D, D.plusDays(3), before)).containsExactly(APARTMENT);
+    assertThat(projection.occupied(D, D.plusDays(3), after)).isEmpty();
+    assertThat(projection.size()).isEqualTo(1);
+  }
+
+  @Test
+  void overdueHold_doesNotHideConfirmedStayOnSameApartment() {
+    long now = System.currentTimeMillis();
+    BookingHeld firm = held(UUID.randomUUID(), APARTMENT, 0, 30);
+    projection.apply(firm);
+    projection.apply(new BookingConfirmed(firm.bookingId(), "pay-1", BookingStatus.CONFIRMED));
+    projection.apply(new BookingHeld(UUID.randomUUID(), APARTMENT, UUID.randomUUID(), D.plusDays(40),
+        D.plusDays(42), BookingStatus.HOLD, Instant.ofEpochMilli(now - 1)));
+
+    assertThat(projection.isOccupied(APARTMENT, D.plusDays(25), D.plusDays(26), now)).isTrue();
+    assertThat(projection.isOccupied(APARTMENT, D.plusDays(40), D.plusDays(41), now)).isFalse();
+  }
+
+  @Test
+  void confirm_clearsHoldDeadline() {
+    Instant deadline = Instant.now().plusSeconds(60);
+    BookingHeld held = new BookingHeld(UUID.randomUUID(), APARTMENT, UUID.randomUUID(), D, D.plusDays(3),
+        BookingStatus.HOLD, deadline);
+    projection.apply(held);
+    projection.apply(new BookingConfirmed(held.bookingId(), "pay-1", BookingStatus.CONFIRMED));
+
+    long later = deadline.plusSeconds(3600).toEpochMilli();
+    assertThat(projection.isOccupied(APARTMENT, D, D.plusDays(1), later)).isTrue();
+  }
+
+  @Test
+  void snapshot_roundTrip_keepsHoldDeadlines() throws IOException {
+    Instant deadline = Instant.now().plusSeconds(60);
+    projection.apply(new BookingHeld(UUID.randomUUID(), APARTMENT, UUID.randomUUID(), D, D.plusDays(3),
+        BookingStatus.HOLD, deadline));
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      projection.writeTo(out);
+    }
+    AvailabilityProjection restored = new AvailabilityProjection();
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      restored.readFrom(in);
+    }
+
+    assertThat(restored.isOccupied(APARTMENT, D, D.plusDays(1), deadline.toEpochMilli())).isTrue();
+    assertThat(restored.isOccupied(APARTMENT, D, D.plusDays(1), deadline.toEpochMilli() + 1)).isFalse();
+  }
+
+  @Test
+  void pruneEndedBy_dropsPastStaysOnly() {
+    projection.apply(held(UUID.randomUUID(), APARTMENT, 0, 2));
+    projection.apply(held(UUID.randomUUID(), APARTMENT, 5, 8));
+
+    projection.pruneEndedBy(D.plusDays(2));
+
+    assertThat(projection.size()).isEqualTo(1);
+    assertThat(projection.isOccupied(APARTMENT, D.plusDays(5), D.plusDays(6))).isTrue();
+  }
+
+  private static BookingHeld held(UUID bookingId, UUID apartmentId, int fromDay, int toDay) {
+    return new BookingHeld(bookingId, apartmentId, UUID.randomUUID(), D.plusDays(fromDay), D.plusDays(toDay),
+        BookingStatus.HOLD, Instant.now().plusSeconds(3600));
+  }
+}
@@ -0,0 +1,212 @@
+package com.github.dimitryivaniuta.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dimitryivaniuta.booking.api.dto.ApartmentImportResponse;
+import com.github.dimitryivaniuta.booking.api.dto.ImportRowError;
+import com.github.dimitryivaniuta.booking.catalog.ApartmentCatalog;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for CSV parsing, row validation and batch error reporting of {@link ApartmentImportService}.
+ */
+class ApartmentImportServiceTest {
+
+  private static final ValidatorFactory VALIDATION = Validation.buildDefaultValidatorFactory();
+
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+  private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+  private final ApartmentCatalog apartmentCatalog = mock(ApartmentCatalog.class);
+  private final CacheManager cacheManager = mock(CacheManager.class);
+  /** Row count of every batch handed to JDBC. */
+  private final List<Integer> batches = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    doAnswer(inv -> {
+      inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+      return null;
+    }).when(transactionTemplate).executeWithoutResult(any());
+    when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class))).thenAnswer(inv -> {
+      List<Object[]> rows = inv.getArgument(1);
+      batches.add(rows.size());
+      return new int[rows.size()];
+    });
+  }
+
+  @AfterAll
+  static void closeValidation() {
+    VALIDATION.close();
+  }
+
+  @Test
+  void splitCsv_handlesQuotesAndEscapes() {
+    assertThat(ApartmentImportService.splitCsv("a,b,c")).containsExactly("a", "b", "c");
+    assertThat(ApartmentImportService.splitCsv("\"Loft, Old Town\",Gdansk,2"))
+        .containsExactly("Loft, Old Town", "Gdansk", "2");
+    assertThat(ApartmentImportService.splitCsv("\"The \"\"Blue\"\" Loft\",Gdansk"))
+        .containsExactly("The \"Blue\" Loft", "Gdansk");
+    assertThat(ApartmentImportService.splitCsv("\"\",,x,")).containsExactly("", "", "x", "");
+    assertThat(ApartmentImportService.splitCsv("")).containsExactly("");
+  }
+
+  @Test
+  void splitCsv_unterminatedQuote_isRejected() {
+    assertThatThrownBy(() -> ApartmentImportService.splitCsv("\"Loft, Gdansk,2"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("unterminated");
+  }
+
+  @Test
+  void csv_importsValidRows_andReportsBadOnesByLine() {
+    ApartmentImportResponse r = importCsv(1000, 1000, """
+        city,Name,capacity,nightlyRate
+        Gdansk,"Loft, Old Town",2,120.50
+
+        Sopot,Sea View,0,
+        Gdynia,Harbour,3
+        Gdynia,"Broken,4,
+        Krakow,Castle,x,
+        Krakow,Castle,4,
+        """);
+
+    assertThat(r.imported()).isEqualTo(2);
+    assertThat(r.failed()).isEqualTo(4);
+    assertThat(r.errorsTruncated()).isFalse();
+    assertThat(r.errors()).extracting(ImportRowError::line).containsExactly(4L, 5L, 6L, 7L);
+    assertThat(r.errors().get(0).message()).contains("capacity");
+    assertThat(r.errors().get(1).message()).contains("expected 4 fields, got 3");
+    assertThat(r.errors().get(2).message()).contains("unterminated");
+    assertThat(batches).containsExactly(2);
+    verify(apartmentCatalog).reloadEverywhere();
+  }
+
+  @Test
+  void csv_headerMissingRequiredColumn_isBadRequest() {
+    assertThatThrownBy(() -> importCsv(1000, 1000, "name,city\nLoft,Gdansk\n"))
+        .isInstanceOf(BadRequestException.class)
+        .hasMessageContaining("name, city and capacity");
+    verify(apartmentCatalog, never()).reloadEverywhere();
+  }
+
+  @Test
+  void csv_headerUnknownColumn_isBadRequest() {
+    assertThatThrownBy(() -> importCsv(1000, 1000, "name,city,capacity,colour\nLoft,Gdansk,2,red\n"))
+        .isInstanceOf(BadRequestException.class)
+        .hasMessageContaining("colour");
+  }
+
+  @Test
+  void errorsBeyondMaxErrors_areCountedButNotListed() {
+    ApartmentImportResponse r = importCsv(1000, 2, """
+        name,city,capacity
+        A,Gdansk,0
+        B,Gdansk,0
+        C,Gdansk,0
+        D,Gdansk,2
+        """);
+
+    assertThat(r.imported()).isEqualTo(1);
+    assertThat(r.failed()).isEqualTo(3);
+    assertThat(r.errors()).extracting(ImportRowError::line).containsExactly(2L, 3L);
+    assertThat(r.errorsTruncated()).isTrue();
+  }
+
+  @Test
+  void failedBatch_reportsEveryLineOfIt_andKeepsOtherBatches() {
+    when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class)))
+        .thenAnswer(inv -> new int[2])
+        .thenThrow(new DataIntegrityViolationException("duplicate key"))
+        .thenAnswer(inv -> new int[1]);
+
+    ApartmentImportResponse r = importCsv(2, 1000, """
+        name,city,capacity
+        A,Gdansk,2
+        B,Gdansk,2
+        C,Gdansk,2
+        bad,Gdansk,0
+        D,Gdansk,2
+        E,Gdansk,2
+        """);
+
+    assertThat(r.imported()).isEqualTo(3);
+    assertThat(r.failed()).isEqualTo(3);
+    assertThat(r.errors()).extracting(ImportRowError::line).containsExactly(5L, 4L, 6L);
+    assertThat(r.errors().subList(1, 3)).allSatisfy(e -> assertThat(e.message()).contains("duplicate key"));
+  }
+
+  @Test
+  void ndjson_importsObjects_andRejectsMalformedLines() {
+    ApartmentImportResponse r = service(1000, 1000).importApartments(stream("""
+        {"name":"Loft","city":"Gdansk","capacity":2,"latitude":54.35,"longitude":18.65}
+        {"name":"Half","city":"Gdansk","capacity":2,"latitude":54.35}
+        {"name":"Broken",
+        {"name":"Rated","city":"Sopot","capacity":4,"nightlyRate":99.99}
+        """), ApartmentImportService.Format.NDJSON);
+
+    assertThat(r.imported()).isEqualTo(2);
+    assertThat(r.errors()).extracting(ImportRowError::line).containsExactly(2L, 3L);
+    assertThat(r.errors().get(0).message()).contains("latitude and longitude");
+    assertThat(r.errors().get(1).message()).startsWith("Unparseable row");
+  }
+
+  @Test
+  void ndjson_nullLine_isRowError_notAbort() {
+    ApartmentImportResponse r = service(1, 1000).importApartments(stream("""
+        {"name":"Loft","city":"Gdansk","capacity":2}
+        null
+        {"name":"Rated","city":"Sopot","capacity":4}
+        """), ApartmentImportService.Format.NDJSON);
+
+    assertThat(r.imported()).isEqualTo(2);
+    assertThat(r.errors()).extracting(ImportRowError::line).containsExactly(2L);
+    assertThat(r.errors().get(0).message()).startsWith("Unparseable row");
+  }
+
+  @Test
+  void nothingImported_skipsCatalogRefresh() {
+    ApartmentImportResponse r = importCsv(1000, 1000, "name,city,capacity\nA,Gdansk,0\n");
+
+    assertThat(r.imported()).isZero();
+    verify(apartmentCatalog, never()).reloadEverywhere();
+  }
+
+  private ApartmentImportResponse importCsv(int batchSize, int maxErrors, String csv) {
+    return service(batchSize, maxErrors).importApartments(stream(csv), ApartmentImportService.Format.CSV);
+  }
+
+  private ApartmentImportService service(int batchSize, int maxErrors) {
+    Validator validator = VALIDATION.getValidator();
+    return new ApartmentImportService(jdbcTemplate, transactionTemplate, validator, new ObjectMapper(),
+        apartmentCatalog, cacheManager, batchSize, maxErrors);
+  }
+
+  private static ByteArrayInputStream stream(String s) {
+    return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+  }
+}
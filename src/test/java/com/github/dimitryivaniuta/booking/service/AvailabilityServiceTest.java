@@ -0,0 +1,123 @@
+package com.github.dimitryivaniuta.booking.service;
+
+import com.github.dimitryivaniuta.booking.catalog.ApartmentCatalog;
+import com.github.dimitryivaniuta.booking.config.CacheConfig;
+import com.github.dimitryivaniuta.booking.projection.AvailabilityProjection;
+import com.github.dimitryivaniuta.booking.projection.AvailabilityProjectionRunner;
+import com.github.dimitryivaniuta.booking.repo.ApartmentRepository;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the data-source and caching choices of {@link AvailabilityService#search}.
+ */
+class AvailabilityServiceTest {
+
+  private static final LocalDate FROM = LocalDate.of(2026, 3, 1);
+  private static final LocalDate TO = LocalDate.of(2026, 3, 4);
+
+  private final ApartmentRepository apartmentRepository = mock(ApartmentRepository.class);
+  private final ApartmentCatalog apartmentCatalog = mock(ApartmentCatalog.class);
+  private final AvailabilityProjectionRunner runner = mock(AvailabilityProjectionRunner.class);
+
+  @BeforeEach
+  void setUp() {
+    when(runner.projection()).thenReturn(new AvailabilityProjection());
+    when(apartmentRepository.searchAvailable(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+        .thenReturn(Page.empty());
+    when(apartmentRepository.searchExcluding(any(), any(), anyCollection(), any())).thenReturn(Page.empty());
+  }
+
+  @Test
+  void projectionMode_staleProjection_fallsBackToDatabase() {
+    when(runner.stalenessMillis()).thenReturn(10_000L);
+    AvailabilityService service = service("projection");
+
+    service.search("Gdansk", 2, FROM, TO, null, null, false, 0, 20);
+
+    verify(apartmentRepository).searchAvailable(eq("Gdansk"), eq(2), eq(FROM), eq(TO), any(), any(), any(), any(),
+        any());
+    verify(apartmentRepository, never()).searchExcluding(any(), any(), anyCollection(), any());
+    verify(runner, never()).projection();
+    assertThat(service.stalenessMillis()).isZero();
+  }
+
+  @Test
+  void projectionMode_freshProjection_excludesOccupiedApartments() {
+    when(runner.stalenessMillis()).thenReturn(100L);
+    AvailabilityService service = service("projection");
+
+    service.search("Gdansk", 2, FROM, TO, null, null, false, 0, 20);
+
+    verify(apartmentRepository).searchExcluding(eq("Gdansk"), eq(2), anyCollection(), any());
+    verify(apartmentRepository, never()).searchAvailable(any(), any(), any(), any(), any(), any(), any(), any(),
+        any());
+    assertThat(service.stalenessMillis()).isEqualTo(100L);
+  }
+
+  @Test
+  void dbMode_neverReadsProjection() {
+    when(runner.stalenessMillis()).thenReturn(0L);
+    AvailabilityService service = service("db");
+
+    service.search(null, null, FROM, TO, null, null, false, 0, 20);
+
+    verify(apartmentRepository).searchAvailable(any(), any(), eq(FROM), eq(TO), any(), any(), any(), any(), any());
+    verify(runner, never()).projection();
+    assertThat(service.stalenessMillis()).isZero();
+  }
+
+  @Test
+  void resultsAreCachedInDbMode_butNotInProjectionMode() {
+    when(runner.stalenessMillis()).thenReturn(100L);
+
+    searchTwiceThroughCacheProxy("db");
+    verify(apartmentRepository).searchAvailable(any(), any(), any(), any(), any(), any(), any(), any(), any());
+
+    searchTwiceThroughCacheProxy("projection");
+    verify(apartmentRepository, times(2)).searchExcluding(any(), any(), anyCollection(), any());
+  }
+
+  private void searchTwiceThroughCacheProxy(String mode) {
+    try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+      context.register(CachingConfig.class);
+      context.registerBean(AvailabilityService.class, () -> service(mode));
+      context.refresh();
+      AvailabilityService cached = context.getBean(AvailabilityService.class);
+      cached.search("Gdansk", 2, FROM, TO, null, null, false, 0, 20);
+      cached.search("Gdansk", 2, FROM, TO, null, null, false, 0, 20);
+    }
+  }
+
+  @Configuration
+  @EnableCaching(proxyTargetClass = true)
+  static class CachingConfig {
+
+    @Bean
+    CacheManager cacheManager() {
+      return new ConcurrentMapCacheManager(CacheConfig.AVAILABILITY_SEARCH_CACHE);
+    }
+  }
+
+  private AvailabilityService service(String mode) {
+    return new AvailabilityService(apartmentRepository, apartmentCatalog, runner, mode, 5000, 1000);
+  }
+}
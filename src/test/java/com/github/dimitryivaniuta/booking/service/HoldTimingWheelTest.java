@@ -0,0 +1,128 @@
+package com.github.dimitryivaniuta.booking.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link HoldTimingWheel}. Ticks are 1 ms, so deadlines are tick numbers.
+ */
+class HoldTimingWheelTest {
+
+  @Test
+  void deadlineNotInFuture_isDueOnAdd() {
+    HoldTimingWheel wheel = new HoldTimingWheel(1, 1_000);
+    List<UUID> due = new ArrayList<>();
+    UUID past = UUID.randomUUID();
+    UUID now = UUID.randomUUID();
+
+    wheel.add(past, 10, due);
+    wheel.add(now, 1_000, due);
+
+    assertThat(due).containsExactly(past, now);
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  void roundsDeadlineUpToTheNextTick() {
+    HoldTimingWheel wheel = new HoldTimingWheel(250, 1_000);
+    List<UUID> due = new ArrayList<>();
+    UUID id = UUID.randomUUID();
+    wheel.add(id, 1_251, due);
+
+    wheel.advanceTo(1_499, due);
+    assertThat(due).isEmpty();
+    wheel.advanceTo(1_500, due);
+    assertThat(due).containsExactly(id);
+  }
+
+  @Test
+  void firesExactlyOnDeadline_aroundLevelBoundaries() {
+    // Deltas straddling the level-0/1 (64), level-1/2 (4096) and level-2/3 (262144) spans.
+    long[] deltas = {1, 2, 63, 64, 65, 127, 128, 4_095, 4_096, 4_097, 8_191, 8_192, 262_143, 262_144, 262_145};
+    // Starts aligned to, and just off, each cascade period.
+    long[] starts = {0, 1, 63, 64, 4_095, 4_096, 4_097, 262_143, 1_000_003};
+    for (long start : starts) {
+      HoldTimingWheel wheel = new HoldTimingWheel(1, start);
+      Map<UUID, Long> expected = new HashMap<>();
+      List<UUID> due = new ArrayList<>();
+      for (long delta : deltas) {
+        UUID id = UUID.randomUUID();
+        expected.put(id, start + delta);
+        wheel.add(id, start + delta, due);
+      }
+      assertThat(due).isEmpty();
+
+      Map<UUID, Long> fired = runUntil(wheel, start, start + 262_146);
+
+      assertThat(fired).as("start=%d", start).isEqualTo(expected);
+      assertThat(wheel.size()).isZero();
+    }
+  }
+
+  @Test
+  void addAfterAdvancing_usesCurrentPosition() {
+    HoldTimingWheel wheel = new HoldTimingWheel(1, 0);
+    List<UUID> due = new ArrayList<>();
+    wheel.advanceTo(4_000, due);
+    UUID id = UUID.randomUUID();
+    // Crosses the 4096 cascade boundary while filed from level 1.
+    wheel.add(id, 4_200, due);
+
+    Map<UUID, Long> fired = runUntil(wheel, 4_000, 5_000);
+
+    assertThat(fired).containsEntry(id, 4_200L).hasSize(1);
+  }
+
+  @Test
+  void deadlineBeyondTopLevel_goesToOverflowAndStillFiresOnTime() {
+    long span = 1L << 24; // 64^4 ticks
+    HoldTimingWheel wheel = new HoldTimingWheel(1, 0);
+    List<UUID> due = new ArrayList<>();
+    UUID far = UUID.randomUUID();
+    wheel.add(far, span + 100, due);
+
+    wheel.advanceTo(span + 99, due);
+    assertThat(due).isEmpty();
+    assertThat(wheel.size()).isEqualTo(1);
+    wheel.advanceTo(span + 100, due);
+    assertThat(due).containsExactly(far);
+  }
+
+  @Test
+  void duplicateId_isFiledOnce_withTheFirstDeadline() {
+    HoldTimingWheel wheel = new HoldTimingWheel(1, 0);
+    List<UUID> due = new ArrayList<>();
+    UUID id = UUID.randomUUID();
+    wheel.add(id, 100, due);
+    wheel.add(id, 50, due);
+    wheel.add(id, 5_000, due);
+
+    assertThat(wheel.size()).isEqualTo(1);
+    Map<UUID, Long> fired = runUntil(wheel, 0, 6_000);
+    assertThat(fired).containsExactly(Map.entry(id, 100L));
+
+    // Once fired it is no longer pending, so it can be filed again.
+    wheel.add(id, 6_010, due);
+    assertThat(wheel.size()).isEqualTo(1);
+  }
+
+  /** Advances one tick at a time and records the tick each id fired on; fails on a second firing. */
+  private static Map<UUID, Long> runUntil(HoldTimingWheel wheel, long from, long to) {
+    Map<UUID, Long> fired = new HashMap<>();
+    List<UUID> due = new ArrayList<>();
+    for (long t = from + 1; t <= to; t++) {
+      wheel.advanceTo(t, due);
+      for (UUID id : due) {
+        assertThat(fired.put(id, t)).as("fired twice: %s", id).isNull();
+      }
+      due.clear();
+    }
+    return fired;
+  }
+}